@@ -0,0 +1,272 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.benchmarks;
+
+import static de.amr.games.pacman.lib.Globals.TS;
+import static de.amr.games.pacman.lib.option.Option.integerOption;
+import static de.amr.games.pacman.lib.option.Option.option;
+
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tinylog.Logger;
+
+import de.amr.games.pacman.controller.GameController;
+import de.amr.games.pacman.controller.GameState;
+import de.amr.games.pacman.event.GameEvent;
+import de.amr.games.pacman.event.GameEventListener;
+import de.amr.games.pacman.event.GameEvents;
+import de.amr.games.pacman.event.GameStateChangeEvent;
+import de.amr.games.pacman.lib.option.Option;
+import de.amr.games.pacman.lib.option.OptionParser;
+import de.amr.games.pacman.model.GameVariant;
+import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.app.FrameStats;
+import de.amr.games.pacman.ui.swing.lib.DamageTracker;
+import de.amr.games.pacman.ui.swing.lib.FrameExchange;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
+import de.amr.games.pacman.ui.swing.rendering.common.LevelAnimations;
+import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
+import de.amr.games.pacman.ui.swing.scenes.common.PlayScene;
+import de.amr.games.pacman.ui.swing.shell.SceneCompositor;
+
+/**
+ * Measures the memory allocated per tick while the play scene is running with autopilot and fails if the allocation
+ * exceeds the budget. The steady state of the play scene must not allocate, so the budgets are 0 by default. The game
+ * loop thread (scene update and rendering) and a render thread (presenting the frames)
+ * are measured separately using {@link com.sun.management.ThreadMXBean}. Allocation done by the game model update is
+ * reported but not checked.
+ * <p>
+ * Frames go through the same pipeline as in the game window: the scene is composed with damage tracking into the back
+ * frame of a {@link FrameExchange}, and the render thread copies the blocks changed since its last frame, scaled with
+ * nearest neighbor interpolation. Only the final buffer strategy is replaced by an image, because the check runs
+ * headless.
+ * <p>
+ * Command-line arguments:
+ * <ul>
+ * <li><code>-variant</code> &lt;PACMAN|MS_PACMAN&gt;: Game variant (default: PACMAN)</li>
+ * <li><code>-ticks</code> &lt;ticks&gt;: Number of measured ticks (default: 3600)</li>
+ * <li><code>-warmup</code> &lt;ticks&gt;: Number of ticks before measuring starts (default: 600)</li>
+ * <li><code>-budget</code> &lt;bytes&gt;: Allowed bytes per tick for scene update and rendering (default: 0)</li>
+ * <li><code>-presentbudget</code> &lt;bytes&gt;: Allowed bytes per presented frame (default: 0)</li>
+ * <li><code>-slack</code> &lt;bytes&gt;: Bytes per measured thread allowed in total on top of the budget (default:
+ * 1024)</li>
+ * </ul>
+ * The slack only covers the measurement: {@code getCurrentThreadAllocatedBytes()} is specified as an approximation of
+ * the allocated memory. The slack is a total per run, so even one object allocated per tick exceeds it.
+ * <p>
+ * Exits with status 1 if a budget is exceeded. Each game variant is checked in its own run, see the
+ * <code>allocation-budget</code> profile.
+ * 
+ * @author Armin Reichert
+ */
+public class AllocationBudgetCheck implements GameEventListener {
+
+	static final Option<GameVariant> OPT_VARIANT = option("-variant", GameVariant.PACMAN, GameVariant::valueOf);
+	static final Option<Integer> OPT_TICKS = integerOption("-ticks", 3600);
+	static final Option<Integer> OPT_WARMUP = integerOption("-warmup", 600);
+	static final Option<Integer> OPT_BUDGET = integerOption("-budget", 0);
+	static final Option<Integer> OPT_PRESENT_BUDGET = integerOption("-presentbudget", 0);
+	static final Option<Integer> OPT_SLACK = integerOption("-slack", 1024);
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	public static void main(String[] args) {
+		new OptionParser(OPT_VARIANT, OPT_TICKS, OPT_WARMUP, OPT_BUDGET, OPT_PRESENT_BUDGET, OPT_SLACK).parse(args);
+		System.setProperty("java.awt.headless", "true");
+		var check = new AllocationBudgetCheck(new GameController(OPT_VARIANT.getValue()));
+		var result = check.run(OPT_WARMUP.getValue(), OPT_TICKS.getValue());
+		Logger.info("Allocation: {}", result);
+		long slack = OPT_SLACK.getValue();
+		if (result.sceneBytes() > result.ticks() * OPT_BUDGET.getValue() + slack
+				|| result.presentBytes() > result.presentedFrames() * OPT_PRESENT_BUDGET.getValue() + slack) {
+			Logger.error("Allocation budget exceeded: scene {} bytes/tick, presentation {} bytes/frame, slack {} bytes",
+					OPT_BUDGET.getValue(), OPT_PRESENT_BUDGET.getValue(), slack);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Measured allocation.
+	 */
+	public record Result(String scene, long ticks, long coreBytes, long sceneBytes, long presentedFrames,
+			long presentBytes) {
+
+		public long coreBytesPerTick() {
+			return ticks == 0 ? 0 : coreBytes / ticks;
+		}
+
+		public long sceneBytesPerTick() {
+			return ticks == 0 ? 0 : sceneBytes / ticks;
+		}
+
+		public long presentBytesPerFrame() {
+			return presentedFrames == 0 ? 0 : presentBytes / presentedFrames;
+		}
+
+		@Override
+		public String toString() {
+			return "%s, %d ticks: model %d bytes/tick, scene %d bytes (%d/tick), presentation %d bytes (%d/frame, %d frames)"
+					.formatted(scene, ticks, coreBytesPerTick(), sceneBytes, sceneBytesPerTick(), presentBytes,
+							presentBytesPerFrame(), presentedFrames);
+		}
+	}
+
+	private final GameController gameController;
+	private final GameScene scene = new PlayScene();
+	private final AnimationScheduler animationScheduler = new AnimationScheduler();
+	private final LevelAnimations levelAnimations = new LevelAnimations(animationScheduler);
+	private final FrameExchange frameExchange = new FrameExchange(World.TILES_X * TS, World.TILES_Y * TS);
+	private final DamageTracker damageTracker = new DamageTracker(World.TILES_X * TS, World.TILES_Y * TS);
+	private final SceneCompositor compositor = new SceneCompositor(World.TILES_X * TS, World.TILES_Y * TS,
+			new FrameStats());
+	private final AtomicLong presentedFrames = new AtomicLong();
+	private final AtomicLong presentBytes = new AtomicLong();
+	private volatile boolean measuring;
+	private volatile boolean running;
+
+	public AllocationBudgetCheck(GameController gameController) {
+		if (!THREADS.isThreadAllocatedMemorySupported()) {
+			throw new UnsupportedOperationException("Thread allocation measurement is not supported by this JVM");
+		}
+		THREADS.setThreadAllocatedMemoryEnabled(true);
+		this.gameController = gameController;
+		frameExchange.setChangeTracking(true);
+	}
+
+	/**
+	 * Starts a new game with autopilot and measures the given number of ticks after the warmup.
+	 * 
+	 * @param warmupTicks   ticks before measuring starts
+	 * @param measuredTicks number of measured ticks
+	 * @return measured allocation
+	 */
+	public Result run(int warmupTicks, int measuredTicks) {
+		GameEvents.addListener(this);
+		try {
+			return measure(warmupTicks, measuredTicks);
+		} finally {
+			GameEvents.removeListener(this);
+		}
+	}
+
+	private Result measure(int warmupTicks, int measuredTicks) {
+		scene.setContext(gameController, animationScheduler);
+		scene.init();
+		gameController.addCredit();
+		gameController.startPlaying();
+		if (!gameController.isAutoControlled()) {
+			gameController.toggleAutoControlled();
+		}
+		running = true;
+		var renderThread = new Thread(this::presentLoop, "Render");
+		renderThread.setDaemon(true);
+		renderThread.start();
+		long coreBytes = 0;
+		long sceneBytes = 0;
+		long ticks = 0;
+		for (int tick = 0; tick < warmupTicks + measuredTicks; ++tick) {
+			if (gameController.state() == GameState.GAME_OVER) {
+				break;
+			}
+			measuring = tick >= warmupTicks;
+			long t0 = THREADS.getCurrentThreadAllocatedBytes();
+			gameController.update();
+			long t1 = THREADS.getCurrentThreadAllocatedBytes();
+			scene.update();
+			animationScheduler.advance();
+			render(tick);
+			long t2 = THREADS.getCurrentThreadAllocatedBytes();
+			LockSupport.unpark(renderThread);
+			if (measuring) {
+				coreBytes += t1 - t0;
+				sceneBytes += t2 - t1;
+				++ticks;
+			}
+		}
+		running = false;
+		LockSupport.unpark(renderThread);
+		var name = gameController.game().variant() + " " + scene.getClass().getSimpleName();
+		return new Result(name, ticks, coreBytes, sceneBytes, presentedFrames.get(), presentBytes.get());
+	}
+
+	// as in PacManGameUI.render()
+	private void render(long tick) {
+		var g = frameExchange.backFrame().graphics();
+		DamageTracker.begin(g, damageTracker);
+		compositor.compose(scene, g);
+		DamageTracker.end(g);
+		frameExchange.publish(tick, scene.tracksDamage() ? damageTracker.mask() : FrameExchange.ALL_BLOCKS);
+	}
+
+	// as in PacManGameUI.renderScreen() with a single back buffer
+	private void presentLoop() {
+		int scaling = 2;
+		var target = new BufferedImage(scaling * World.TILES_X * TS, scaling * World.TILES_Y * TS,
+				BufferedImage.TYPE_INT_RGB);
+		var g = target.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+		g.scale(scaling, scaling);
+		long lastSeq = 0;
+		while (running) {
+			LockSupport.park(this);
+			var frame = frameExchange.latestFrame();
+			if (frame == null || frame.seq() == lastSeq) {
+				continue;
+			}
+			long before = THREADS.getCurrentThreadAllocatedBytes();
+			frameExchange.drawBlocks(g, frame.image, frameExchange.changedBlocksSince(lastSeq));
+			long bytes = THREADS.getCurrentThreadAllocatedBytes() - before;
+			lastSeq = frame.seq();
+			if (measuring) {
+				presentedFrames.incrementAndGet();
+				presentBytes.addAndGet(bytes);
+			}
+		}
+		g.dispose();
+	}
+
+	@Override
+	public void onGameEvent(GameEvent event) {
+		GameEventListener.super.onGameEvent(event);
+		scene.onGameEvent(event);
+	}
+
+	@Override
+	public void onLevelStarting(GameEvent e) {
+		levelAnimations.install(gameController.game());
+	}
+
+	@Override
+	public void onGameStateChange(GameStateChangeEvent e) {
+		// normally ended by the intermission scenes which are not rendered here
+		if (e.newGameState == GameState.INTERMISSION) {
+			gameController.terminateCurrentState();
+		}
+	}
+}
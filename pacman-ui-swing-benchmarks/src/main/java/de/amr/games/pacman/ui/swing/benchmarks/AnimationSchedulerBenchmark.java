@@ -0,0 +1,86 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
+import de.amr.games.pacman.ui.swing.rendering.common.FrameTable;
+import de.amr.games.pacman.ui.swing.rendering.common.SpriteAnimation;
+
+/**
+ * One tick of many running sprite animations: each animation is animated, then the scheduler advances them.
+ * 
+ * @author Armin Reichert
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AnimationSchedulerBenchmark {
+
+	@Param({ "16", "256", "1024" })
+	public int numAnimations;
+
+	private final AnimationScheduler scheduler = new AnimationScheduler();
+	// keeps the animations reachable, unreachable animations lose their scheduler slot
+	private SpriteAnimation[] animations;
+
+	@Setup
+	public void setup() {
+		var frames = new BufferedImage[4];
+		for (int i = 0; i < frames.length; ++i) {
+			frames[i] = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+		}
+		var table = FrameTable.of(2, FrameTable.FOREVER, frames);
+		animations = new SpriteAnimation[numAnimations];
+		for (int i = 0; i < numAnimations; ++i) {
+			animations[i] = new SpriteAnimation(scheduler, table);
+			animations[i].start();
+		}
+	}
+
+	@Benchmark
+	public void advance() {
+		for (var animation : animations) {
+			animation.animate();
+		}
+		scheduler.advance();
+	}
+}
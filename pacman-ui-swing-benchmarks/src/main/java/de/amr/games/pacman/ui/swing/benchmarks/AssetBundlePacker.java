@@ -0,0 +1,54 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.benchmarks;
+
+import java.nio.file.Path;
+
+import org.tinylog.Logger;
+
+import de.amr.games.pacman.ui.swing.lib.AssetBundle;
+
+/**
+ * Build-time tool that packs the images, sounds and fonts of the resource directory into an {@link AssetBundle}. Run by
+ * the Maven profile {@code asset-bundle} of this module, so it is not part of the game artifact.
+ * <p>
+ * Arguments: resource directory, bundle file.
+ * 
+ * @author Armin Reichert
+ */
+public class AssetBundlePacker {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length != 2) {
+			Logger.error("Usage: AssetBundlePacker <resource directory> <bundle file>");
+			System.exit(1);
+		}
+		var resourceDir = Path.of(args[0]);
+		var bundleFile = Path.of(args[1]);
+		long start = System.nanoTime();
+		int numEntries = AssetBundle.pack(resourceDir, bundleFile);
+		Logger.info("Packed {} assets from {} into {} in {} ms", numEntries, resourceDir, bundleFile,
+				(System.nanoTime() - start) / 1_000_000);
+	}
+}
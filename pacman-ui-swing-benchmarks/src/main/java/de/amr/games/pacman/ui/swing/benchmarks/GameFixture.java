@@ -0,0 +1,103 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import de.amr.games.pacman.controller.GameController;
+import de.amr.games.pacman.controller.GameState;
+import de.amr.games.pacman.model.GameLevel;
+import de.amr.games.pacman.model.GameModel;
+import de.amr.games.pacman.model.GameVariant;
+import de.amr.games.pacman.model.actors.Bonus;
+import de.amr.games.pacman.ui.swing.rendering.common.Rendering2D;
+import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
+import de.amr.games.pacman.ui.swing.rendering.pacman.SpritesheetPacMan;
+import de.amr.games.pacman.ui.swing.scenes.common.PlayScene;
+import de.amr.games.pacman.ui.swing.shell.OffscreenRenderer;
+
+/**
+ * A game played by the autopilot until an edible bonus is shown, so that the play scene has something to draw in
+ * every layer: maze with partly eaten food, actors, bonus, scores and counters. The game is not advanced during the
+ * measurement, every invocation draws the same game situation.
+ * 
+ * @author Armin Reichert
+ */
+@State(Scope.Benchmark)
+public class GameFixture {
+
+	private static final int MAX_TICKS = 60 * 60 * 5;
+
+	@Param({ "PACMAN", "MS_PACMAN" })
+	public GameVariant variant;
+
+	public GameController gameController;
+	public OffscreenRenderer renderer;
+	public PlayScene playScene;
+	public Rendering2D gss;
+	public GameModel game;
+	public GameLevel level;
+	public Bonus bonus;
+
+	@Setup
+	public void setup() {
+		gameController = new GameController(variant);
+		game = gameController.game();
+		gss = variant == GameVariant.MS_PACMAN ? SpritesheetMsPacMan.get() : SpritesheetPacMan.get();
+		playScene = new PlayScene();
+		renderer = new OffscreenRenderer(gameController, 1);
+		renderer.setScene(playScene);
+		gameController.addCredit();
+		gameController.startPlaying();
+		if (!gameController.isAutoControlled()) {
+			gameController.toggleAutoControlled();
+		}
+		for (int tick = 0; tick < MAX_TICKS && !isBonusEdible(); ++tick) {
+			renderer.step();
+			if (gameController.state() == GameState.GAME_OVER) {
+				break;
+			}
+		}
+		if (!isBonusEdible()) {
+			throw new IllegalStateException("No bonus was shown within %d ticks".formatted(MAX_TICKS));
+		}
+		level = game.level().get();
+		bonus = level.bonusManagement().getBonus().get();
+		renderer.render();
+	}
+
+	@TearDown
+	public void tearDown() {
+		renderer.close();
+	}
+
+	private boolean isBonusEdible() {
+		return game.level().flatMap(lvl -> lvl.bonusManagement().getBonus())
+				.filter(b -> b.state() == Bonus.STATE_EDIBLE).isPresent();
+	}
+}
@@ -0,0 +1,87 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.amr.games.pacman.ui.swing.rendering.common.MazeLayer;
+
+/**
+ * The draw methods of {@link de.amr.games.pacman.ui.swing.rendering.common.Rendering2D} used by the play scene. The
+ * maze with eaten food is drawn by a {@link MazeLayer}.
+ * 
+ * @author Armin Reichert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class Rendering2DBenchmark {
+
+	private final MazeLayer mazeLayer = new MazeLayer();
+
+	@Setup
+	public void setup(GameFixture fixture) {
+		var level = fixture.level;
+		mazeLayer.init(fixture.gss, level.world(), fixture.gss.mazeNumber(level.number()));
+	}
+
+	@Benchmark
+	public void drawScores(GameFixture fixture, OffscreenGraphics target) {
+		fixture.gss.drawScores(target.g, fixture.game, false);
+	}
+
+	@Benchmark
+	public void drawLivesCounter(GameFixture fixture, OffscreenGraphics target) {
+		fixture.gss.drawLivesCounter(target.g, fixture.game);
+	}
+
+	@Benchmark
+	public void drawLevelCounter(GameFixture fixture, OffscreenGraphics target) {
+		fixture.gss.drawLevelCounter(target.g, fixture.game.levelCounter());
+	}
+
+	@Benchmark
+	public void drawBonus(GameFixture fixture, OffscreenGraphics target) {
+		fixture.gss.drawBonus(target.g, fixture.bonus);
+	}
+
+	@Benchmark
+	public void drawMazeLayer(OffscreenGraphics target) {
+		mazeLayer.draw(target.g, false);
+	}
+}
@@ -0,0 +1,385 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.benchmarks;
+
+import static de.amr.games.pacman.lib.option.Option.booleanOption;
+import static de.amr.games.pacman.lib.option.Option.integerOption;
+import static de.amr.games.pacman.lib.option.Option.longOption;
+import static de.amr.games.pacman.lib.option.Option.option;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.tinylog.Logger;
+
+import de.amr.games.pacman.controller.GameController;
+import de.amr.games.pacman.controller.GameState;
+import de.amr.games.pacman.lib.option.Option;
+import de.amr.games.pacman.lib.option.OptionParser;
+import de.amr.games.pacman.model.GameVariant;
+import de.amr.games.pacman.ui.swing.scenes.common.BootScene;
+import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
+import de.amr.games.pacman.ui.swing.scenes.common.PlayScene;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManCreditScene;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene1;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene2;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene3;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntroScene;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCreditScene;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene1;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene2;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene3;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManIntroScene;
+import de.amr.games.pacman.ui.swing.shell.OffscreenRenderer;
+
+/**
+ * Plays every game scene for a scripted number of ticks with the autopilot and measures the time and the memory
+ * allocated per tick, separately for the update (game model and scene) and the rendering of the complete frame. The
+ * play scene is measured at levels 1, 5 and 13 of both game variants, Pac-Man is immune there so that the game does
+ * not end before the measurement.
+ * <p>
+ * The results are written as JSON and compared with a baseline file from an earlier run. A scene has regressed if a
+ * time per tick exceeds the baseline by more than the threshold percentage or if the allocation per tick exceeds it by
+ * more than the threshold percentage plus {@value #ALLOCATION_SLACK} bytes. The baseline is only written when
+ * recording is requested. A missing baseline is an error, and so is a scene without recorded values in the baseline.
+ * Timings depend on the machine, so the baseline must be recorded on the machine running the comparison.
+ * <p>
+ * Only the random drawing of the boot scene is seeded. The game model uses its own random generator which cannot be
+ * seeded from here, so the ghosts in the play scene runs move differently in each run and their timings vary more
+ * than those of the scripted scenes.
+ * <p>
+ * Command-line arguments:
+ * <ul>
+ * <li><code>-baseline</code> &lt;file&gt;: Baseline (default: scene-baseline.json)</li>
+ * <li><code>-result</code> &lt;file&gt;: Result of this run (default: scene-result.json)</li>
+ * <li><code>-threshold</code> &lt;percent&gt;: Allowed regression (default: 20)</li>
+ * <li><code>-rounds</code> &lt;n&gt;: Runs of each scene, the first one warms up, the fastest one counts (default:
+ * 3)</li>
+ * <li><code>-seed</code> &lt;seed&gt;: Seed of the random drawing in the boot scene, not of the game model
+ * (default: 42)</li>
+ * <li><code>-record</code> &lt;true|false&gt;: Writes the result as new baseline (default: false)</li>
+ * </ul>
+ * Exits with status 1 if a scene has regressed.
+ * 
+ * @author Armin Reichert
+ */
+public class SceneBenchmarkRunner implements AutoCloseable {
+
+	static final Option<Path> OPT_BASELINE = option("-baseline", Path.of("scene-baseline.json"), Path::of);
+	static final Option<Path> OPT_RESULT = option("-result", Path.of("scene-result.json"), Path::of);
+	static final Option<Integer> OPT_THRESHOLD = integerOption("-threshold", 20);
+	static final Option<Integer> OPT_ROUNDS = integerOption("-rounds", 3);
+	static final Option<Long> OPT_SEED = longOption("-seed", 42);
+	static final Option<Boolean> OPT_RECORD = booleanOption("-record", false);
+
+	/** Allowed allocation increase in bytes per tick on top of the threshold, small allocations are not significant. */
+	static final int ALLOCATION_SLACK = 64;
+
+	private static final int MAX_SETUP_TICKS = 60 * 60 * 10;
+
+	private static final List<String> BASELINE_KEYS = List.of("updateNanosPerTick", "renderNanosPerTick",
+			"updateBytesPerTick", "renderBytesPerTick");
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	private static final Pattern JSON_OBJECT = Pattern.compile("\\{([^{}]*)\\}");
+	private static final Pattern JSON_MEMBER = Pattern.compile("\"(\\w+)\"\\s*:\\s*(?:\"([^\"]*)\"|(-?\\d+))");
+
+	public static void main(String[] args) throws IOException {
+		new OptionParser(OPT_BASELINE, OPT_RESULT, OPT_THRESHOLD, OPT_ROUNDS, OPT_SEED, OPT_RECORD).parse(args);
+		System.setProperty("java.awt.headless", "true");
+		List<Result> results;
+		try (var runner = new SceneBenchmarkRunner(new GameController(GameVariant.PACMAN), OPT_SEED.getValue())) {
+			results = runner.run(Math.max(1, OPT_ROUNDS.getValue()));
+		}
+		write(OPT_RESULT.getValue(), results);
+		Path baselineFile = OPT_BASELINE.getValue();
+		if (OPT_RECORD.getValue()) {
+			write(baselineFile, results);
+			Logger.info("Baseline written to {}", baselineFile);
+			return;
+		}
+		if (!Files.exists(baselineFile)) {
+			Logger.error("Baseline {} does not exist, record it with -record true", baselineFile);
+			System.exit(1);
+		}
+		int regressions = compare(read(baselineFile), results, OPT_THRESHOLD.getValue());
+		if (regressions > 0) {
+			Logger.error("{} scene(s) regressed by more than {}% against {}", regressions, OPT_THRESHOLD.getValue(),
+					baselineFile);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Measurement of a scene, times in nanoseconds and allocation in bytes, summed over all ticks.
+	 */
+	public record Result(String name, long ticks, long updateNanos, long renderNanos, long updateBytes,
+			long renderBytes) {
+
+		public long updateNanosPerTick() {
+			return updateNanos / ticks;
+		}
+
+		public long renderNanosPerTick() {
+			return renderNanos / ticks;
+		}
+
+		public long updateBytesPerTick() {
+			return updateBytes / ticks;
+		}
+
+		public long renderBytesPerTick() {
+			return renderBytes / ticks;
+		}
+
+		@Override
+		public String toString() {
+			return "%-26s update %8d ns %6d bytes, render %8d ns %6d bytes (per tick, %d ticks)".formatted(name,
+					updateNanosPerTick(), updateBytesPerTick(), renderNanosPerTick(), renderBytesPerTick(), ticks);
+		}
+	}
+
+	private record Case(String name, GameVariant variant, GameScene scene, Runnable setup, int ticks) {
+	}
+
+	private final GameController gameController;
+	private final OffscreenRenderer renderer;
+	private final List<Case> cases = new ArrayList<>();
+
+	public SceneBenchmarkRunner(GameController gameController, long seed) {
+		if (!THREADS.isThreadAllocatedMemorySupported()) {
+			throw new UnsupportedOperationException("Thread allocation measurement is not supported by this JVM");
+		}
+		THREADS.setThreadAllocatedMemoryEnabled(true);
+		this.gameController = gameController;
+		renderer = new OffscreenRenderer(gameController, 1);
+
+		// reseeded in each round, so that every round draws the same
+		var bootScene = new BootScene();
+		addCase("BootScene", GameVariant.PACMAN, bootScene, () -> {
+			bootScene.setRandomSeed(seed);
+			gameController.restart(GameState.BOOT);
+		}, 240);
+		addCase("PacManIntroScene", GameVariant.PACMAN, new PacManIntroScene(), this::startIntro, 900);
+		addCase("PacManCreditScene", GameVariant.PACMAN, new PacManCreditScene(), this::startCredit, 300);
+		addCase("PacManCutscene1", GameVariant.PACMAN, new PacManCutscene1(), () -> startCutscene(1), 600);
+		addCase("PacManCutscene2", GameVariant.PACMAN, new PacManCutscene2(), () -> startCutscene(2), 600);
+		addCase("PacManCutscene3", GameVariant.PACMAN, new PacManCutscene3(), () -> startCutscene(3), 600);
+		addCase("MsPacManIntroScene", GameVariant.MS_PACMAN, new MsPacManIntroScene(), this::startIntro, 900);
+		addCase("MsPacManCreditScene", GameVariant.MS_PACMAN, new MsPacManCreditScene(), this::startCredit, 300);
+		addCase("MsPacManIntermissionScene1", GameVariant.MS_PACMAN, new MsPacManIntermissionScene1(),
+				() -> startCutscene(1), 600);
+		addCase("MsPacManIntermissionScene2", GameVariant.MS_PACMAN, new MsPacManIntermissionScene2(),
+				() -> startCutscene(2), 600);
+		addCase("MsPacManIntermissionScene3", GameVariant.MS_PACMAN, new MsPacManIntermissionScene3(),
+				() -> startCutscene(3), 600);
+		for (var variant : GameVariant.values()) {
+			var playScene = new PlayScene();
+			for (int levelNumber : new int[] { 1, 5, 13 }) {
+				addCase("PlayScene %s level %d".formatted(variant, levelNumber), variant, playScene,
+						() -> startLevel(levelNumber), 900);
+			}
+		}
+	}
+
+	/**
+	 * Closes the offscreen renderer.
+	 */
+	@Override
+	public void close() {
+		renderer.close();
+	}
+
+	private void addCase(String name, GameVariant variant, GameScene scene, Runnable setup, int ticks) {
+		cases.add(new Case(name, variant, scene, setup, ticks));
+	}
+
+	/**
+	 * Runs all scenes.
+	 * 
+	 * @param rounds number of runs of each scene, the first run is a warmup if there is more than one
+	 * @return fastest run of each scene
+	 */
+	public List<Result> run(int rounds) {
+		var results = new ArrayList<Result>();
+		for (var c : cases) {
+			Result best = null;
+			for (int round = 0; round < rounds; ++round) {
+				var result = measure(c);
+				if (rounds > 1 && round == 0) {
+					continue;
+				}
+				if (best == null || result.updateNanos() + result.renderNanos() < best.updateNanos() + best.renderNanos()) {
+					best = result;
+				}
+			}
+			Logger.info("{}", best);
+			results.add(best);
+		}
+		renderer.setScene(null);
+		return results;
+	}
+
+	private Result measure(Case c) {
+		if (gameController.game().variant() != c.variant()) {
+			gameController.selectGameVariant(c.variant());
+		}
+		renderer.setScene(c.scene());
+		c.setup().run();
+		renderer.setScene(c.scene()); // init the scene for the state reached by the setup
+		long updateNanos = 0;
+		long renderNanos = 0;
+		long updateBytes = 0;
+		long renderBytes = 0;
+		for (int tick = 0; tick < c.ticks(); ++tick) {
+			long b0 = THREADS.getCurrentThreadAllocatedBytes();
+			long t0 = System.nanoTime();
+			renderer.step();
+			long t1 = System.nanoTime();
+			long b1 = THREADS.getCurrentThreadAllocatedBytes();
+			renderer.render();
+			long t2 = System.nanoTime();
+			long b2 = THREADS.getCurrentThreadAllocatedBytes();
+			updateNanos += t1 - t0;
+			renderNanos += t2 - t1;
+			updateBytes += b1 - b0;
+			renderBytes += b2 - b1;
+		}
+		return new Result(c.name(), c.ticks(), updateNanos, renderNanos, updateBytes, renderBytes);
+	}
+
+	private void startIntro() {
+		gameController.restart(GameState.INTRO);
+	}
+
+	private void startCredit() {
+		gameController.restart(GameState.INTRO);
+		gameController.addCredit();
+		gameController.changeState(GameState.CREDIT);
+	}
+
+	private void startCutscene(int number) {
+		gameController.startCutscenesTest();
+		gameController.game().intermissionTestNumber = number;
+	}
+
+	// plays with the autopilot, eating all pellets as soon as the hunting starts, until the level is reached
+	private void startLevel(int levelNumber) {
+		gameController.restart(GameState.INTRO);
+		gameController.addCredit();
+		gameController.startPlaying();
+		gameController.setAutoControlled(true);
+		var game = gameController.game();
+		game.setImmune(true);
+		for (int tick = 0; currentLevelNumber() < levelNumber || gameController.state() != GameState.HUNTING; ++tick) {
+			if (tick == MAX_SETUP_TICKS) {
+				throw new IllegalStateException("Level %d not reached within %d ticks".formatted(levelNumber, tick));
+			}
+			if (gameController.state() == GameState.HUNTING && currentLevelNumber() < levelNumber) {
+				gameController.cheatEatAllPellets();
+			}
+			renderer.step();
+		}
+	}
+
+	private int currentLevelNumber() {
+		return gameController.game().level().map(level -> level.number()).orElse(0);
+	}
+
+	private static int compare(Map<String, Map<String, Long>> baseline, List<Result> results, int thresholdPercent) {
+		double factor = 1 + thresholdPercent / 100.0;
+		int regressions = 0;
+		for (var result : results) {
+			var base = baseline.get(result.name());
+			if (base == null || !base.keySet().containsAll(BASELINE_KEYS)) {
+				Logger.error("{}: no values recorded in baseline, record them with -record true", result.name());
+				++regressions;
+				continue;
+			}
+			var regressed = new ArrayList<String>();
+			check(regressed, "update time", result.updateNanosPerTick(), base.get("updateNanosPerTick"), factor, 0);
+			check(regressed, "render time", result.renderNanosPerTick(), base.get("renderNanosPerTick"), factor, 0);
+			check(regressed, "update allocation", result.updateBytesPerTick(), base.get("updateBytesPerTick"), factor,
+					ALLOCATION_SLACK);
+			check(regressed, "render allocation", result.renderBytesPerTick(), base.get("renderBytesPerTick"), factor,
+					ALLOCATION_SLACK);
+			if (!regressed.isEmpty()) {
+				Logger.error("{} regressed: {}", result.name(), String.join(", ", regressed));
+				++regressions;
+			}
+		}
+		return regressions;
+	}
+
+	private static void check(List<String> regressed, String what, long value, long baseValue, double factor,
+			int slack) {
+		if (value > baseValue * factor + slack) {
+			regressed.add("%s %d (baseline %d)".formatted(what, value, baseValue));
+		}
+	}
+
+	private static void write(Path file, List<Result> results) throws IOException {
+		var json = new StringBuilder("{\n\t\"scenes\": [\n");
+		for (int i = 0; i < results.size(); ++i) {
+			var r = results.get(i);
+			json.append(("\t\t{ \"name\": \"%s\", \"ticks\": %d, \"updateNanosPerTick\": %d, \"renderNanosPerTick\": %d, "
+					+ "\"updateBytesPerTick\": %d, \"renderBytesPerTick\": %d }").formatted(r.name(), r.ticks(),
+							r.updateNanosPerTick(), r.renderNanosPerTick(), r.updateBytesPerTick(), r.renderBytesPerTick()));
+			json.append(i < results.size() - 1 ? ",\n" : "\n");
+		}
+		json.append("\t]\n}\n");
+		Files.writeString(file, json);
+	}
+
+	// reads the files written by this class, not general JSON
+	private static Map<String, Map<String, Long>> read(Path file) throws IOException {
+		var scenes = new LinkedHashMap<String, Map<String, Long>>();
+		var objects = JSON_OBJECT.matcher(Files.readString(file));
+		while (objects.find()) {
+			String name = null;
+			var values = new LinkedHashMap<String, Long>();
+			var members = JSON_MEMBER.matcher(objects.group(1));
+			while (members.find()) {
+				if (members.group(2) != null) {
+					name = members.group(2);
+				} else {
+					values.put(members.group(1), Long.parseLong(members.group(3)));
+				}
+			}
+			if (name != null) {
+				scenes.put(name, values);
+			}
+		}
+		return scenes;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.benchmarks;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.amr.games.pacman.ui.swing.lib.AssetLoader;
+import de.amr.games.pacman.ui.swing.lib.IndexedImage;
+import de.amr.games.pacman.ui.swing.lib.Spritesheet;
+
+/**
+ * Sprite slicing and the recoloring of the flashing maze (which replaced the former bright effect filter).
+ * 
+ * @author Armin Reichert
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpritesheetBenchmark {
+
+	private static final Color[] WALL_COLOR = { new Color(33, 33, 255) };
+	private static final Color[] BRIGHT_WALL_COLOR = { Color.WHITE };
+
+	private Spritesheet ss;
+	private BufferedImage mazeEmpty;
+	private IndexedImage mazeEmptyIndexed;
+
+	@Setup
+	public void setup() {
+		var assets = AssetLoader.get();
+		ss = new Spritesheet(assets.image("/pacman/graphics/sprites.png"), 16);
+		mazeEmpty = assets.image("/pacman/graphics/maze_empty.png");
+		mazeEmptyIndexed = IndexedImage.of(mazeEmpty);
+	}
+
+	@Benchmark
+	public BufferedImage tile() {
+		return ss.tile(3, 4);
+	}
+
+	@Benchmark
+	public BufferedImage tileRegion() {
+		return ss.tileRegion(0, 0, 3, 4);
+	}
+
+	@Benchmark
+	public IndexedImage indexMaze() {
+		return IndexedImage.of(mazeEmpty);
+	}
+
+	@Benchmark
+	public IndexedImage recolorMaze() {
+		return mazeEmptyIndexed.recolored(WALL_COLOR, BRIGHT_WALL_COLOR);
+	}
+}
@@ -0,0 +1,163 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.app;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame pacing telemetry: latency histograms for the phases of a frame, counters for late and dropped frames and
+ * counters for the pixels touched by layer repaints and presentation.
+ * 
+ * @author Armin Reichert
+ */
+public class FrameStats {
+
+	public enum Phase {
+		/** Game controller update. */
+		UPDATE,
+		/** Game scene update. */
+		SCENE_UPDATE,
+		/** Rendering of the scene into a frame. */
+		RENDER,
+		/** Presenting a frame: scaling it into the back buffer and showing the back buffer. */
+		SHOW
+	}
+
+	/**
+	 * Immutable snapshot of the frame statistics.
+	 */
+	public record Snapshot(Map<Phase, LatencyHistogram.Summary> phases, long lateFrames, long droppedFrames,
+			long skippedFrames, long presentedFrames, long presentedPixels, long layerPixels) {
+
+		/**
+		 * @return average number of (unscaled) pixels copied to the screen per presented frame
+		 */
+		public long presentedPixelsPerFrame() {
+			return presentedFrames == 0 ? 0 : presentedPixels / presentedFrames;
+		}
+
+		@Override
+		public String toString() {
+			var sb = new StringBuilder();
+			sb.append("late=%d dropped=%d skipped=%d".formatted(lateFrames, droppedFrames, skippedFrames));
+			sb.append(" pixels/frame=%d layer pixels=%d".formatted(presentedPixelsPerFrame(), layerPixels));
+			phases.forEach((phase, summary) -> sb.append("\n  %-12s %s".formatted(phase, summary)));
+			return sb.toString();
+		}
+	}
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+	private final AtomicLong lateFrames = new AtomicLong();
+	private final AtomicLong droppedFrames = new AtomicLong();
+	private final AtomicLong skippedFrames = new AtomicLong();
+	private final AtomicLong presentedFrames = new AtomicLong();
+	private final AtomicLong presentedPixels = new AtomicLong();
+	private final AtomicLong layerPixels = new AtomicLong();
+
+	public FrameStats() {
+		for (int i = 0; i < histograms.length; ++i) {
+			histograms[i] = new LatencyHistogram();
+		}
+	}
+
+	public LatencyHistogram histogram(Phase phase) {
+		return histograms[phase.ordinal()];
+	}
+
+	public void record(Phase phase, long nanos) {
+		histograms[phase.ordinal()].record(nanos);
+	}
+
+	/**
+	 * @return number of frames that started after their deadline
+	 */
+	public long lateFrames() {
+		return lateFrames.get();
+	}
+
+	/**
+	 * @return number of frames that have been dropped to get back on schedule
+	 */
+	public long droppedFrames() {
+		return droppedFrames.get();
+	}
+
+	/**
+	 * @return number of rendered frames that have been replaced by a newer frame before being presented
+	 */
+	public long skippedFrames() {
+		return skippedFrames.get();
+	}
+
+	void countLateFrame() {
+		lateFrames.incrementAndGet();
+	}
+
+	void countDroppedFrames(long n) {
+		droppedFrames.addAndGet(n);
+	}
+
+	public void countSkippedFrames(long n) {
+		skippedFrames.addAndGet(n);
+	}
+
+	/**
+	 * @param pixels number of unscaled frame pixels copied to the screen when presenting a frame
+	 */
+	public void countPresentedPixels(long pixels) {
+		presentedFrames.incrementAndGet();
+		presentedPixels.addAndGet(pixels);
+	}
+
+	/**
+	 * @param pixels number of pixels of a cached layer that has been redrawn
+	 */
+	public void countLayerPixels(long pixels) {
+		layerPixels.addAndGet(pixels);
+	}
+
+	public Snapshot snapshot() {
+		var phases = new EnumMap<Phase, LatencyHistogram.Summary>(Phase.class);
+		for (var phase : Phase.values()) {
+			phases.put(phase, histogram(phase).summary());
+		}
+		return new Snapshot(Collections.unmodifiableMap(phases), lateFrames.get(), droppedFrames.get(),
+				skippedFrames.get(), presentedFrames.get(), presentedPixels.get(), layerPixels.get());
+	}
+
+	public void reset() {
+		for (var histogram : histograms) {
+			histogram.reset();
+		}
+		lateFrames.set(0);
+		droppedFrames.set(0);
+		skippedFrames.set(0);
+		presentedFrames.set(0);
+		presentedPixels.set(0);
+		layerPixels.set(0);
+	}
+}
@@ -23,19 +23,40 @@ SOFTWARE.
  */
 package de.amr.games.pacman.ui.swing.app;
 
+/**
+ * Runs the game loop in its own thread. The speed of the loop is controlled by the {@link #clock}.
+ * 
+ * @author Armin Reichert
+ */
 public class GameLoop {
 
 	public final SpeedControl clock = new SpeedControl();
+
+	/** Simulation step, executed once per clock tick. */
 	public Runnable action;
 
+	/** Rendering, executed at most once per frame. */
+	public Runnable render;
+
+	private final Runnable updateStep = () -> {
+		if (action != null) {
+			action.run();
+		}
+	};
+
+	private final Runnable renderStep = () -> {
+		if (render != null) {
+			render.run();
+		}
+	};
+
 	private Thread thread;
-	private boolean running;
+	private volatile boolean running;
 
 	private void run() {
+		clock.resetSchedule();
 		while (running) {
-			if (action != null) {
-				action.run();
-			}
+			clock.frame(updateStep, renderStep);
 		}
 	}
 
@@ -43,9 +64,9 @@ public class GameLoop {
 		if (running) {
 			return;
 		}
+		running = true;
 		thread = new Thread(this::run, "GameLoop");
 		thread.start();
-		running = true;
 	}
 
 	public void end() {
@@ -0,0 +1,101 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.app;
+
+import org.tinylog.Logger;
+
+import de.amr.games.pacman.controller.GameController;
+import de.amr.games.pacman.controller.GameState;
+import de.amr.games.pacman.event.GameEventListener;
+import de.amr.games.pacman.event.GameEvents;
+import de.amr.games.pacman.event.GameStateChangeEvent;
+
+/**
+ * Runs the game simulation without any UI as fast as possible. The player is steered by the autopilot. Game states
+ * which are normally terminated by a game scene (intermissions, level change) are terminated immediately.
+ * <p>
+ * This class does not use any AWT/Swing classes and can be run with <code>java.awt.headless=true</code>.
+ * 
+ * @author Armin Reichert
+ */
+public class HeadlessSimulation implements GameEventListener {
+
+	/**
+	 * Result of a headless simulation run.
+	 */
+	public record Result(long ticks, long nanos, GameState finalState, int levelNumber, int score) {
+
+		public double ticksPerSecond() {
+			return nanos == 0 ? 0 : ticks * 1e9 / nanos;
+		}
+
+		@Override
+		public String toString() {
+			return "%d ticks in %.3f sec (%.0f ticks/sec), state %s, level %d, score %d".formatted(ticks, nanos / 1e9,
+					ticksPerSecond(), finalState, levelNumber, score);
+		}
+	}
+
+	private final GameController gameController;
+
+	public HeadlessSimulation(GameController gameController) {
+		this.gameController = gameController;
+		GameEvents.addListener(this);
+	}
+
+	/**
+	 * Starts a new game with autopilot and runs the simulation until the game is over or the given number of ticks have
+	 * been simulated.
+	 * 
+	 * @param maxTicks maximum number of ticks to simulate
+	 * @return result of the simulation
+	 */
+	public Result run(long maxTicks) {
+		gameController.addCredit();
+		gameController.startPlaying();
+		if (!gameController.isAutoControlled()) {
+			gameController.toggleAutoControlled();
+		}
+		long ticks = 0;
+		long start = System.nanoTime();
+		while (ticks < maxTicks && gameController.state() != GameState.GAME_OVER) {
+			gameController.update();
+			++ticks;
+		}
+		long nanos = System.nanoTime() - start;
+		var game = gameController.game();
+		int levelNumber = game.level().map(level -> level.number()).orElse(0);
+		var result = new Result(ticks, nanos, gameController.state(), levelNumber, game.score().points());
+		Logger.info("Headless simulation: {}", result);
+		return result;
+	}
+
+	@Override
+	public void onGameStateChange(GameStateChangeEvent e) {
+		// these states are normally ended by the game scenes
+		if (e.newGameState == GameState.INTERMISSION || e.newGameState == GameState.CHANGING_TO_NEXT_LEVEL) {
+			gameController.terminateCurrentState();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.app;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import de.amr.games.pacman.lib.steering.Direction;
+import de.amr.games.pacman.model.actors.Creature;
+
+/**
+ * Traces the latency from a steering key press to the first presented frame showing the player moving in the new
+ * direction. The path is divided into stages, each stage has its own histogram:
+ * <ol>
+ * <li>{@link Stage#STEER}: key event received by the keyboard handler until the steering applied the direction</li>
+ * <li>{@link Stage#TURN}: steering changed the wish direction until a frame with the player moving in that direction
+ * starts rendering</li>
+ * <li>{@link Stage#RENDER}: rendering of that frame until it is about to be published</li>
+ * <li>{@link Stage#PRESENT}: frame about to be published until {@code BufferStrategy.show()} returned for it</li>
+ * <li>{@link Stage#TOTAL}: key event until {@code BufferStrategy.show()} returned</li>
+ * </ol>
+ * The first three stages are traced on the game thread, the presentation on the thread presenting the frames. A trace
+ * is only started if the pressed direction differs from the current move direction of the player. One trace is active
+ * at a time, a new key press replaces a trace that did not yet reach the renderer.
+ * 
+ * @author Armin Reichert
+ */
+public class InputLatencyTracer {
+
+	public enum Stage {
+		STEER, TURN, RENDER, PRESENT, TOTAL
+	}
+
+	/** Traces waiting longer for the turn are discarded, e.g. if the player runs against a wall. */
+	private static final long TURN_TIMEOUT_NANOS = 2_000_000_000L;
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+
+	// trace waiting for the turn, only accessed by the game thread
+	private Creature player;
+	private Direction wishDir;
+	private long keyTime;
+	private long steerTime;
+
+	// trace waiting for the presentation, published by writing presentSeq
+	private long presentKeyTime;
+	private long presentRenderEnd;
+	private volatile long presentSeq;
+	private volatile boolean presentResetRequested;
+
+	public InputLatencyTracer() {
+		for (int i = 0; i < histograms.length; ++i) {
+			histograms[i] = new LatencyHistogram(100_000, 2_000); // 0-200 ms
+		}
+	}
+
+	public LatencyHistogram histogram(Stage stage) {
+		return histograms[stage.ordinal()];
+	}
+
+	/**
+	 * Called by the steering when a pressed direction is applied as wish direction of the player. No trace is started if
+	 * the player already moves in that direction because nothing visible changes.
+	 * 
+	 * @param player  steered creature
+	 * @param wishDir new wish direction
+	 * @param keyTime {@link System#nanoTime()} when the key event has been received
+	 */
+	public void keyConsumed(Creature player, Direction wishDir, long keyTime) {
+		if (keyTime == 0) {
+			return;
+		}
+		if (player.moveDir() == wishDir) {
+			this.player = null; // a waiting trace can no longer complete
+			return;
+		}
+		this.player = player;
+		this.wishDir = wishDir;
+		this.keyTime = keyTime;
+		steerTime = System.nanoTime();
+		histograms[Stage.STEER.ordinal()].record(steerTime - keyTime);
+	}
+
+	/**
+	 * Called by the game thread when the frame following the current update has been rendered and before it is
+	 * published, so the presenting thread cannot show the frame before the trace waits for it.
+	 * 
+	 * @param renderStart {@link System#nanoTime()} when rendering started
+	 * @param seq         sequence number the frame gets when it is published
+	 */
+	public void frameRendered(long renderStart, long seq) {
+		if (player == null) {
+			return;
+		}
+		if (player.moveDir() != wishDir) {
+			if (renderStart - steerTime > TURN_TIMEOUT_NANOS) {
+				player = null;
+			}
+			return;
+		}
+		player = null;
+		if (presentSeq != 0) {
+			return; // previous trace not yet presented
+		}
+		long renderEnd = System.nanoTime();
+		histograms[Stage.TURN.ordinal()].record(renderStart - steerTime);
+		histograms[Stage.RENDER.ordinal()].record(renderEnd - renderStart);
+		presentKeyTime = keyTime;
+		presentRenderEnd = renderEnd;
+		presentSeq = seq;
+	}
+
+	/**
+	 * Called by the presenting thread after {@code BufferStrategy.show()} returned.
+	 * 
+	 * @param seq sequence number of the presented frame
+	 */
+	public void framePresented(long seq) {
+		if (presentResetRequested) {
+			histograms[Stage.PRESENT.ordinal()].reset();
+			histograms[Stage.TOTAL.ordinal()].reset();
+			presentResetRequested = false;
+		}
+		long awaitedSeq = presentSeq;
+		if (awaitedSeq == 0 || seq < awaitedSeq) {
+			return;
+		}
+		long now = System.nanoTime();
+		histograms[Stage.PRESENT.ordinal()].record(now - presentRenderEnd);
+		histograms[Stage.TOTAL.ordinal()].record(now - presentKeyTime);
+		presentSeq = 0;
+	}
+
+	public Map<Stage, LatencyHistogram.Summary> summary() {
+		var stages = new EnumMap<Stage, LatencyHistogram.Summary>(Stage.class);
+		for (var stage : Stage.values()) {
+			stages.put(stage, histogram(stage).summary());
+		}
+		return Collections.unmodifiableMap(stages);
+	}
+
+	/**
+	 * Called by the game thread. The histograms of the game thread stages are reset immediately, the presentation
+	 * histograms are reset by the presenting thread before it presents the next frame.
+	 */
+	public void reset() {
+		histograms[Stage.STEER.ordinal()].reset();
+		histograms[Stage.TURN.ordinal()].reset();
+		histograms[Stage.RENDER.ordinal()].reset();
+		presentResetRequested = true;
+	}
+}
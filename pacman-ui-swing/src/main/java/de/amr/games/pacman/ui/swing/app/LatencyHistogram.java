@@ -0,0 +1,128 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.app;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations with fixed, linear buckets. Recording a value does not allocate memory. Values exceeding the
+ * bucket range are counted in an overflow bucket, the maximum value is always exact.
+ * 
+ * @author Armin Reichert
+ */
+public class LatencyHistogram {
+
+	/**
+	 * Immutable summary of a histogram.
+	 */
+	public record Summary(long count, long p50Nanos, long p99Nanos, long maxNanos, long meanNanos) {
+
+		@Override
+		public String toString() {
+			return "n=%d p50=%.2fms p99=%.2fms max=%.2fms mean=%.2fms".formatted(count, p50Nanos / 1e6, p99Nanos / 1e6,
+					maxNanos / 1e6, meanNanos / 1e6);
+		}
+	}
+
+	private final long bucketWidthNanos;
+	private final AtomicLongArray buckets;
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * @param bucketWidthNanos width of a bucket in nanoseconds
+	 * @param numBuckets       number of buckets, an additional overflow bucket is always created
+	 */
+	public LatencyHistogram(long bucketWidthNanos, int numBuckets) {
+		if (bucketWidthNanos <= 0 || numBuckets <= 0) {
+			throw new IllegalArgumentException("Bucket width and number of buckets must be positive");
+		}
+		this.bucketWidthNanos = bucketWidthNanos;
+		buckets = new AtomicLongArray(numBuckets + 1);
+	}
+
+	/**
+	 * Creates a histogram with 10 microsecond buckets covering 0-20 milliseconds.
+	 */
+	public LatencyHistogram() {
+		this(10_000, 2_000);
+	}
+
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		int overflow = buckets.length() - 1;
+		long index = nanos / bucketWidthNanos;
+		buckets.incrementAndGet(index < overflow ? (int) index : overflow);
+		count.incrementAndGet();
+		sum.addAndGet(nanos);
+		max.accumulateAndGet(nanos, Math::max);
+	}
+
+	public void reset() {
+		for (int i = 0; i < buckets.length(); ++i) {
+			buckets.set(i, 0);
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	public long count() {
+		return count.get();
+	}
+
+	public long maxNanos() {
+		return max.get();
+	}
+
+	/**
+	 * @param p percentile in range <code>(0, 1]</code>
+	 * @return upper bound of the bucket containing the given percentile (at most the maximum value)
+	 */
+	public long percentileNanos(double p) {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(p * n));
+		long seen = 0;
+		int overflow = buckets.length() - 1;
+		for (int i = 0; i < overflow; ++i) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				return Math.min((i + 1) * bucketWidthNanos, max.get());
+			}
+		}
+		return max.get();
+	}
+
+	public Summary summary() {
+		long n = count.get();
+		return new Summary(n, percentileNanos(0.5), percentileNanos(0.99), max.get(), n == 0 ? 0 : sum.get() / n);
+	}
+}
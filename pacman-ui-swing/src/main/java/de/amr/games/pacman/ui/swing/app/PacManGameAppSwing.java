@@ -32,8 +32,16 @@ import de.amr.games.pacman.event.GameEvents;
 import de.amr.games.pacman.lib.option.Option;
 import de.amr.games.pacman.lib.option.OptionParser;
 import de.amr.games.pacman.model.GameVariant;
+import de.amr.games.pacman.ui.swing.app.FrameStats.Phase;
+import de.amr.games.pacman.ui.swing.app.SpeedControl.Pacing;
+import de.amr.games.pacman.ui.swing.lib.AssetLoader;
+import de.amr.games.pacman.ui.swing.lib.FrameRecorder;
+import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
+import de.amr.games.pacman.ui.swing.rendering.pacman.SpritesheetPacMan;
+import de.amr.games.pacman.ui.swing.shell.Keyboard;
 import de.amr.games.pacman.ui.swing.shell.KeyboardSteering;
 import de.amr.games.pacman.ui.swing.shell.PacManGameUI;
+import de.amr.games.pacman.ui.swing.shell.PacManGameUI.RenderMode;
 
 /**
  * The Pac-Man application.
@@ -43,6 +51,17 @@ import de.amr.games.pacman.ui.swing.shell.PacManGameUI;
  * <li><code>-height</code> &lt;pixels&gt;: Height of UI in pixels (default: 576)</li>
  * <li><code>-pacman</code>: Starts the game in Pac-Man mode</li>
  * <li><code>-mspacman</code>: Starts game in Ms. Pac-Man mode</li>
+ * <li><code>-headless</code> &lt;ticks&gt;: Runs the simulation without UI and as fast as possible for at most the
+ * given number of ticks or until the game is over (default: 0 = start UI)</li>
+ * <li><code>-pacing</code> &lt;SLEEP|PRECISE&gt;: Frame pacing mode of the game loop (default: SLEEP)</li>
+ * <li><code>-rendering</code> &lt;PASSIVE|ACTIVE|INTERPOLATED&gt;: Present frames on the EDT, on a dedicated render
+ * thread or on a dedicated render thread at display rate with interpolated actor positions (default: PASSIVE)</li>
+ * <li><code>-displayfps</code> &lt;fps&gt;: Display rate used by interpolated rendering (default: 120)</li>
+ * <li><code>-buffers</code> &lt;2|3&gt;: Number of buffers used for presenting frames (default: 2)</li>
+ * <li><code>-recording</code> &lt;PNG|RAW|GIF&gt;: Format of recordings started with Ctrl+R (default: PNG)</li>
+ * <li><code>-turnbuffer</code> &lt;ticks&gt;: Number of ticks a pressed turn counts as taken in time by the turn
+ * statistics. Does not change the steering, a pressed direction is kept until the player can take it (default:
+ * 20)</li>
  * </ul>
  * 
  * @author Armin Reichert
@@ -51,13 +70,38 @@ public class PacManGameAppSwing {
 
 	static final Option<Integer> OPT_HEIGHT = integerOption("-height", 576);
 	static final Option<GameVariant> OPT_VARIANT = option("-variant", GameVariant.PACMAN, GameVariant::valueOf);
+	static final Option<Integer> OPT_HEADLESS = integerOption("-headless", 0);
+	static final Option<Pacing> OPT_PACING = option("-pacing", Pacing.SLEEP, Pacing::valueOf);
+	static final Option<RenderMode> OPT_RENDERING = option("-rendering", RenderMode.PASSIVE, RenderMode::valueOf);
+	static final Option<Integer> OPT_BUFFERS = integerOption("-buffers", 2);
+	static final Option<Integer> OPT_DISPLAY_FPS = integerOption("-displayfps", 120);
+	static final Option<Integer> OPT_TURN_BUFFER = integerOption("-turnbuffer", 20);
+	static final Option<FrameRecorder.Format> OPT_RECORDING = option("-recording", FrameRecorder.Format.PNG,
+			FrameRecorder.Format::valueOf);
 
 	public static void main(String[] args) {
-		new OptionParser(OPT_HEIGHT, OPT_VARIANT).parse(args);
+		new OptionParser(OPT_HEIGHT, OPT_VARIANT, OPT_HEADLESS, OPT_PACING, OPT_RENDERING, OPT_BUFFERS,
+				OPT_DISPLAY_FPS, OPT_RECORDING, OPT_TURN_BUFFER).parse(args);
+		if (OPT_HEADLESS.getValue() > 0) {
+			System.setProperty("java.awt.headless", "true");
+			new HeadlessSimulation(new GameController(OPT_VARIANT.getValue())).run(OPT_HEADLESS.getValue());
+			return;
+		}
+		preloadAssets();
 		var app = new PacManGameAppSwing(OPT_VARIANT.getValue());
 		invokeLater(app::createAndShowUI);
 	}
 
+	/**
+	 * Starts loading the spritesheets of both game variants concurrently. The boot scene shows the progress.
+	 */
+	private static void preloadAssets() {
+		var assets = AssetLoader.get();
+		SpritesheetPacMan.preload(assets);
+		SpritesheetMsPacMan.preload(assets);
+		assets.completion().thenRun(assets::report);
+	}
+
 	private GameController gameController;
 
 	public PacManGameAppSwing(GameVariant gameVariant) {
@@ -66,14 +110,26 @@ public class PacManGameAppSwing {
 
 	private void createAndShowUI() {
 		var gameLoop = new GameLoop();
+		gameLoop.clock.setPacing(OPT_PACING.getValue());
 		var ui = new PacManGameUI(gameLoop, gameController, OPT_HEIGHT.getValue());
+		ui.setRenderMode(OPT_RENDERING.getValue());
+		ui.setNumBuffers(OPT_BUFFERS.getValue());
+		ui.setDisplayFPS(OPT_DISPLAY_FPS.getValue());
+		ui.setRecordingFormat(OPT_RECORDING.getValue());
 		GameEvents.addListener(ui);
 		ui.show();
-		gameController.setManualPacSteering(new KeyboardSteering("Up", "Down", "Left", "Right"));
+		var steering = new KeyboardSteering("Up", "Down", "Left", "Right", OPT_TURN_BUFFER.getValue());
+		steering.setLatencyTracer(ui.latencyTracer());
+		gameController.setManualPacSteering(steering);
+		var stats = gameLoop.clock.stats();
 		gameLoop.action = () -> {
-			gameLoop.clock.frame(gameController::update);
+			Keyboard.theKeyboard.poll();
+			long updateStart = System.nanoTime();
+			gameController.update();
+			stats.record(Phase.UPDATE, System.nanoTime() - updateStart);
 			ui.update();
 		};
+		gameLoop.render = ui::render;
 		gameLoop.start();
 	}
 }
\ No newline at end of file
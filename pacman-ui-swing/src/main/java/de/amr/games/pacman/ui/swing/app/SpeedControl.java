@@ -23,17 +23,38 @@ SOFTWARE.
  */
 package de.amr.games.pacman.ui.swing.app;
 
-import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Controls the speed of the simulation.
+ * <p>
+ * Two pacing modes are supported:
+ * <ul>
+ * <li>{@link Pacing#SLEEP}: the original behavior. Each frame executes one tick and then sleeps for (roughly) the
+ * remaining frame time using {@link Thread#sleep(long)}.</li>
+ * <li>{@link Pacing#PRECISE}: fixed-timestep scheduling against absolute deadlines. Ticks that are overdue are caught
+ * up (at most {@link #getMaxTicksPerFrame()} per frame), the wait for the next deadline is done by parking the thread
+ * and spinning during the last few hundred microseconds.</li>
+ * </ul>
+ * Late and dropped frames are counted in the {@link #stats() frame statistics}.
  * 
  * @author Armin Reichert
  */
 public class SpeedControl {
 
+	public enum Pacing {
+		SLEEP, PRECISE
+	}
+
+	private static final long ONE_SECOND_NANOS = 1_000_000_000L;
+
+	/** Remaining wait time below which the thread spins instead of parking. */
+	private static final long SPIN_THRESHOLD_NANOS = 300_000;
+
+	private Pacing pacing = Pacing.SLEEP;
 	private int targetFPS = 60;
-	private double frameDurationNanos = 1e9 / targetFPS;
+	private long frameDurationNanos = ONE_SECOND_NANOS / targetFPS;
+	private int maxTicksPerFrame = 5;
 
 	private long totalFrames;
 	private long lastFPS;
@@ -41,27 +62,47 @@ public class SpeedControl {
 	private long framesCountedDuringLastSecond;
 	private long framesCountStart;
 
+	private long nextTickTime;
+
+	private final FrameStats stats = new FrameStats();
+
 	/**
 	 * Executes the given work and sleeps as long as needed to keep the target frequency.
 	 * 
 	 * @param work some work to do during this frame
 	 */
 	public void frame(Runnable work) {
+		frame(work, null);
+	}
+
+	/**
+	 * Executes one frame according to the selected pacing mode. In {@link Pacing#PRECISE} mode, the update action may
+	 * be executed several times (catch-up) or not at all (ahead of schedule) before the render action is executed.
+	 * 
+	 * @param update simulation step, executed once per tick
+	 * @param render rendering, executed at most once per frame (may be {@code null})
+	 */
+	public void frame(Runnable update, Runnable render) {
+		switch (pacing) {
+		case SLEEP -> frameSleep(update, render);
+		case PRECISE -> framePrecise(update, render);
+		}
+	}
+
+	private void frameSleep(Runnable update, Runnable render) {
 		long workStart;
 		long workEnd;
 		long workDuration;
 
 		workStart = System.nanoTime();
-		work.run();
+		tick(update);
+		if (render != null) {
+			render.run();
+		}
 		workEnd = System.nanoTime();
 		workDuration = workEnd - workStart;
-
-		++totalFrames;
-		++framesCountedDuringLastSecond;
-		if (workEnd - framesCountStart >= Duration.ofSeconds(1).toNanos()) {
-			lastFPS = framesCountedDuringLastSecond;
-			framesCountedDuringLastSecond = 0;
-			framesCountStart = System.nanoTime();
+		if (workDuration > frameDurationNanos) {
+			stats.countLateFrame();
 		}
 
 		double sleepMillis = Math.max((frameDurationNanos - workDuration) * 98 / 100, 0) / 1_000_000L;
@@ -75,13 +116,105 @@ public class SpeedControl {
 		}
 	}
 
+	private void framePrecise(Runnable update, Runnable render) {
+		long now = System.nanoTime();
+		if (nextTickTime == 0) {
+			nextTickTime = now;
+		}
+		int ticks = 0;
+		while (now - nextTickTime >= 0 && ticks < maxTicksPerFrame) {
+			tick(update);
+			nextTickTime += frameDurationNanos;
+			++ticks;
+			now = System.nanoTime();
+		}
+		if (ticks > 1) {
+			stats.countLateFrame();
+		}
+		if (now - nextTickTime >= 0) {
+			// still behind after maximum catch-up: drop the backlog instead of spiraling
+			stats.countDroppedFrames((now - nextTickTime) / frameDurationNanos + 1);
+			nextTickTime = now + frameDurationNanos;
+		}
+		if (ticks > 0 && render != null) {
+			render.run();
+		}
+		waitUntil(nextTickTime);
+	}
+
+	private void tick(Runnable update) {
+		update.run();
+		++totalFrames;
+		++framesCountedDuringLastSecond;
+		long now = System.nanoTime();
+		if (now - framesCountStart >= ONE_SECOND_NANOS) {
+			lastFPS = framesCountedDuringLastSecond;
+			framesCountedDuringLastSecond = 0;
+			framesCountStart = now;
+		}
+	}
+
+	private static void waitUntil(long deadline) {
+		long remaining = deadline - System.nanoTime();
+		while (remaining > SPIN_THRESHOLD_NANOS) {
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+			remaining = deadline - System.nanoTime();
+		}
+		while (deadline - System.nanoTime() > 0) {
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Forgets the current schedule. The next frame starts a new schedule at the current time.
+	 */
+	public void resetSchedule() {
+		nextTickTime = 0;
+	}
+
+	public Pacing getPacing() {
+		return pacing;
+	}
+
+	public void setPacing(Pacing pacing) {
+		if (pacing == null) {
+			throw new IllegalArgumentException("Pacing mode must not be null");
+		}
+		this.pacing = pacing;
+		resetSchedule();
+	}
+
+	public int getMaxTicksPerFrame() {
+		return maxTicksPerFrame;
+	}
+
+	/**
+	 * @param maxTicksPerFrame maximum number of ticks executed in one frame to catch up with the schedule
+	 */
+	public void setMaxTicksPerFrame(int maxTicksPerFrame) {
+		if (maxTicksPerFrame < 1) {
+			throw new IllegalArgumentException("Max ticks per frame must be positive but is " + maxTicksPerFrame);
+		}
+		this.maxTicksPerFrame = maxTicksPerFrame;
+	}
+
+	/**
+	 * @return the frame pacing statistics
+	 */
+	public FrameStats stats() {
+		return stats;
+	}
+
 	public int getTargetFPS() {
 		return targetFPS;
 	}
 
 	public void setTargetFPS(int framesPerSecond) {
 		targetFPS = framesPerSecond;
-		frameDurationNanos = Duration.ofSeconds(1).toNanos() / targetFPS;
+		frameDurationNanos = ONE_SECOND_NANOS / targetFPS;
 	}
 
 	public long getLastFPS() {
@@ -98,17 +231,4 @@ public class SpeedControl {
 	public int sec(double seconds) {
 		return (int) (seconds * targetFPS);
 	}
-
-	/**
-	 * Computes the animation frame at the current clock tick. For example, if each animation frame shall take 2 ticks and
-	 * the complete animation consists of 4 different frames, then the call <code>frame(2, 4)</code> produces repeatedly
-	 * the sequence <code>0, 0, 1, 1, 2, 2, 3, 3</code>.
-	 * 
-	 * @param frameDurationTicks duration in ticks of one animation frame
-	 * @param numFrames          number of frames of the complete animation
-	 * @return animation frame for current clock tick
-	 */
-	public int frame(int frameDurationTicks, int numFrames) {
-		return (int) (totalFrames / frameDurationTicks) % numFrames;
-	}
 }
\ No newline at end of file
@@ -24,26 +24,33 @@ SOFTWARE.
 package de.amr.games.pacman.ui.swing.entity.mspacman;
 
 import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
 
-import de.amr.games.pacman.lib.anim.SimpleAnimation;
 import de.amr.games.pacman.model.actors.Entity;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
 import de.amr.games.pacman.ui.swing.rendering.common.Rendering2D;
+import de.amr.games.pacman.ui.swing.rendering.common.SpriteAnimation;
 import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
 
 public class Stork2D {
 
 	private final Entity stork;
 	private final Rendering2D rendering;
-	public SimpleAnimation<BufferedImage> animation;
+	public SpriteAnimation animation;
 
-	public Stork2D(Entity stork, Rendering2D rendering) {
+	public Stork2D(Entity stork, Rendering2D rendering, AnimationScheduler scheduler) {
 		this.stork = stork;
 		this.rendering = rendering;
-		animation = SpritesheetMsPacMan.get().createStorkFlyingAnimation();
+		animation = SpritesheetMsPacMan.get().createStorkFlyingAnimation(scheduler);
+	}
+
+	/**
+	 * Advances the animation, called on every scene update.
+	 */
+	public void update() {
+		animation.animate();
 	}
 
 	public void render(Graphics2D g) {
-		rendering.drawEntity(g, stork, animation.animate());
+		rendering.drawEntity(g, stork, animation.frame());
 	}
 }
\ No newline at end of file
@@ -26,8 +26,9 @@ package de.amr.games.pacman.ui.swing.entity.pacman;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 
-import de.amr.games.pacman.lib.anim.SimpleAnimation;
 import de.amr.games.pacman.model.actors.Pac;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
+import de.amr.games.pacman.ui.swing.rendering.common.SpriteAnimation;
 import de.amr.games.pacman.ui.swing.rendering.pacman.SpritesheetPacMan;
 
 /**
@@ -39,21 +40,28 @@ public class BigPacMan2D {
 
 	private final SpritesheetPacMan rendering;
 	private final Pac pacMan;
-	private final SimpleAnimation<BufferedImage> munchingAnimation;
+	private final SpriteAnimation munchingAnimation;
 
-	public BigPacMan2D(Pac pacMan, SpritesheetPacMan rendering) {
+	public BigPacMan2D(Pac pacMan, SpritesheetPacMan rendering, AnimationScheduler scheduler) {
 		this.pacMan = pacMan;
 		this.rendering = rendering;
-		munchingAnimation = rendering.createBigPacManMunchingAnimation();
+		munchingAnimation = rendering.createBigPacManMunchingAnimation(scheduler);
 	}
 
 	public void startMunching() {
 		munchingAnimation.restart();
 	}
 
+	/**
+	 * Advances the animation, called on every scene update.
+	 */
+	public void update() {
+		munchingAnimation.animate();
+	}
+
 	public void render(Graphics2D g_) {
 		Graphics2D g = (Graphics2D) g_.create();
-		BufferedImage sprite = munchingAnimation.animate();
+		BufferedImage sprite = munchingAnimation.frame();
 		// lift it up such that it sits on the ground instead of being vertically
 		// centered to the ground
 		g.translate(0, -sprite.getHeight() / 2 + 8);
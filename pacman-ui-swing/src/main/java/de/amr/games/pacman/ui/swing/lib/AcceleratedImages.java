@@ -0,0 +1,153 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.tinylog.Logger;
+
+/**
+ * Converts images into the format of the default screen configuration such that Java2D can cache them as accelerated
+ * ("managed") images. Images read by {@link javax.imageio.ImageIO} typically use a custom or byte-interleaved format
+ * which is neither cached nor drawn by the fast blit loops.
+ * <p>
+ * Images can be registered under a name to be included in the acceleration report.
+ * 
+ * @author Armin Reichert
+ */
+public class AcceleratedImages {
+
+	private static final GraphicsConfiguration CONFIG = GraphicsEnvironment.isHeadless() ? null
+			: GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+
+	private static final Map<String, Supplier<Image>> registry = new LinkedHashMap<>();
+
+	private AcceleratedImages() {
+	}
+
+	/**
+	 * @return default screen configuration or {@code null} in headless mode
+	 */
+	public static GraphicsConfiguration config() {
+		return CONFIG;
+	}
+
+	/**
+	 * @param width        image width
+	 * @param height       image height
+	 * @param transparency one of {@link Transparency#OPAQUE}, {@link Transparency#BITMASK},
+	 *                     {@link Transparency#TRANSLUCENT}
+	 * @return new image in screen-compatible format (integer RGB/ARGB in headless mode)
+	 */
+	public static BufferedImage create(int width, int height, int transparency) {
+		if (CONFIG != null) {
+			return CONFIG.createCompatibleImage(width, height, transparency);
+		}
+		int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+		return new BufferedImage(width, height, type);
+	}
+
+	/**
+	 * @param src some image (may be a sub-image)
+	 * @return independent copy of the image in screen-compatible format
+	 */
+	public static BufferedImage compatible(BufferedImage src) {
+		return compatible(src, src.getTransparency());
+	}
+
+	/**
+	 * @param src          some image
+	 * @param transparency transparency of the copy, e.g. of the image the source has been created from
+	 * @return independent copy of the image in screen-compatible format
+	 */
+	public static BufferedImage compatible(BufferedImage src, int transparency) {
+		var dst = create(src.getWidth(), src.getHeight(), transparency);
+		Graphics2D g = dst.createGraphics();
+		g.drawImage(src, 0, 0, null);
+		g.dispose();
+		return dst;
+	}
+
+	/**
+	 * Registers an image for the acceleration report.
+	 * 
+	 * @param name  name used in the report
+	 * @param image supplies the image to report
+	 */
+	public static synchronized void register(String name, Supplier<Image> image) {
+		registry.put(name, image);
+	}
+
+	public static void register(String name, Image image) {
+		register(name, () -> image);
+	}
+
+	/**
+	 * Logs for each registered image if it is currently accelerated on the given graphics configuration. Managed images
+	 * are only cached after they have been drawn a few times onto an accelerated surface, so the report should be taken
+	 * while the game is running.
+	 * 
+	 * @param gc graphics configuration, e.g. the one of the canvas
+	 * @return number of accelerated images
+	 */
+	public static synchronized int report(GraphicsConfiguration gc) {
+		Logger.info("Image acceleration on {} (accelerated images supported: {}, Java2D pipeline: {})", gc.getDevice(),
+				gc.getImageCapabilities().isAccelerated(), pipeline());
+		int numAccelerated = 0;
+		for (var entry : registry.entrySet()) {
+			var image = entry.getValue().get();
+			if (image == null) {
+				Logger.info("  {}: not created", entry.getKey());
+				continue;
+			}
+			var caps = image.getCapabilities(gc);
+			boolean accelerated = caps != null && caps.isAccelerated();
+			if (accelerated) {
+				++numAccelerated;
+			}
+			Logger.info("  {}: {}x{} accelerated={} volatile={}", entry.getKey(), image.getWidth(null),
+					image.getHeight(null), accelerated, caps != null && caps.isTrueVolatile());
+		}
+		Logger.info("{} of {} images accelerated", numAccelerated, registry.size());
+		return numAccelerated;
+	}
+
+	private static String pipeline() {
+		for (var property : new String[] { "sun.java2d.metal", "sun.java2d.opengl", "sun.java2d.d3d", "sun.java2d.xrender" }) {
+			var value = System.getProperty(property);
+			if (value != null) {
+				return property + "=" + value;
+			}
+		}
+		return "default";
+	}
+}
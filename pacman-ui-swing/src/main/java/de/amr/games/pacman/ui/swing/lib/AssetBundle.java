@@ -0,0 +1,362 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.tinylog.Logger;
+
+/**
+ * A packed binary bundle of pre-decoded assets that is mapped into memory.
+ * <p>
+ * Images are stored as ARGB pixels and audio as PCM samples, so loading an asset from the bundle is a bulk copy instead
+ * of PNG or WAV decoding. Other resources (fonts) are stored as raw bytes. The bundle is created at build time by
+ * {@link #pack(Path, Path)}.
+ * <p>
+ * Layout (little endian): magic, version, number of entries, entry headers, data. Each entry header contains the
+ * resource path, the entry type, the offset and length of the data and type-specific attributes (image size and
+ * transparency, audio format). Data is aligned to 8 bytes.
+ * 
+ * @author Armin Reichert
+ */
+public class AssetBundle {
+
+	/**
+	 * Name of the bundle file. The file is searched next to the JAR file or class directory containing this class.
+	 */
+	public static final String FILE_NAME = "assets.bundle";
+
+	/**
+	 * System property that can be used to specify the bundle file.
+	 */
+	public static final String PATH_PROPERTY = "pacman.assets";
+
+	private static final int MAGIC = 0x424d4150; // "PAMB"
+	private static final int VERSION = 2;
+	private static final int ALIGNMENT = 8;
+
+	private static final byte TYPE_RAW = 0;
+	private static final byte TYPE_IMAGE = 1;
+	private static final byte TYPE_AUDIO = 2;
+
+	private static final DirectColorModel ARGB = (DirectColorModel) ColorModel.getRGBdefault();
+
+	/**
+	 * PCM audio data.
+	 */
+	public record Pcm(AudioFormat format, byte[] data) {
+	}
+
+	private record Entry(byte type, long offset, int length, int[] attributes) {
+	}
+
+	/**
+	 * Opens the bundle given by the system property {@value #PATH_PROPERTY} or else the bundle file
+	 * {@value #FILE_NAME} next to the JAR file or class directory of the application. A bundle inside the JAR file could
+	 * not be mapped.
+	 * 
+	 * @return the bundle or nothing if no bundle is available or it could not be opened
+	 */
+	public static Optional<AssetBundle> open() {
+		Path file = null;
+		var property = System.getProperty(PATH_PROPERTY);
+		if (property != null) {
+			file = Path.of(property);
+		} else {
+			var codeSource = AssetBundle.class.getProtectionDomain().getCodeSource();
+			if (codeSource != null && "file".equals(codeSource.getLocation().getProtocol())) {
+				try {
+					var sibling = Path.of(codeSource.getLocation().toURI()).resolveSibling(FILE_NAME);
+					if (Files.isRegularFile(sibling)) {
+						file = sibling;
+					}
+				} catch (URISyntaxException x) {
+					Logger.warn("Invalid code source location {}", codeSource.getLocation());
+				}
+			}
+		}
+		if (file == null) {
+			Logger.info("No asset bundle available, assets are decoded from their resources");
+			return Optional.empty();
+		}
+		try {
+			var bundle = open(file);
+			Logger.info("Asset bundle {} mapped ({} entries, {} bytes)", file, bundle.entries.size(),
+					bundle.buffer.capacity());
+			return Optional.of(bundle);
+		} catch (Exception x) {
+			Logger.warn("Could not open asset bundle {}: {}", file, x.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * @param file bundle file
+	 * @return the bundle mapped into memory
+	 * @throws IOException if the file cannot be read or is not an asset bundle
+	 */
+	public static AssetBundle open(Path file) throws IOException {
+		try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new AssetBundle(buffer);
+		}
+	}
+
+	private final ByteBuffer buffer;
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private AssetBundle(ByteBuffer mapped) throws IOException {
+		buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.getInt() != MAGIC) {
+			throw new IOException("Not an asset bundle");
+		}
+		int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported asset bundle version %d".formatted(version));
+		}
+		int numEntries = buffer.getInt();
+		for (int i = 0; i < numEntries; ++i) {
+			var nameBytes = new byte[buffer.getShort()];
+			buffer.get(nameBytes);
+			var name = new String(nameBytes, StandardCharsets.UTF_8);
+			byte type = buffer.get();
+			long offset = buffer.getLong();
+			int length = buffer.getInt();
+			var attributes = new int[buffer.get()];
+			for (int a = 0; a < attributes.length; ++a) {
+				attributes[a] = buffer.getInt();
+			}
+			entries.put(name, new Entry(type, offset, length, attributes));
+		}
+	}
+
+	public boolean contains(String path) {
+		return entries.containsKey(path);
+	}
+
+	private Entry entry(String path, byte type) {
+		var entry = entries.get(path);
+		if (entry == null || entry.type != type) {
+			throw new AssetException("No bundle entry of type %d for '%s'", type, path);
+		}
+		return entry;
+	}
+
+	private ByteBuffer data(Entry entry) {
+		// slices are independent views, so concurrent reads need no synchronization
+		return buffer.slice((int) entry.offset, entry.length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * @param path resource path of the image
+	 * @return image converted into screen-compatible format with the transparency of the source image, like images
+	 *         decoded by {@link Ujfc#image(String)}
+	 */
+	public BufferedImage image(String path) {
+		var entry = entry(path, TYPE_IMAGE);
+		int width = entry.attributes[0];
+		int height = entry.attributes[1];
+		int transparency = entry.attributes[2];
+		int[] pixels = new int[width * height];
+		data(entry).asIntBuffer().get(pixels);
+		var raster = Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length), width, height, width,
+				ARGB.getMasks(), null);
+		return AcceleratedImages.compatible(new BufferedImage(ARGB, raster, false, null), transparency);
+	}
+
+	/**
+	 * @param path resource path of the audio file
+	 * @return PCM data ready to be passed to {@link javax.sound.sampled.Clip#open(AudioFormat, byte[], int, int)}
+	 */
+	public Pcm audio(String path) {
+		var entry = entry(path, TYPE_AUDIO);
+		int[] a = entry.attributes;
+		var encoding = a[4] != 0 ? AudioFormat.Encoding.PCM_SIGNED : AudioFormat.Encoding.PCM_UNSIGNED;
+		var format = new AudioFormat(encoding, Float.intBitsToFloat(a[0]), a[1], a[2], a[3],
+				Float.intBitsToFloat(a[0]), a[5] != 0);
+		var data = new byte[entry.length];
+		data(entry).get(data);
+		return new Pcm(format, data);
+	}
+
+	/**
+	 * @param path resource path
+	 * @return stream over the raw bytes of the resource
+	 */
+	public InputStream stream(String path) {
+		var data = data(entry(path, TYPE_RAW));
+		return new InputStream() {
+			@Override
+			public int read() {
+				return data.hasRemaining() ? data.get() & 0xff : -1;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				if (!data.hasRemaining()) {
+					return -1;
+				}
+				int n = Math.min(len, data.remaining());
+				data.get(b, off, n);
+				return n;
+			}
+		};
+	}
+
+	// Packing
+
+	private record PackedEntry(String name, byte type, byte[] data, int[] attributes) {
+	}
+
+	/**
+	 * Packs all PNG images, WAV files and TrueType fonts found under the given directory into a bundle file.
+	 * 
+	 * @param resourceDir root directory of the resources, entry names are the paths relative to this directory
+	 * @param bundleFile  bundle file to create
+	 * @return number of packed entries
+	 * @throws IOException if reading a resource or writing the bundle fails
+	 */
+	public static int pack(Path resourceDir, Path bundleFile) throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(resourceDir)) {
+			files = walk.filter(Files::isRegularFile).sorted().toList();
+		}
+		var packed = new ArrayList<PackedEntry>();
+		for (var file : files) {
+			var name = "/" + resourceDir.relativize(file).toString().replace('\\', '/');
+			var fileName = file.getFileName().toString().toLowerCase();
+			if (fileName.endsWith(".png")) {
+				packed.add(packImage(name, file));
+			} else if (fileName.endsWith(".wav")) {
+				packed.add(packAudio(name, file));
+			} else if (fileName.endsWith(".ttf")) {
+				packed.add(new PackedEntry(name, TYPE_RAW, Files.readAllBytes(file), new int[0]));
+			}
+		}
+		write(packed, bundleFile);
+		return packed.size();
+	}
+
+	private static PackedEntry packImage(String name, Path file) throws IOException {
+		var image = ImageIO.read(file.toFile());
+		if (image == null) {
+			throw new IOException("Cannot read image " + file);
+		}
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+		var data = ByteBuffer.allocate(pixels.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+		data.asIntBuffer().put(pixels);
+		return new PackedEntry(name, TYPE_IMAGE, data.array(), new int[] { width, height, image.getTransparency() });
+	}
+
+	private static PackedEntry packAudio(String name, Path file) throws IOException {
+		try (AudioInputStream in = AudioSystem.getAudioInputStream(file.toFile())) {
+			var format = in.getFormat();
+			AudioInputStream pcm = in;
+			var encoding = format.getEncoding();
+			if (encoding != AudioFormat.Encoding.PCM_SIGNED && encoding != AudioFormat.Encoding.PCM_UNSIGNED) {
+				format = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+				pcm = AudioSystem.getAudioInputStream(format, in);
+			}
+			var data = pcm.readAllBytes();
+			int[] attributes = { Float.floatToIntBits(format.getSampleRate()), format.getSampleSizeInBits(),
+					format.getChannels(), format.getFrameSize(), format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED ? 1 : 0,
+					format.isBigEndian() ? 1 : 0 };
+			return new PackedEntry(name, TYPE_AUDIO, data, attributes);
+		} catch (UnsupportedAudioFileException x) {
+			throw new IOException("Cannot read audio file " + file, x);
+		}
+	}
+
+	private static void write(List<PackedEntry> packed, Path bundleFile) throws IOException {
+		int headerSize = 3 * Integer.BYTES;
+		for (var entry : packed) {
+			headerSize += Short.BYTES + entry.name.getBytes(StandardCharsets.UTF_8).length + 1 + Long.BYTES + Integer.BYTES
+					+ 1 + entry.attributes.length * Integer.BYTES;
+		}
+		var header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(VERSION).putInt(packed.size());
+		long offset = align(headerSize);
+		for (var entry : packed) {
+			var nameBytes = entry.name.getBytes(StandardCharsets.UTF_8);
+			header.putShort((short) nameBytes.length).put(nameBytes).put(entry.type).putLong(offset)
+					.putInt(entry.data.length).put((byte) entry.attributes.length);
+			for (int attribute : entry.attributes) {
+				header.putInt(attribute);
+			}
+			offset = align(offset + entry.data.length);
+		}
+		var bytes = new ByteArrayOutputStream();
+		bytes.write(header.array());
+		pad(bytes);
+		for (var entry : packed) {
+			bytes.write(entry.data);
+			pad(bytes);
+		}
+		Files.createDirectories(bundleFile.toAbsolutePath().getParent());
+		try (OutputStream out = Files.newOutputStream(bundleFile)) {
+			bytes.writeTo(out);
+		}
+	}
+
+	private static long align(long offset) {
+		return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	private static void pad(ByteArrayOutputStream bytes) {
+		while (bytes.size() % ALIGNMENT != 0) {
+			bytes.write(0);
+		}
+	}
+}
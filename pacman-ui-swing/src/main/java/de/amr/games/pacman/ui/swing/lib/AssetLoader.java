@@ -0,0 +1,256 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.tinylog.Logger;
+
+/**
+ * Loads assets concurrently. Each asset is identified by its name and loaded only once, requesting an asset that is
+ * already loading or loaded returns the same future.
+ * <p>
+ * Resources (images, fonts, audio clips) are decoded on a bounded pool of I/O threads. Derived assets (e.g.
+ * spritesheets) are built on a separate pool because they wait for the resources they use; resources never wait, so the
+ * pools cannot deadlock.
+ * <p>
+ * Images, fonts and audio clips contained in the {@link AssetBundle} (if available) are taken from the bundle,
+ * otherwise they are decoded from their resources.
+ * 
+ * @author Armin Reichert
+ */
+public class AssetLoader {
+
+	/**
+	 * Load time of an asset.
+	 * 
+	 * @param name       asset name
+	 * @param loadNanos  time spent loading the asset
+	 * @param readyNanos time from the creation of the loader until the asset was ready
+	 * @param failed     if loading failed
+	 */
+	public record Timing(String name, long loadNanos, long readyNanos, boolean failed) {
+	}
+
+	private static final AssetLoader theThing = new AssetLoader();
+
+	public static AssetLoader get() {
+		return theThing;
+	}
+
+	private final long startTime = System.nanoTime();
+	private final Optional<AssetBundle> bundle;
+	private final ExecutorService resourceExecutor;
+	private final ExecutorService derivedExecutor;
+	private final Map<String, CompletableFuture<?>> assets = new ConcurrentHashMap<>();
+	private final List<Timing> timings = new ArrayList<>();
+	private final AtomicInteger numRequested = new AtomicInteger();
+	private final AtomicInteger numCompleted = new AtomicInteger();
+	private volatile long firstFrameTime;
+
+	private AssetLoader() {
+		int numThreads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+		resourceExecutor = Executors.newFixedThreadPool(numThreads, daemonThreads("Assets"));
+		derivedExecutor = Executors.newFixedThreadPool(2, daemonThreads("DerivedAssets"));
+		bundle = AssetBundle.open();
+	}
+
+	private static ThreadFactory daemonThreads(String name) {
+		var count = new AtomicInteger();
+		return runnable -> {
+			var thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * @param name   asset name, e.g. the resource path
+	 * @param loader loads the asset, must not wait for other assets
+	 * @return future of the asset
+	 */
+	public <T> CompletableFuture<T> loadResource(String name, Supplier<T> loader) {
+		return load(name, loader, resourceExecutor);
+	}
+
+	/**
+	 * @param name    asset name
+	 * @param builder builds the asset, may wait for resources
+	 * @return future of the asset
+	 */
+	public <T> CompletableFuture<T> loadDerived(String name, Supplier<T> builder) {
+		return load(name, builder, derivedExecutor);
+	}
+
+	/**
+	 * @param path resource path
+	 * @return the asset bundle if it contains the given resource
+	 */
+	public Optional<AssetBundle> bundle(String path) {
+		return bundle.filter(b -> b.contains(path));
+	}
+
+	public CompletableFuture<BufferedImage> loadImage(String path) {
+		return loadResource(path, () -> bundle(path).map(b -> b.image(path)).orElseGet(() -> Ujfc.image(path)));
+	}
+
+	public CompletableFuture<Font> loadFont(String path, int size) {
+		return loadResource(path + "@" + size,
+				() -> bundle(path).map(b -> bundledFont(b, path, size)).orElseGet(() -> Ujfc.font(path, size)));
+	}
+
+	private static Font bundledFont(AssetBundle bundle, String path, int size) {
+		try (InputStream fontData = bundle.stream(path)) {
+			return Font.createFont(Font.TRUETYPE_FONT, fontData).deriveFont((float) size);
+		} catch (Exception x) {
+			throw new AssetException("Could not load font with path '%s' from asset bundle", path);
+		}
+	}
+
+	/**
+	 * @param path resource path
+	 * @return the image, waits until it is loaded
+	 */
+	public BufferedImage image(String path) {
+		return await(loadImage(path));
+	}
+
+	/**
+	 * @param path resource path
+	 * @param size font size
+	 * @return the font, waits until it is loaded
+	 */
+	public Font font(String path, int size) {
+		return await(loadFont(path, size));
+	}
+
+	/**
+	 * @return the value of the future, exceptions raised while loading are rethrown unwrapped
+	 */
+	public static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException x) {
+			if (x.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw x;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> load(String name, Supplier<T> loader, ExecutorService executor) {
+		return (CompletableFuture<T>) assets.computeIfAbsent(name, key -> {
+			numRequested.incrementAndGet();
+			return CompletableFuture.supplyAsync(() -> {
+				long start = System.nanoTime();
+				boolean failed = true;
+				try {
+					T asset = loader.get();
+					failed = false;
+					return asset;
+				} finally {
+					long end = System.nanoTime();
+					synchronized (timings) {
+						timings.add(new Timing(name, end - start, end - startTime, failed));
+					}
+					numCompleted.incrementAndGet();
+				}
+			}, executor);
+		});
+	}
+
+	/**
+	 * @return fraction of the requested assets that are loaded (0..1)
+	 */
+	public double progress() {
+		int requested = numRequested.get();
+		return requested == 0 ? 1 : (double) numCompleted.get() / requested;
+	}
+
+	/**
+	 * @return future completing when all assets requested so far are loaded (successfully or not)
+	 */
+	public CompletableFuture<Void> completion() {
+		var futures = assets.values().stream().map(future -> future.exceptionally(x -> null))
+				.toArray(CompletableFuture[]::new);
+		return CompletableFuture.allOf(futures);
+	}
+
+	/**
+	 * Records the time to first frame when called the first time.
+	 */
+	public void firstFramePresented() {
+		if (firstFrameTime == 0) {
+			firstFrameTime = System.nanoTime();
+			Logger.info("Time to first frame: {} ms ({} of {} assets loaded)", millis(firstFrameTime - startTime),
+					numCompleted.get(), numRequested.get());
+		}
+	}
+
+	/**
+	 * @return load times of the assets loaded so far, slowest first
+	 */
+	public List<Timing> timings() {
+		synchronized (timings) {
+			var copy = new ArrayList<>(timings);
+			copy.sort(Comparator.comparingLong(Timing::loadNanos).reversed());
+			return copy;
+		}
+	}
+
+	/**
+	 * Logs the load time of each asset and the total time.
+	 */
+	public void report() {
+		var list = timings();
+		long sum = 0, ready = 0;
+		for (var timing : list) {
+			sum += timing.loadNanos();
+			ready = Math.max(ready, timing.readyNanos());
+			Logger.info("  {}: {} ms, ready after {} ms{}", timing.name(), millis(timing.loadNanos()),
+					millis(timing.readyNanos()), timing.failed() ? " (FAILED)" : "");
+		}
+		Logger.info("{} assets loaded in {} ms (sum of load times {} ms)", list.size(), millis(ready), millis(sum));
+	}
+
+	private static String millis(long nanos) {
+		return "%.1f".formatted(nanos / 1e6);
+	}
+}
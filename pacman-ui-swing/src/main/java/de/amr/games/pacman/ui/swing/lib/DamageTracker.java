@@ -0,0 +1,144 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * Collects the frame regions changed by drawing as a bit mask of {@link FrameExchange#BLOCK_SIZE}-sized blocks, the
+ * same layout as the masks of the {@link FrameExchange}. The tracker is attached to the graphics context as rendering
+ * hint, so drawing code reports its bounds without knowing whether they are collected.
+ * 
+ * @author Armin Reichert
+ */
+public class DamageTracker {
+
+	private static final RenderingHints.Key TARGET = new RenderingHints.Key(1) {
+
+		@Override
+		public boolean isCompatibleValue(Object value) {
+			return value == null || value instanceof DamageTracker;
+		}
+	};
+
+	/**
+	 * Starts collecting the regions drawn into the given graphics context.
+	 * 
+	 * @param g       graphics context
+	 * @param tracker damage tracker, will be cleared
+	 */
+	public static void begin(Graphics2D g, DamageTracker tracker) {
+		tracker.clear();
+		g.setRenderingHint(TARGET, tracker);
+	}
+
+	/**
+	 * @param g graphics context passed to {@link #begin(Graphics2D, DamageTracker)}
+	 */
+	public static void end(Graphics2D g) {
+		g.setRenderingHint(TARGET, null);
+	}
+
+	/**
+	 * @param g graphics context
+	 * @return if drawing into the given graphics context is tracked
+	 */
+	public static boolean isTracking(Graphics2D g) {
+		return g.getRenderingHint(TARGET) != null;
+	}
+
+	/**
+	 * Reports a drawn rectangle. Does nothing if the graphics context is not tracked.
+	 * 
+	 * @param g graphics context, the current translation is added to the rectangle
+	 */
+	public static void add(Graphics2D g, double x, double y, int width, int height) {
+		var tracker = (DamageTracker) g.getRenderingHint(TARGET);
+		if (tracker != null) {
+			var transform = g.getTransform();
+			tracker.addRect(x + transform.getTranslateX(), y + transform.getTranslateY(), width, height);
+		}
+	}
+
+	/**
+	 * Reports that the complete frame has been changed. Does nothing if the graphics context is not tracked.
+	 */
+	public static void addAll(Graphics2D g) {
+		addBlocks(g, FrameExchange.ALL_BLOCKS);
+	}
+
+	/**
+	 * Reports changed blocks. Does nothing if the graphics context is not tracked.
+	 * 
+	 * @param blocks block mask, e.g. the {@link #mask()} of another tracker with the same size
+	 */
+	public static void addBlocks(Graphics2D g, long blocks) {
+		var tracker = (DamageTracker) g.getRenderingHint(TARGET);
+		if (tracker != null) {
+			tracker.mask |= blocks;
+		}
+	}
+
+	private final int width;
+	private final int height;
+	private final int blocksX;
+	private final boolean maskable;
+	private long mask;
+
+	public DamageTracker(int width, int height) {
+		this.width = width;
+		this.height = height;
+		blocksX = (width + FrameExchange.BLOCK_SIZE - 1) / FrameExchange.BLOCK_SIZE;
+		int blocksY = (height + FrameExchange.BLOCK_SIZE - 1) / FrameExchange.BLOCK_SIZE;
+		maskable = blocksX * blocksY <= Long.SIZE;
+	}
+
+	public void clear() {
+		mask = 0;
+	}
+
+	/**
+	 * @return mask of the changed blocks, {@link FrameExchange#ALL_BLOCKS} if the block grid does not fit into a mask
+	 */
+	public long mask() {
+		return maskable ? mask : FrameExchange.ALL_BLOCKS;
+	}
+
+	private void addRect(double x, double y, int w, int h) {
+		int x0 = Math.max(0, (int) Math.floor(x));
+		int y0 = Math.max(0, (int) Math.floor(y));
+		int x1 = Math.min(width, (int) Math.ceil(x + w));
+		int y1 = Math.min(height, (int) Math.ceil(y + h));
+		if (!maskable || x0 >= x1 || y0 >= y1) {
+			return;
+		}
+		int size = FrameExchange.BLOCK_SIZE;
+		for (int by = y0 / size; by <= (y1 - 1) / size; ++by) {
+			for (int bx = x0 / size; bx <= (x1 - 1) / size; ++bx) {
+				mask |= 1L << (by * blocksX + bx);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,310 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free triple buffer for exchanging rendered frames between a producer thread (game loop) and a consumer thread
+ * (presenting the frames).
+ * <p>
+ * The producer renders into its private back frame and publishes it by swapping it with the shared frame. The consumer
+ * swaps its private front frame with the shared frame when the shared frame is newer. No frame is ever accessed by
+ * both threads at the same time and no memory is allocated after construction.
+ * <p>
+ * Optionally, the producer passes the regions damaged by rendering a frame (see {@link DamageTracker}). The blocks
+ * changed from the previous frame are the damage of both frames, they are stored as a bit mask of
+ * {@link #BLOCK_SIZE}-sized blocks such that the consumer can copy only the changed blocks.
+ * 
+ * @author Armin Reichert
+ */
+public class FrameExchange {
+
+	/** Edge length of the blocks used for tracking changed frame regions. */
+	public static final int BLOCK_SIZE = 32;
+
+	/** Block mask where all blocks are dirty. */
+	public static final long ALL_BLOCKS = -1L;
+
+	/** Number of published frames whose dirty masks are kept. */
+	private static final int HISTORY = 16;
+
+	/**
+	 * A frame image together with its sequence number, the tick number when it was rendered and the sprites of actors
+	 * which have been captured instead of being drawn into the image. Content which must appear above the captured
+	 * actors is drawn into an optional overlay image.
+	 */
+	public static class Frame {
+
+		private static final AffineTransform IDENTITY = new AffineTransform();
+
+		public final BufferedImage image;
+		public final SpriteBatch actors = new SpriteBatch(32);
+		private final Graphics2D g;
+		private final int[] pixels;
+		private BufferedImage overlay;
+		private Graphics2D overlayGraphics;
+		private boolean overlayUsed;
+		private long tick = -1;
+		private long seq;
+		private long publishTime;
+
+		private Frame(int width, int height) {
+			// pixels are read by the frame recorder, so the image is never a managed image anyway
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+			g = image.createGraphics();
+		}
+
+		/**
+		 * @return graphics for drawing into the frame image, transformation is reset to identity
+		 */
+		public Graphics2D graphics() {
+			g.setTransform(IDENTITY);
+			return g;
+		}
+
+		/**
+		 * @return graphics for drawing into the overlay image, the overlay is cleared and marked as used
+		 */
+		public Graphics2D overlayGraphics() {
+			if (overlay == null) {
+				overlay = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+				overlayGraphics = overlay.createGraphics();
+			}
+			overlayGraphics.setTransform(IDENTITY);
+			overlayGraphics.setComposite(AlphaComposite.Clear);
+			overlayGraphics.fillRect(0, 0, overlay.getWidth(), overlay.getHeight());
+			overlayGraphics.setComposite(AlphaComposite.SrcOver);
+			overlayUsed = true;
+			return overlayGraphics;
+		}
+
+		/**
+		 * Marks the overlay as unused.
+		 */
+		public void clearOverlay() {
+			overlayUsed = false;
+		}
+
+		/**
+		 * @return overlay image or {@code null} if the frame has no overlay
+		 */
+		public BufferedImage overlay() {
+			return overlayUsed ? overlay : null;
+		}
+
+		/**
+		 * @return pixels (RGB) of the frame image, backed by the image
+		 */
+		public int[] pixels() {
+			return pixels;
+		}
+
+		/**
+		 * @return tick number when the frame has been rendered
+		 */
+		public long tick() {
+			return tick;
+		}
+
+		/**
+		 * @return sequence number of the frame, published frames are numbered 1, 2, 3, ...
+		 */
+		public long seq() {
+			return seq;
+		}
+
+		/**
+		 * @return time ({@link System#nanoTime()}) when the frame has been published
+		 */
+		public long publishTime() {
+			return publishTime;
+		}
+	}
+
+	private final AtomicReference<Frame> shared;
+	private final int blocksX;
+	private final int blocksY;
+	private final AtomicLongArray historySeq = new AtomicLongArray(HISTORY);
+	private final AtomicLongArray historyMask = new AtomicLongArray(HISTORY);
+	private volatile boolean changeTracking;
+	private Frame back;
+	private Frame front;
+	private long lastDamage = ALL_BLOCKS;
+	private long published;
+
+	public FrameExchange(int width, int height) {
+		blocksX = (width + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		blocksY = (height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		back = new Frame(width, height);
+		front = new Frame(width, height);
+		shared = new AtomicReference<>(new Frame(width, height));
+	}
+
+	/**
+	 * @param changeTracking if the changed blocks of published frames are tracked. Only possible if the block grid has
+	 *                       at most 64 blocks.
+	 */
+	public void setChangeTracking(boolean changeTracking) {
+		this.changeTracking = changeTracking && blocksX * blocksY <= Long.SIZE;
+	}
+
+	public boolean isChangeTracking() {
+		return changeTracking;
+	}
+
+	public int blocksX() {
+		return blocksX;
+	}
+
+	public int blocksY() {
+		return blocksY;
+	}
+
+	/**
+	 * Called by the producer.
+	 * 
+	 * @return frame to render into
+	 */
+	public Frame backFrame() {
+		return back;
+	}
+
+	/**
+	 * Called by the producer.
+	 * 
+	 * @return sequence number the back frame gets when it is published
+	 */
+	public long nextSeq() {
+		return published + 1;
+	}
+
+	/**
+	 * Called by the producer after rendering into the back frame. The damage of the frame is unknown.
+	 * 
+	 * @param tick tick number of the rendered frame, must increase with each published frame
+	 */
+	public void publish(long tick) {
+		publish(tick, ALL_BLOCKS);
+	}
+
+	/**
+	 * Called by the producer after rendering into the back frame.
+	 * 
+	 * @param tick   tick number of the rendered frame, must increase with each published frame
+	 * @param damage mask of the blocks where the frame may differ from a frame rendered with no changes, e.g. actors
+	 *               and changed texts. {@link #ALL_BLOCKS} if unknown.
+	 */
+	public void publish(long tick, long damage) {
+		long mask = changeTracking && damage != ALL_BLOCKS && lastDamage != ALL_BLOCKS ? damage | lastDamage : ALL_BLOCKS;
+		lastDamage = damage;
+		back.tick = tick;
+		back.seq = ++published;
+		back.publishTime = System.nanoTime();
+		int slot = (int) (back.seq % HISTORY);
+		historySeq.set(slot, 0);
+		historyMask.set(slot, mask);
+		historySeq.set(slot, back.seq);
+		back = shared.getAndSet(back);
+	}
+
+	/**
+	 * Called by the consumer.
+	 * 
+	 * @param seq sequence number of a frame published earlier
+	 * @return mask of the blocks that changed between the given frame and the latest frame or {@link #ALL_BLOCKS} if
+	 *         this is not known
+	 */
+	public long changedBlocksSince(long seq) {
+		long latest = front.seq;
+		if (seq <= 0 || latest - seq >= HISTORY) {
+			return ALL_BLOCKS;
+		}
+		long mask = 0;
+		for (long s = seq + 1; s <= latest; ++s) {
+			int slot = (int) (s % HISTORY);
+			long slotMask = historyMask.get(slot);
+			if (historySeq.get(slot) != s) {
+				return ALL_BLOCKS; // overwritten by producer
+			}
+			mask |= slotMask;
+		}
+		return mask;
+	}
+
+	/**
+	 * Called by the consumer. Draws the given blocks of a frame image, adjacent blocks in a row are drawn together.
+	 * 
+	 * @param g      graphics of the presentation target
+	 * @param image  frame image
+	 * @param blocks block mask, e.g. from {@link #changedBlocksSince(long)}
+	 * @return number of frame pixels drawn
+	 */
+	public long drawBlocks(Graphics2D g, BufferedImage image, long blocks) {
+		if (blocks == ALL_BLOCKS) {
+			g.drawImage(image, 0, 0, null);
+			return (long) image.getWidth() * image.getHeight();
+		}
+		long pixels = 0;
+		for (int by = 0; by < blocksY; ++by) {
+			int bx = 0;
+			while (bx < blocksX) {
+				if ((blocks & 1L << (by * blocksX + bx)) == 0) {
+					++bx;
+					continue;
+				}
+				int start = bx;
+				while (bx < blocksX && (blocks & 1L << (by * blocksX + bx)) != 0) {
+					++bx;
+				}
+				int x0 = start * BLOCK_SIZE;
+				int y0 = by * BLOCK_SIZE;
+				int x1 = Math.min(image.getWidth(), bx * BLOCK_SIZE);
+				int y1 = Math.min(image.getHeight(), y0 + BLOCK_SIZE);
+				g.drawImage(image, x0, y0, x1, y1, x0, y0, x1, y1, null);
+				pixels += (long) (x1 - x0) * (y1 - y0);
+			}
+		}
+		return pixels;
+	}
+
+	/**
+	 * Called by the consumer.
+	 * 
+	 * @return the most recently published frame or {@code null} if no frame has been published yet
+	 */
+	public Frame latestFrame() {
+		if (shared.get().seq > front.seq) {
+			front = shared.getAndSet(front);
+		}
+		return front.seq > 0 ? front : null;
+	}
+}
@@ -0,0 +1,499 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.tinylog.Logger;
+
+/**
+ * Records frames on background threads.
+ * <p>
+ * {@link #offer(int[], long)} copies a frame into a free buffer of a fixed pool and appends it to a lock-free queue. If
+ * no buffer is free because the workers cannot keep up, the frame is dropped and counted, so recording never blocks
+ * the thread presenting the frames. Worker threads encode the frames: PNG frames are written directly as numbered
+ * files, frames of the raw RGB stream and of the animated GIF (quantized to a palette by the workers) are written in
+ * order by a writer thread.
+ * 
+ * @author Armin Reichert
+ */
+public class FrameRecorder {
+
+	public enum Format {
+		/** One PNG file per frame. */
+		PNG,
+		/** Stream of 24-bit RGB frames without header, the frame size is part of the file name. */
+		RAW,
+		/** Animated GIF with a palette per frame. */
+		GIF
+	}
+
+	/**
+	 * Recording statistics.
+	 * 
+	 * @param offered     frames offered
+	 * @param dropped     frames dropped because no buffer was free
+	 * @param written     frames written
+	 * @param failed      frames that could not be encoded or written
+	 * @param encodeNanos time spent encoding by all workers
+	 */
+	public record Stats(long offered, long dropped, long written, long failed, long encodeNanos) {
+
+		@Override
+		public String toString() {
+			return "%d frames offered, %d dropped, %d written, %d failed, %.2f ms encoding/frame".formatted(offered,
+					dropped, written, failed, written == 0 ? 0 : encodeNanos / 1e6 / written);
+		}
+	}
+
+	private static final class Slot {
+		final int[] pixels;
+		long index;
+		long timestamp;
+
+		Slot(int size) {
+			pixels = new int[size];
+		}
+	}
+
+	/** Encoded frame waiting to be written in order, {@code data} is {@code null} if encoding failed. */
+	private record Chunk(long index, long timestamp, Object data) {
+	}
+
+	private static final long IDLE_PARK_NANOS = 5_000_000;
+	private static final int GIF_MIN_DELAY = 2; // 1/100 sec, smaller delays are ignored by most viewers
+
+	private final Format format;
+	private final Path directory;
+	private final int width;
+	private final int height;
+	private final ConcurrentLinkedQueue<Slot> freeSlots = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<Slot> filledSlots = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<Chunk> chunks = new ConcurrentLinkedQueue<>();
+	private final Thread[] workers;
+	private final Thread writer;
+	private final AtomicLong offered = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong encodeNanos = new AtomicLong();
+	private final CompletableFuture<Stats> finished = new CompletableFuture<>();
+	private final AtomicInteger offersInFlight = new AtomicInteger();
+	private long nextIndex; // only accessed by the offering thread
+	private volatile boolean recording;
+	private volatile boolean workersDone;
+
+	/**
+	 * @param format     output format
+	 * @param directory  output directory, created if needed
+	 * @param width      frame width
+	 * @param height     frame height
+	 * @param poolSize   number of frame buffers, i.e. the maximum number of frames waiting to be encoded
+	 * @param numWorkers number of encoding threads
+	 */
+	public FrameRecorder(Format format, Path directory, int width, int height, int poolSize, int numWorkers) {
+		this.format = format;
+		this.directory = directory;
+		this.width = width;
+		this.height = height;
+		for (int i = 0; i < poolSize; ++i) {
+			freeSlots.add(new Slot(width * height));
+		}
+		workers = new Thread[numWorkers];
+		for (int i = 0; i < numWorkers; ++i) {
+			workers[i] = new Thread(this::encodeLoop, "FrameEncoder-" + (i + 1));
+			workers[i].setDaemon(true);
+		}
+		writer = format == Format.PNG ? null : new Thread(this::writeLoop, "FrameWriter");
+		if (writer != null) {
+			writer.setDaemon(true);
+		}
+	}
+
+	public Format format() {
+		return format;
+	}
+
+	public Path directory() {
+		return directory;
+	}
+
+	public boolean isRecording() {
+		return recording;
+	}
+
+	public void start() throws IOException {
+		Files.createDirectories(directory);
+		recording = true;
+		for (var worker : workers) {
+			worker.start();
+		}
+		if (writer != null) {
+			writer.start();
+		}
+		Logger.info("Recording {} frames into {}", format, directory);
+	}
+
+	/**
+	 * Offers a frame for recording. Must always be called from the same thread. Never blocks.
+	 * 
+	 * @param pixels    frame pixels (RGB), copied
+	 * @param timestamp frame time ({@link System#nanoTime()})
+	 * @return {@code true} if the frame is recorded, {@code false} if it was dropped
+	 */
+	public boolean offer(int[] pixels, long timestamp) {
+		// counted before checking the flag, so the workers do not exit while a frame passing the check is enqueued
+		offersInFlight.incrementAndGet();
+		try {
+			if (!recording) {
+				return false;
+			}
+			offered.incrementAndGet();
+			var slot = freeSlots.poll();
+			if (slot == null) {
+				dropped.incrementAndGet();
+				return false;
+			}
+			System.arraycopy(pixels, 0, slot.pixels, 0, slot.pixels.length);
+			slot.index = nextIndex++;
+			slot.timestamp = timestamp;
+			filledSlots.offer(slot);
+			LockSupport.unpark(workers[(int) (slot.index % workers.length)]);
+			return true;
+		} finally {
+			offersInFlight.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Stops recording. Frames already offered are still written.
+	 * 
+	 * @return future completing with the statistics when all frames are written
+	 */
+	public CompletableFuture<Stats> stop() {
+		if (recording) {
+			recording = false;
+			var finisher = new Thread(this::finish, "FrameRecorderStop");
+			finisher.setDaemon(true);
+			finisher.start();
+		}
+		return finished;
+	}
+
+	public Stats stats() {
+		return new Stats(offered.get(), dropped.get(), written.get(), failed.get(), encodeNanos.get());
+	}
+
+	private void finish() {
+		try {
+			for (var worker : workers) {
+				worker.join();
+			}
+			workersDone = true;
+			if (writer != null) {
+				LockSupport.unpark(writer);
+				writer.join();
+			}
+		} catch (InterruptedException x) {
+			Thread.currentThread().interrupt();
+		}
+		var stats = stats();
+		Logger.info("Recording into {} finished: {}", directory, stats);
+		finished.complete(stats);
+	}
+
+	// Encoding
+
+	private void encodeLoop() {
+		while (true) {
+			var slot = filledSlots.poll();
+			if (slot == null) {
+				// a frame offered before recording stopped is enqueued when no offer is in flight anymore
+				if (!recording && offersInFlight.get() == 0 && filledSlots.isEmpty()) {
+					return;
+				}
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				continue;
+			}
+			long start = System.nanoTime();
+			Object data = null;
+			try {
+				data = encode(slot);
+			} catch (Exception x) {
+				failed.incrementAndGet();
+				Logger.error("Could not encode frame {}: {}", slot.index, x.getMessage());
+			}
+			encodeNanos.addAndGet(System.nanoTime() - start);
+			if (writer != null) {
+				chunks.offer(new Chunk(slot.index, slot.timestamp, data));
+				LockSupport.unpark(writer);
+			}
+			freeSlots.offer(slot);
+		}
+	}
+
+	private Object encode(Slot slot) throws IOException {
+		return switch (format) {
+		case PNG -> {
+			var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			int[] imagePixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+			System.arraycopy(slot.pixels, 0, imagePixels, 0, imagePixels.length);
+			ImageIO.write(image, "png", directory.resolve("frame-%06d.png".formatted(slot.index)).toFile());
+			written.incrementAndGet();
+			yield null;
+		}
+		case RAW -> {
+			var rgb = new byte[slot.pixels.length * 3];
+			for (int i = 0, j = 0; i < slot.pixels.length; ++i) {
+				int pixel = slot.pixels[i];
+				rgb[j++] = (byte) (pixel >> 16);
+				rgb[j++] = (byte) (pixel >> 8);
+				rgb[j++] = (byte) pixel;
+			}
+			yield rgb;
+		}
+		case GIF -> quantize(slot.pixels);
+		};
+	}
+
+	/**
+	 * Converts the frame into an indexed image. Frames with at most 256 colors (the usual case) are converted exactly,
+	 * other frames are mapped to a uniform 3-3-2 palette.
+	 */
+	private BufferedImage quantize(int[] pixels) {
+		int[] palette = new int[256];
+		int numColors = 0;
+		int[] table = new int[1024]; // open addressing: color + 1 -> palette index + 1 in lower bits
+		int[] tableIndex = new int[1024];
+		var indices = new byte[pixels.length];
+		boolean exact = true;
+		for (int i = 0; i < pixels.length && exact; ++i) {
+			int rgb = pixels[i] & 0xffffff;
+			int h = (rgb * 0x9E3779B1) >>> 22;
+			while (table[h] != 0 && table[h] != rgb + 1) {
+				h = (h + 1) & 1023;
+			}
+			if (table[h] == 0) {
+				if (numColors == 256) {
+					exact = false;
+					break;
+				}
+				table[h] = rgb + 1;
+				tableIndex[h] = numColors;
+				palette[numColors++] = rgb;
+			}
+			indices[i] = (byte) tableIndex[h];
+		}
+		if (!exact) {
+			for (int i = 0; i < 256; ++i) {
+				palette[i] = ((i >> 5) * 255 / 7) << 16 | (((i >> 2) & 7) * 255 / 7) << 8 | (i & 3) * 255 / 3;
+			}
+			numColors = 256;
+			for (int i = 0; i < pixels.length; ++i) {
+				int rgb = pixels[i];
+				indices[i] = (byte) ((rgb >> 16 & 0xe0) | (rgb >> 11 & 0x1c) | (rgb >> 6 & 0x03));
+			}
+		}
+		var colorModel = new IndexColorModel(8, Math.max(2, numColors), Arrays.copyOf(palette, Math.max(2, numColors)),
+				0, false, -1, DataBuffer.TYPE_BYTE);
+		var image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+		var data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+		System.arraycopy(indices, 0, data, 0, indices.length);
+		return image;
+	}
+
+	// Writing
+
+	private void writeLoop() {
+		var pending = new TreeMap<Long, Chunk>();
+		long next = 0;
+		try (var out = format == Format.RAW ? new RawStream() : new GifStream()) {
+			while (true) {
+				var chunk = chunks.poll();
+				if (chunk != null) {
+					pending.put(chunk.index, chunk);
+					while (!pending.isEmpty() && pending.firstKey() == next) {
+						var ready = pending.pollFirstEntry().getValue();
+						if (ready.data != null && out.write(ready)) {
+							written.incrementAndGet();
+						}
+						++next;
+					}
+				} else if (workersDone && chunks.isEmpty()) {
+					return;
+				} else {
+					LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				}
+			}
+		} catch (Exception x) {
+			Logger.error("Could not write {} recording: {}", format, x.getMessage());
+			failed.incrementAndGet();
+			// drain remaining chunks such that the workers are not kept waiting
+			chunks.clear();
+		}
+	}
+
+	private interface FrameStream extends AutoCloseable {
+
+		/**
+		 * @return {@code true} if the frame is (or will be) written, {@code false} if it is skipped
+		 */
+		boolean write(Chunk chunk) throws IOException;
+
+		@Override
+		void close() throws IOException;
+	}
+
+	private class RawStream implements FrameStream {
+
+		private final OutputStream out;
+
+		RawStream() throws IOException {
+			var file = directory.resolve("frames-%dx%d.rgb".formatted(width, height));
+			out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 20);
+		}
+
+		@Override
+		public boolean write(Chunk chunk) throws IOException {
+			out.write((byte[]) chunk.data);
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes each frame when the next frame arrives, such that the delay is known. Frames following the previous frame
+	 * within less than the minimal GIF delay are skipped.
+	 */
+	private class GifStream implements FrameStream {
+
+		private final ImageOutputStream out;
+		private final ImageWriter writer;
+		private Chunk previous;
+		private long firstTimestamp;
+		private long elapsedCentis; // time written so far
+		private boolean first = true;
+
+		GifStream() throws IOException {
+			writer = ImageIO.getImageWritersByFormatName("gif").next();
+			out = ImageIO.createImageOutputStream(directory.resolve("frames.gif").toFile());
+			writer.setOutput(out);
+			writer.prepareWriteSequence(null);
+		}
+
+		@Override
+		public boolean write(Chunk chunk) throws IOException {
+			if (previous == null) {
+				firstTimestamp = chunk.timestamp;
+				previous = chunk;
+				return true;
+			}
+			long centis = (chunk.timestamp - firstTimestamp) / 10_000_000;
+			int delay = (int) (centis - elapsedCentis);
+			if (delay < GIF_MIN_DELAY) {
+				return false;
+			}
+			writeFrame(previous, delay);
+			elapsedCentis = centis;
+			previous = chunk;
+			return true;
+		}
+
+		private void writeFrame(Chunk chunk, int delay) throws IOException {
+			var image = (BufferedImage) chunk.data;
+			var metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+			configure(metadata, delay);
+			writer.writeToSequence(new IIOImage(image, null, metadata), null);
+		}
+
+		private void configure(IIOMetadata metadata, int delay) throws IOException {
+			String formatName = metadata.getNativeMetadataFormatName();
+			var root = (IIOMetadataNode) metadata.getAsTree(formatName);
+			var control = child(root, "GraphicControlExtension");
+			control.setAttribute("disposalMethod", "none");
+			control.setAttribute("userInputFlag", "FALSE");
+			control.setAttribute("transparentColorFlag", "FALSE");
+			control.setAttribute("transparentColorIndex", "0");
+			control.setAttribute("delayTime", String.valueOf(delay));
+			if (first) {
+				var loop = new IIOMetadataNode("ApplicationExtension");
+				loop.setAttribute("applicationID", "NETSCAPE");
+				loop.setAttribute("authenticationCode", "2.0");
+				loop.setUserObject(new byte[] { 1, 0, 0 }); // loop forever
+				child(root, "ApplicationExtensions").appendChild(loop);
+				first = false;
+			}
+			metadata.setFromTree(formatName, root);
+		}
+
+		private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+			for (int i = 0; i < parent.getLength(); ++i) {
+				if (parent.item(i).getNodeName().equals(name)) {
+					return (IIOMetadataNode) parent.item(i);
+				}
+			}
+			var node = new IIOMetadataNode(name);
+			parent.appendChild(node);
+			return node;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (previous != null) {
+				writeFrame(previous, GIF_MIN_DELAY);
+			}
+			writer.endWriteSequence();
+			out.close();
+			writer.dispose();
+		}
+	}
+}
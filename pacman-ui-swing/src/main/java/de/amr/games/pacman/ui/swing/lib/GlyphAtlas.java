@@ -0,0 +1,278 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-rasterized glyphs of a font in a single color. Text is drawn by copying glyph cells instead of laying out glyphs
+ * with the font rasterizer. Strings which never change (labels like "HIGH SCORE") can be drawn from a cached image of
+ * the complete string.
+ * <p>
+ * Drawing text and numbers does not allocate memory unless the drawn regions are collected by a {@link DamageTracker}.
+ * 
+ * @author Armin Reichert
+ */
+public class GlyphAtlas {
+
+	private static final char FIRST_CHAR = 32;
+	private static final char LAST_CHAR = 255;
+	private static final int COLUMNS = 16;
+
+	private static volatile GlyphAtlas[] atlases = new GlyphAtlas[0];
+
+	private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[20]);
+
+	/**
+	 * @param font  font
+	 * @param color text color
+	 * @return atlas for the given font and color, created on first access
+	 */
+	public static GlyphAtlas get(Font font, Color color) {
+		for (var atlas : atlases) {
+			if (atlas.matches(font, color)) {
+				return atlas;
+			}
+		}
+		return create(font, color);
+	}
+
+	private static synchronized GlyphAtlas create(Font font, Color color) {
+		for (var atlas : atlases) {
+			if (atlas.matches(font, color)) {
+				return atlas;
+			}
+		}
+		var atlas = new GlyphAtlas(font, color);
+		var extended = Arrays.copyOf(atlases, atlases.length + 1);
+		extended[atlases.length] = atlas;
+		atlases = extended;
+		return atlas;
+	}
+
+	/**
+	 * Formats an integer like {@code String.format("%<width>d", value)} into the given buffer.
+	 * 
+	 * @param value  value
+	 * @param width  minimum width, value is right-aligned and padded with spaces
+	 * @param buffer target buffer, must have room for at least 20 characters and the padding
+	 * @param offset start index in the buffer
+	 * @return number of characters written
+	 */
+	public static int formatInt(long value, int width, char[] buffer, int offset) {
+		int numDigits = 1;
+		for (long rest = value / 10; rest != 0; rest /= 10) {
+			++numDigits;
+		}
+		int length = value < 0 ? numDigits + 1 : numDigits;
+		int padding = Math.max(0, width - length);
+		int end = offset + padding + length;
+		for (int i = offset; i < offset + padding; ++i) {
+			buffer[i] = ' ';
+		}
+		if (value < 0) {
+			buffer[offset + padding] = '-';
+		}
+		long rest = value;
+		for (int i = end - 1; i >= end - numDigits; --i) {
+			buffer[i] = (char) ('0' + Math.abs(rest % 10));
+			rest /= 10;
+		}
+		return end - offset;
+	}
+
+	private final Font font;
+	private final Color color;
+	private final BufferedImage image;
+	private final int[] advance = new int[LAST_CHAR - FIRST_CHAR + 1];
+	private final int cellWidth;
+	private final int cellHeight;
+	private final int ascent;
+	private final int padding;
+	private final Map<String, BufferedImage> stringImages = new ConcurrentHashMap<>();
+
+	private GlyphAtlas(Font font, Color color) {
+		this.font = font;
+		this.color = color;
+		var scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+		var sg = scratch.createGraphics();
+		FontMetrics fm = sg.getFontMetrics(font);
+		sg.dispose();
+		int maxAdvance = 0;
+		for (char c = FIRST_CHAR; c <= LAST_CHAR; ++c) {
+			advance[c - FIRST_CHAR] = fm.charWidth(c);
+			maxAdvance = Math.max(maxAdvance, advance[c - FIRST_CHAR]);
+		}
+		padding = Math.max(1, font.getSize() / 4);
+		ascent = fm.getAscent();
+		cellWidth = maxAdvance + 2 * padding;
+		cellHeight = fm.getAscent() + fm.getDescent() + padding;
+		int rows = (advance.length + COLUMNS - 1) / COLUMNS;
+		image = AcceleratedImages.create(COLUMNS * cellWidth, rows * cellHeight, Transparency.TRANSLUCENT);
+		var g = image.createGraphics();
+		g.setFont(font);
+		g.setColor(color);
+		for (char c = FIRST_CHAR; c <= LAST_CHAR; ++c) {
+			if (font.canDisplay(c)) {
+				int index = c - FIRST_CHAR;
+				g.setClip(cellX(index), cellY(index), cellWidth, cellHeight);
+				g.drawString(String.valueOf(c), cellX(index) + padding, cellY(index) + ascent);
+			}
+		}
+		g.dispose();
+	}
+
+	private boolean matches(Font font, Color color) {
+		return (this.font == font || this.font.equals(font)) && (this.color == color || this.color.equals(color));
+	}
+
+	private int cellX(int index) {
+		return (index % COLUMNS) * cellWidth;
+	}
+
+	private int cellY(int index) {
+		return (index / COLUMNS) * cellHeight;
+	}
+
+	public Font font() {
+		return font;
+	}
+
+	public Color color() {
+		return color;
+	}
+
+	/**
+	 * @return advance width of the given text in pixels
+	 */
+	public int stringWidth(String text) {
+		int width = 0;
+		for (int i = 0; i < text.length(); ++i) {
+			width += charWidth(text.charAt(i));
+		}
+		return width;
+	}
+
+	private int charWidth(char c) {
+		if (FIRST_CHAR <= c && c <= LAST_CHAR) {
+			return advance[c - FIRST_CHAR];
+		}
+		return 0;
+	}
+
+	/**
+	 * Draws a character with its baseline at the given position.
+	 * 
+	 * @return x position after the character
+	 */
+	public int drawChar(Graphics2D g, char c, int x, int y) {
+		int end = blitChar(g, c, x, y);
+		DamageTracker.add(g, x - padding, y - ascent, end - x + 2 * padding, cellHeight);
+		return end;
+	}
+
+	private int blitChar(Graphics2D g, char c, int x, int y) {
+		if (FIRST_CHAR <= c && c <= LAST_CHAR) {
+			int index = c - FIRST_CHAR;
+			int sx = cellX(index);
+			int sy = cellY(index);
+			int dx = x - padding;
+			int dy = y - ascent;
+			g.drawImage(image, dx, dy, dx + cellWidth, dy + cellHeight, sx, sy, sx + cellWidth, sy + cellHeight, null);
+		}
+		return x + charWidth(c);
+	}
+
+	/**
+	 * Draws text glyph by glyph with its baseline at the given position.
+	 * 
+	 * @return x position after the text
+	 */
+	public int drawString(Graphics2D g, String text, int x, int y) {
+		int start = x;
+		for (int i = 0; i < text.length(); ++i) {
+			x = blitChar(g, text.charAt(i), x, y);
+		}
+		DamageTracker.add(g, start - padding, y - ascent, x - start + 2 * padding, cellHeight);
+		return x;
+	}
+
+	/**
+	 * Draws characters from the given buffer with the baseline at the given position.
+	 * 
+	 * @return x position after the text
+	 */
+	public int drawChars(Graphics2D g, char[] chars, int offset, int length, int x, int y) {
+		int start = x;
+		for (int i = offset; i < offset + length; ++i) {
+			x = blitChar(g, chars[i], x, y);
+		}
+		DamageTracker.add(g, start - padding, y - ascent, x - start + 2 * padding, cellHeight);
+		return x;
+	}
+
+	/**
+	 * Draws an integer like {@code String.format("%<width>d", value)}.
+	 * 
+	 * @return x position after the number
+	 */
+	public int drawInt(Graphics2D g, long value, int width, int x, int y) {
+		var buffer = SCRATCH.get();
+		int length = formatInt(value, width, buffer, 0);
+		return drawChars(g, buffer, 0, length, x, y);
+	}
+
+	/**
+	 * Draws a string that never changes from a cached image of the complete string. Use only for a bounded set of
+	 * strings.
+	 * 
+	 * @return x position after the text
+	 */
+	public int drawCachedString(Graphics2D g, String text, int x, int y) {
+		var textImage = stringImages.get(text);
+		if (textImage == null) {
+			textImage = stringImages.computeIfAbsent(text, this::createStringImage);
+		}
+		g.drawImage(textImage, x - padding, y - ascent, null);
+		DamageTracker.add(g, x - padding, y - ascent, textImage.getWidth(), cellHeight);
+		return x + stringWidth(text);
+	}
+
+	private BufferedImage createStringImage(String text) {
+		var textImage = AcceleratedImages.create(Math.max(1, stringWidth(text) + 2 * padding), cellHeight,
+				Transparency.TRANSLUCENT);
+		var g = textImage.createGraphics();
+		drawString(g, text, padding, ascent);
+		g.dispose();
+		return textImage;
+	}
+}
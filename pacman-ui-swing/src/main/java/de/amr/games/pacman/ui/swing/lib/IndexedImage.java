@@ -0,0 +1,190 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * An image stored as color indices (one byte per pixel) together with a palette. Recolored variants (flashing mazes,
+ * ghost colors, frightened ghosts) share the raster of the image they are derived from and only differ in their
+ * {@link IndexColorModel}, so creating a variant costs a palette and not a pixel loop.
+ * 
+ * @author Armin Reichert
+ */
+public class IndexedImage {
+
+	private static final int MAX_COLORS = 256;
+
+	/**
+	 * Converts the given image into an indexed image. All fully transparent pixels are mapped to the same palette entry.
+	 * 
+	 * @param src source image, may be a sub-image of a spritesheet
+	 * @return indexed image with a palette containing the colors of the source image in order of appearance
+	 * @throws IllegalArgumentException if the source image has more than 256 colors
+	 */
+	public static IndexedImage of(BufferedImage src) {
+		int width = src.getWidth();
+		int height = src.getHeight();
+		int[] pixels = src.getRGB(0, 0, width, height, null, 0, width);
+		var indexByColor = new HashMap<Integer, Integer>();
+		int[] palette = new int[MAX_COLORS];
+		byte[] indices = new byte[pixels.length];
+		for (int i = 0; i < pixels.length; ++i) {
+			int argb = argb(pixels[i]);
+			Integer index = indexByColor.get(argb);
+			if (index == null) {
+				if (indexByColor.size() == MAX_COLORS) {
+					throw new IllegalArgumentException("Image has more than %d colors".formatted(MAX_COLORS));
+				}
+				index = indexByColor.size();
+				indexByColor.put(argb, index);
+				palette[index] = argb;
+			}
+			indices[i] = (byte) index.intValue();
+		}
+		palette = Arrays.copyOf(palette, indexByColor.size());
+		var colorModel = colorModel(palette);
+		var raster = colorModel.createCompatibleWritableRaster(width, height);
+		raster.setDataElements(0, 0, width, height, indices);
+		return new IndexedImage(raster, palette, colorModel);
+	}
+
+	private static int argb(int pixel) {
+		return (pixel >>> 24) == 0 ? 0 : pixel;
+	}
+
+	private static IndexColorModel colorModel(int[] palette) {
+		return new IndexColorModel(8, palette.length, palette, 0, true, -1, DataBuffer.TYPE_BYTE);
+	}
+
+	private final WritableRaster raster;
+	private final int[] palette;
+	private final BufferedImage image;
+
+	private IndexedImage(WritableRaster raster, int[] palette, IndexColorModel colorModel) {
+		this.raster = raster;
+		this.palette = palette;
+		this.image = new BufferedImage(colorModel, raster, false, null);
+	}
+
+	/**
+	 * @return image using this palette
+	 */
+	public BufferedImage image() {
+		return image;
+	}
+
+	/**
+	 * @return copy of the palette (ARGB values)
+	 */
+	public int[] palette() {
+		return palette.clone();
+	}
+
+	/**
+	 * @param newPalette palette with the same number of entries as this palette
+	 * @return indexed image sharing the raster of this image
+	 */
+	public IndexedImage withPalette(int[] newPalette) {
+		if (newPalette.length != palette.length) {
+			throw new IllegalArgumentException(
+					"Palette has %d entries, expected %d".formatted(newPalette.length, palette.length));
+		}
+		var copy = newPalette.clone();
+		return new IndexedImage(raster, copy, colorModel(copy));
+	}
+
+	/**
+	 * @param from colors to replace
+	 * @param to   replacement colors
+	 * @return indexed image sharing the raster of this image where each color {@code from[i]} is replaced by
+	 *         {@code to[i]}. Colors not contained in the palette are ignored.
+	 */
+	public IndexedImage recolored(Color[] from, Color[] to) {
+		var newPalette = palette.clone();
+		for (int i = 0; i < newPalette.length; ++i) {
+			for (int j = 0; j < from.length; ++j) {
+				if (palette[i] == from[j].getRGB()) {
+					newPalette[i] = to[j].getRGB();
+					break;
+				}
+			}
+		}
+		return withPalette(newPalette);
+	}
+
+	/**
+	 * Derives an image with the colors of the given image if that image has the same shape as this one, i.e. pixels have
+	 * the same color in the given image if and only if they have the same color in this image.
+	 * 
+	 * @param src source image of the same size, may be a sub-image of a spritesheet
+	 * @return indexed image sharing the raster of this image or {@code null} if the shapes differ
+	 */
+	public IndexedImage recoloredAs(BufferedImage src) {
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+		if (src.getWidth() != width || src.getHeight() != height) {
+			return null;
+		}
+		var newPalette = new int[palette.length];
+		var assigned = new boolean[palette.length];
+		var indexByColor = new HashMap<Integer, Integer>();
+		int[] row = new int[width];
+		int[] srcRow = new int[width];
+		for (int y = 0; y < height; ++y) {
+			raster.getPixels(0, y, width, 1, row);
+			src.getRGB(0, y, width, 1, srcRow, 0, width);
+			for (int x = 0; x < width; ++x) {
+				int index = row[x];
+				int argb = argb(srcRow[x]);
+				if (!assigned[index]) {
+					Integer other = indexByColor.putIfAbsent(argb, index);
+					if (other != null) {
+						return null; // two colors of this image map to the same color
+					}
+					newPalette[index] = argb;
+					assigned[index] = true;
+				} else if (newPalette[index] != argb) {
+					return null;
+				}
+			}
+		}
+		return withPalette(newPalette);
+	}
+
+	/**
+	 * @param src source image, may be a sub-image of a spritesheet
+	 * @return image with the colors of the given image, sharing the raster of this image if the shapes are equal
+	 */
+	public IndexedImage variant(BufferedImage src) {
+		var recolored = recoloredAs(src);
+		return recolored != null ? recolored : of(src);
+	}
+}
@@ -0,0 +1,117 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.lib;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A fixed-capacity list of sprites with their positions. Each sprite is associated with a key object identifying the
+ * thing it represents. Adding sprites does not allocate memory.
+ * 
+ * @author Armin Reichert
+ */
+public class SpriteBatch {
+
+	private final Object[] keys;
+	private final BufferedImage[] sprites;
+	private final float[] xs;
+	private final float[] ys;
+	private int size;
+
+	public SpriteBatch(int capacity) {
+		keys = new Object[capacity];
+		sprites = new BufferedImage[capacity];
+		xs = new float[capacity];
+		ys = new float[capacity];
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; ++i) {
+			keys[i] = null;
+			sprites[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Adds a sprite. If the batch is full, the sprite is ignored.
+	 * 
+	 * @param key    key identifying the sprite owner
+	 * @param sprite sprite image
+	 * @param x      x position of the sprite's top-left corner
+	 * @param y      y position of the sprite's top-left corner
+	 * @return {@code true} if the sprite has been added
+	 */
+	public boolean add(Object key, BufferedImage sprite, float x, float y) {
+		if (size == keys.length) {
+			return false;
+		}
+		keys[size] = key;
+		sprites[size] = sprite;
+		xs[size] = x;
+		ys[size] = y;
+		++size;
+		return true;
+	}
+
+	public void copyFrom(SpriteBatch other) {
+		clear();
+		for (int i = 0; i < other.size; ++i) {
+			add(other.keys[i], other.sprites[i], other.xs[i], other.ys[i]);
+		}
+	}
+
+	/**
+	 * @param key a key
+	 * @return index of the first sprite with the given key (identity) or -1
+	 */
+	public int indexOf(Object key) {
+		for (int i = 0; i < size; ++i) {
+			if (keys[i] == key) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public Object key(int i) {
+		return keys[i];
+	}
+
+	public BufferedImage sprite(int i) {
+		return sprites[i];
+	}
+
+	public float x(int i) {
+		return xs[i];
+	}
+
+	public float y(int i) {
+		return ys[i];
+	}
+}
@@ -23,7 +23,6 @@ SOFTWARE.
  */
 package de.amr.games.pacman.ui.swing.lib;
 
-import java.awt.Color;
 import java.awt.image.BufferedImage;
 
 import de.amr.games.pacman.lib.math.Vector2i;
@@ -43,10 +42,29 @@ public class Spritesheet {
 		raster = pixels;
 	}
 
-	public BufferedImage si(int x, int y, int width, int height) {
+	/**
+	 * @return the given sheet region, shares the raster of the sheet
+	 */
+	public BufferedImage region(int x, int y, int width, int height) {
 		return image.getSubimage(x, y, width, height);
 	}
 
+	/**
+	 * @return the given tile relative to the given origin, shares the raster of the sheet
+	 */
+	public BufferedImage tileRegion(int x, int y, int tileX, int tileY) {
+		return region(x + tileX * raster, y + tileY * raster, raster, raster);
+	}
+
+	/**
+	 * @return copy of the given sheet region in screen-compatible format. Sub-images share the raster of the sheet and
+	 *         are not reliably cached as accelerated images, so each sprite gets its own image. Each call creates a
+	 *         copy, the result has to be cached by the caller.
+	 */
+	public BufferedImage si(int x, int y, int width, int height) {
+		return AcceleratedImages.compatible(image.getSubimage(x, y, width, height));
+	}
+
 	public BufferedImage tilesFrom(int x, int y, int tileX, int tileY, int numTilesX, int numTilesY) {
 		return si(x + tileX * raster, y + tileY * raster, numTilesX * raster, numTilesY * raster);
 	}
@@ -62,21 +80,4 @@ public class Spritesheet {
 	public BufferedImage tile(Vector2i tile) {
 		return tile(tile.x(), tile.y());
 	}
-
-	public BufferedImage createBrightEffect(BufferedImage src, Color borderColor, Color fillColor) {
-		BufferedImage dst = new BufferedImage(src.getWidth(), src.getHeight(), src.getType());
-		dst.getGraphics().drawImage(src, 0, 0, null);
-		for (int x = 0; x < src.getWidth(); ++x) {
-			for (int y = 0; y < src.getHeight(); ++y) {
-				if (src.getRGB(x, y) == borderColor.getRGB()) {
-					dst.setRGB(x, y, Color.WHITE.getRGB());
-				} else if (src.getRGB(x, y) == fillColor.getRGB()) {
-					dst.setRGB(x, y, Color.BLACK.getRGB());
-				} else {
-					dst.setRGB(x, y, src.getRGB(x, y));
-				}
-			}
-		}
-		return dst;
-	}
 }
\ No newline at end of file
@@ -43,9 +43,13 @@ public class Ujfc {
 		return Ujfc.class.getResource(path);
 	}
 
+	/**
+	 * @param path resource path
+	 * @return image converted into screen-compatible format, see {@link AcceleratedImages}
+	 */
 	public static BufferedImage image(String path) {
 		try (InputStream is = url(path).openStream()) {
-			return ImageIO.read(is);
+			return AcceleratedImages.compatible(ImageIO.read(is));
 		} catch (Exception x) {
 			throw new AssetException("Could not load image with path '%s'", path);
 		}
@@ -0,0 +1,94 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.rendering.common;
+
+import static de.amr.games.pacman.lib.Globals.HTS;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import de.amr.games.pacman.model.actors.Entity;
+import de.amr.games.pacman.ui.swing.lib.SpriteBatch;
+
+/**
+ * Captures the sprites of moving actors (Pac-Man, ghosts, moving bonus) into a sprite batch instead of drawing them.
+ * Used by interpolated rendering where the actors are drawn at display rate. The batch is attached to the graphics
+ * context as rendering hint, so each renderer captures into its own batch.
+ * 
+ * @author Armin Reichert
+ */
+public class ActorCapture {
+
+	private static final RenderingHints.Key TARGET = new RenderingHints.Key(0) {
+
+		@Override
+		public boolean isCompatibleValue(Object value) {
+			return value == null || value instanceof SpriteBatch;
+		}
+	};
+
+	private ActorCapture() {
+	}
+
+	/**
+	 * Starts capturing the actor sprites drawn into the given graphics context.
+	 * 
+	 * @param g     graphics context
+	 * @param batch sprite batch, will be cleared
+	 */
+	public static void begin(Graphics2D g, SpriteBatch batch) {
+		batch.clear();
+		g.setRenderingHint(TARGET, batch);
+	}
+
+	/**
+	 * @param g graphics context passed to {@link #begin(Graphics2D, SpriteBatch)}
+	 */
+	public static void end(Graphics2D g) {
+		g.setRenderingHint(TARGET, null);
+	}
+
+	/**
+	 * @param g      graphics context, the current translation is added to the sprite position
+	 * @param actor  actor
+	 * @param sprite sprite of actor
+	 * @return {@code true} if the sprite has been captured, {@code false} if it has to be drawn
+	 */
+	static boolean capture(Graphics2D g, Entity actor, BufferedImage sprite) {
+		var target = (SpriteBatch) g.getRenderingHint(TARGET);
+		if (target == null) {
+			return false;
+		}
+		if (actor.isVisible() && sprite != null) {
+			var transform = g.getTransform();
+			float x = actor.position().x() + HTS - sprite.getWidth() / 2 + (float) transform.getTranslateX();
+			float y = actor.position().y() + HTS - sprite.getHeight() / 2 + (float) transform.getTranslateY();
+			if (!target.add(actor, sprite, x, y)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
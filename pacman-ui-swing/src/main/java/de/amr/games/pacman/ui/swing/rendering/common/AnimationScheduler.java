@@ -0,0 +1,239 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.rendering.common;
+
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps the state of sprite animations in parallel arrays. {@link SpriteAnimation#animate()} only records a tick, the
+ * recorded ticks of all animations are applied in a single pass by {@link #advance()}. So an animation advances exactly
+ * as often as it is animated, like before, but never while a frame is rendered. A {@link SpriteAnimation} is only a
+ * handle to a slot of this scheduler.
+ * <p>
+ * Each user (window, offscreen renderer) has its own scheduler and calls {@link #advance()} once per tick. All methods
+ * except slot reclamation must be called from the game thread. Slots of animations that became unreachable are
+ * reclaimed at the start of the next {@link #advance()}.
+ * 
+ * @author Armin Reichert
+ */
+public class AnimationScheduler {
+
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private int[] frameIndex;
+	private int[] frameTick;
+	private int[] frameDuration;
+	private int[] numFrames;
+	private int[] repetitions;
+	private int[] repetitionsCompleted;
+	private boolean[] running;
+	private boolean[] used;
+	private int[] pendingTicks;
+	private int[] tickedSlots;
+	private int numTicked;
+	private int[] freeSlots;
+	private int numFree;
+	private int numSlots;
+	private final ConcurrentLinkedQueue<Integer> reclaimedSlots = new ConcurrentLinkedQueue<>();
+
+	public AnimationScheduler() {
+		this(64);
+	}
+
+	public AnimationScheduler(int capacity) {
+		frameIndex = new int[capacity];
+		frameTick = new int[capacity];
+		frameDuration = new int[capacity];
+		numFrames = new int[capacity];
+		repetitions = new int[capacity];
+		repetitionsCompleted = new int[capacity];
+		running = new boolean[capacity];
+		used = new boolean[capacity];
+		pendingTicks = new int[capacity];
+		tickedSlots = new int[capacity];
+		freeSlots = new int[capacity];
+	}
+
+	private void grow() {
+		int capacity = 2 * frameIndex.length;
+		frameIndex = Arrays.copyOf(frameIndex, capacity);
+		frameTick = Arrays.copyOf(frameTick, capacity);
+		frameDuration = Arrays.copyOf(frameDuration, capacity);
+		numFrames = Arrays.copyOf(numFrames, capacity);
+		repetitions = Arrays.copyOf(repetitions, capacity);
+		repetitionsCompleted = Arrays.copyOf(repetitionsCompleted, capacity);
+		running = Arrays.copyOf(running, capacity);
+		used = Arrays.copyOf(used, capacity);
+		pendingTicks = Arrays.copyOf(pendingTicks, capacity);
+		tickedSlots = Arrays.copyOf(tickedSlots, capacity);
+		freeSlots = Arrays.copyOf(freeSlots, capacity);
+	}
+
+	/**
+	 * Applies the ticks recorded since the last call. Only animations that have been animated advance, each by the
+	 * number of times it has been animated.
+	 */
+	public void advance() {
+		reclaimSlots();
+		for (int i = 0; i < numTicked; ++i) {
+			int slot = tickedSlots[i];
+			for (int n = pendingTicks[slot]; n > 0; --n) {
+				step(slot);
+			}
+			pendingTicks[slot] = 0;
+		}
+		numTicked = 0;
+	}
+
+	private void step(int slot) {
+		if (!running[slot] || ++frameTick[slot] < frameDuration[slot]) {
+			return;
+		}
+		frameTick[slot] = 0;
+		if (frameIndex[slot] + 1 < numFrames[slot]) {
+			++frameIndex[slot];
+		} else if (repetitions[slot] == FrameTable.FOREVER || ++repetitionsCompleted[slot] < repetitions[slot]) {
+			frameIndex[slot] = 0;
+		} else {
+			running[slot] = false;
+		}
+	}
+
+	/**
+	 * @return number of animations currently owning a slot
+	 */
+	public int numAnimations() {
+		return numSlots - numFree;
+	}
+
+	/**
+	 * @return number of running animations
+	 */
+	public int numRunning() {
+		int n = 0;
+		for (int slot = 0; slot < numSlots; ++slot) {
+			if (running[slot]) {
+				++n;
+			}
+		}
+		return n;
+	}
+
+	private void reclaimSlots() {
+		Integer slot;
+		while ((slot = reclaimedSlots.poll()) != null) {
+			release(slot);
+		}
+	}
+
+	// slot operations used by SpriteAnimation
+
+	int allocate(SpriteAnimation owner, FrameTable table) {
+		int slot;
+		if (numFree > 0) {
+			slot = freeSlots[--numFree];
+		} else {
+			if (numSlots == frameIndex.length) {
+				grow();
+			}
+			slot = numSlots++;
+		}
+		used[slot] = true;
+		setTable(slot, table);
+		// the cleaning action must not reference the owner, else the owner never becomes unreachable
+		CLEANER.register(owner, new Reclaim(reclaimedSlots, slot));
+		return slot;
+	}
+
+	private static class Reclaim implements Runnable {
+
+		private final ConcurrentLinkedQueue<Integer> queue;
+		private final int slot;
+
+		Reclaim(ConcurrentLinkedQueue<Integer> queue, int slot) {
+			this.queue = queue;
+			this.slot = slot;
+		}
+
+		@Override
+		public void run() {
+			queue.add(slot);
+		}
+	}
+
+	private void release(int slot) {
+		if (used[slot]) {
+			used[slot] = false;
+			running[slot] = false;
+			freeSlots[numFree++] = slot;
+		}
+	}
+
+	void tick(int slot) {
+		if (pendingTicks[slot]++ == 0) {
+			tickedSlots[numTicked++] = slot;
+		}
+	}
+
+	void setTable(int slot, FrameTable table) {
+		numFrames[slot] = table.numFrames();
+		frameDuration[slot] = table.frameDuration();
+		repetitions[slot] = table.repetitions();
+		reset(slot);
+	}
+
+	void reset(int slot) {
+		running[slot] = false;
+		frameIndex[slot] = 0;
+		frameTick[slot] = 0;
+		repetitionsCompleted[slot] = 0;
+	}
+
+	int frameIndex(int slot) {
+		return frameIndex[slot];
+	}
+
+	void setFrameIndex(int slot, int i) {
+		frameIndex[slot] = i;
+		frameTick[slot] = 0;
+	}
+
+	boolean isRunning(int slot) {
+		return running[slot];
+	}
+
+	void setRunning(int slot, boolean b) {
+		running[slot] = b;
+	}
+
+	void setFrameDuration(int slot, int ticks) {
+		frameDuration[slot] = ticks;
+	}
+
+	void setRepetitions(int slot, int n) {
+		repetitions[slot] = n;
+	}
+}
@@ -31,26 +31,55 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
+import java.util.ArrayList;
 
 import de.amr.games.pacman.controller.GameController;
 import de.amr.games.pacman.controller.GameState;
-import de.amr.games.pacman.lib.math.Vector2f;
 import de.amr.games.pacman.lib.math.Vector2i;
 import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.app.InputLatencyTracer;
 
 /**
  * @author Armin Reichert
  */
 public class DebugDraw {
 
+	private static final Color[] GHOST_COLORS = { Color.RED, Color.PINK, Color.CYAN, Color.ORANGE };
+	private static final Color PAC_TARGET_COLOR = new Color(255, 255, 0, 200);
+	private static final Color INTERSECTION_COLOR = new Color(80, 80, 80);
+	private static final Color HOUSE_COLOR = new Color(100, 100, 100, 100);
+	private static final Font FONT = new Font("Arial", Font.PLAIN, 6);
+	private static final BasicStroke THIN = new BasicStroke(0.5f);
+
+	// maze structure of the last drawn world, collected once
+	private static World structureWorld;
+	private static int[] intersectionTiles = new int[0];
+	private static int[] houseTiles = new int[0];
+
 	private DebugDraw() {
 	}
 
+	/**
+	 * Draws the input latency per stage (median, 99th percentile and number of traces).
+	 */
+	public static void drawInputLatency(Graphics2D g, InputLatencyTracer tracer) {
+		g.setColor(Color.WHITE);
+		g.setFont(FONT);
+		int y = TS * 31;
+		for (var stage : InputLatencyTracer.Stage.values()) {
+			var histogram = tracer.histogram(stage);
+			g.drawString("%-8s p50 %6.2f ms p99 %6.2f ms n=%d".formatted(stage, histogram.percentileNanos(0.5) / 1e6,
+					histogram.percentileNanos(0.99) / 1e6, histogram.count()), TS * 1, y);
+			y += 7;
+		}
+	}
+
 	public static void drawPlaySceneDebugInfo(Graphics2D g, GameController controller) {
-		final Color[] ghostColors = { Color.RED, Color.PINK, Color.CYAN, Color.ORANGE };
 		var game = controller.game();
 		var state = controller.state();
-		game.level().ifPresent(level -> {
+		var optLevel = game.level();
+		if (optLevel.isPresent()) {
+			var level = optLevel.get();
 			var huntingTimer = level.huntingTimer();
 			String stateText;
 			if (state == GameState.HUNTING && level.scatterPhase().isPresent()) {
@@ -65,42 +94,62 @@ public class DebugDraw {
 				stateText = "State %s Running: %s".formatted(state, ticksToString(ticks));
 			}
 			g.setColor(Color.WHITE);
-			g.setFont(new Font("Arial", Font.PLAIN, 6));
+			g.setFont(FONT);
 			g.drawString(stateText, TS * 1, TS * 3);
-			level.ghosts().forEach(ghost -> {
+			for (byte id = 0; id < GHOST_COLORS.length; ++id) {
+				var ghost = level.ghost(id);
 				g.setColor(Color.WHITE);
 				g.drawRect((int) ghost.position().x(), (int) ghost.position().y(), TS, TS);
-				ghost.targetTile().ifPresent(targetTile -> {
-					Color c = ghostColors[ghost.id()];
-					g.setColor(c);
-					g.fillRect(TS * (targetTile.x()) + HTS / 2, TS * (targetTile.y()) + HTS / 2, HTS, HTS);
-					g.setStroke(new BasicStroke(0.5f));
-					Vector2f targetPosition = targetTile.scaled(TS).plus(HTS, HTS).toFloatVec();
-					g.drawLine((int) ghost.position().x(), (int) ghost.position().y(), (int) targetPosition.x(),
-							(int) targetPosition.y());
-				});
-			});
-			level.pac().targetTile().ifPresent(targetTile -> {
-				g.setColor(new Color(255, 255, 0, 200));
-				g.fillRect(TS * (targetTile.x()), TS * (targetTile.y()), TS, TS);
-			});
-		});
+				var targetTile = ghost.targetTile();
+				if (targetTile.isPresent()) {
+					int tx = targetTile.get().x();
+					int ty = targetTile.get().y();
+					g.setColor(GHOST_COLORS[ghost.id()]);
+					g.fillRect(TS * (tx) + HTS / 2, TS * (ty) + HTS / 2, HTS, HTS);
+					g.setStroke(THIN);
+					g.drawLine((int) ghost.position().x(), (int) ghost.position().y(), TS * (tx) + HTS, TS * (ty) + HTS);
+				}
+			}
+			var pacTargetTile = level.pac().targetTile();
+			if (pacTargetTile.isPresent()) {
+				g.setColor(PAC_TARGET_COLOR);
+				g.fillRect(TS * (pacTargetTile.get().x()), TS * (pacTargetTile.get().y()), TS, TS);
+			}
+		}
 	}
 
 	public static void drawMazeStructure(Graphics2D g, World world) {
-		Color dark = new Color(80, 80, 80);
+		if (world != structureWorld) {
+			collectStructure(world);
+		}
+		g.setColor(INTERSECTION_COLOR);
+		for (int i = 0; i < intersectionTiles.length; i += 2) {
+			g.drawOval(TS * (intersectionTiles[i]), TS * (intersectionTiles[i + 1]), TS, TS);
+		}
+		g.setColor(HOUSE_COLOR);
+		for (int i = 0; i < houseTiles.length; i += 2) {
+			g.fillRect(TS * (houseTiles[i]) + 1, TS * (houseTiles[i + 1]) + 1, TS - 2, TS - 2);
+		}
+	}
+
+	private static void collectStructure(World world) {
+		var intersections = new ArrayList<Integer>();
+		var house = new ArrayList<Integer>();
 		for (int x = 0; x < world.numCols(); ++x) {
 			for (int y = 0; y < world.numRows(); ++y) {
 				Vector2i tile = new Vector2i(x, y);
 				if (world.isIntersection(tile)) {
-					g.setColor(dark);
-					g.drawOval(TS * (x), TS * (y), TS, TS);
+					intersections.add(x);
+					intersections.add(y);
 				}
 				if (world.house().contains(tile)) {
-					g.setColor(new Color(100, 100, 100, 100));
-					g.fillRect(TS * (x) + 1, TS * (y) + 1, TS - 2, TS - 2);
+					house.add(x);
+					house.add(y);
 				}
 			}
 		}
+		intersectionTiles = intersections.stream().mapToInt(Integer::intValue).toArray();
+		houseTiles = house.stream().mapToInt(Integer::intValue).toArray();
+		structureWorld = world;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.rendering.common;
+
+import java.awt.image.BufferedImage;
+
+import de.amr.games.pacman.lib.steering.Direction;
+import de.amr.games.pacman.model.actors.Creature;
+
+/**
+ * Immutable frames and timing of a sprite animation, optionally with one row of frames per direction. Frame tables
+ * are created once by the spritesheets and shared by all animations playing them, the state of a playing animation is
+ * kept by {@link SpriteAnimation}.
+ * 
+ * @author Armin Reichert
+ */
+public final class FrameTable {
+
+	/** Repetitions of an animation that never ends. */
+	public static final int FOREVER = -1;
+
+	/**
+	 * Direction selecting the row of a directional frame table.
+	 */
+	public enum Facing {
+		NONE, MOVE_DIR, WISH_DIR
+	}
+
+	/**
+	 * @param frames frames, selected by index and not animated
+	 * @return frame table with a single row of frames
+	 */
+	public static FrameTable of(BufferedImage... frames) {
+		return of(1, 1, frames);
+	}
+
+	/**
+	 * @param frameDuration ticks each frame is shown
+	 * @param repetitions   number of repetitions or {@link #FOREVER}
+	 * @param frames        frames
+	 * @return frame table with a single row of frames
+	 */
+	public static FrameTable of(int frameDuration, int repetitions, BufferedImage... frames) {
+		return new FrameTable(Facing.NONE, frameDuration, repetitions, new BufferedImage[][] { frames.clone() });
+	}
+
+	/**
+	 * @param facing        direction of the animated creature selecting the row
+	 * @param frameDuration ticks each frame is shown
+	 * @param repetitions   number of repetitions or {@link #FOREVER}
+	 * @param frames        rows of frames indexed by {@link Direction#ordinal()}, all of the same length
+	 * @return directional frame table
+	 */
+	public static FrameTable byDirection(Facing facing, int frameDuration, int repetitions, BufferedImage[][] frames) {
+		if (facing == Facing.NONE || frames.length != Direction.values().length) {
+			throw new IllegalArgumentException("Directional frame table needs a facing and one row per direction");
+		}
+		var rows = new BufferedImage[frames.length][];
+		for (int i = 0; i < frames.length; ++i) {
+			if (frames[i].length != frames[0].length) {
+				throw new IllegalArgumentException("All rows must have the same number of frames");
+			}
+			rows[i] = frames[i].clone();
+		}
+		return new FrameTable(facing, frameDuration, repetitions, rows);
+	}
+
+	private final Facing facing;
+	private final int frameDuration;
+	private final int repetitions;
+	private final BufferedImage[][] frames;
+
+	private FrameTable(Facing facing, int frameDuration, int repetitions, BufferedImage[][] frames) {
+		if (frames[0].length == 0) {
+			throw new IllegalArgumentException("Frame table must have at least one frame");
+		}
+		this.facing = facing;
+		this.frameDuration = frameDuration;
+		this.repetitions = repetitions;
+		this.frames = frames;
+	}
+
+	public Facing facing() {
+		return facing;
+	}
+
+	public int frameDuration() {
+		return frameDuration;
+	}
+
+	public int repetitions() {
+		return repetitions;
+	}
+
+	public int numFrames() {
+		return frames[0].length;
+	}
+
+	/**
+	 * @param creature creature whose direction selects the row, may be {@code null} for a table without facing
+	 * @param index    frame index
+	 * @return frame shown for the creature
+	 */
+	public BufferedImage frame(Creature creature, int index) {
+		return switch (facing) {
+		case NONE -> frames[0][index];
+		case MOVE_DIR -> frames[creature.moveDir().ordinal()][index];
+		case WISH_DIR -> frames[creature.wishDir().ordinal()][index];
+		};
+	}
+}
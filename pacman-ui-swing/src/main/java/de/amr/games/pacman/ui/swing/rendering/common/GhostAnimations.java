@@ -32,13 +32,43 @@ import de.amr.games.pacman.model.actors.Ghost;
  */
 public class GhostAnimations extends AnimationMap {
 
-	public GhostAnimations(Ghost ghost, Rendering2D gss) {
+	private final byte ghostID;
+	private final SpriteAnimation eyes;
+	private final SpriteAnimation flashing;
+	private final SpriteAnimation blue;
+	private final SpriteAnimation color;
+	private final SpriteAnimation value;
+
+	public GhostAnimations(Ghost ghost, Rendering2D gss, AnimationScheduler scheduler) {
 		super(GameModel.ANIMATION_MAP_CAPACITY);
-		put(GameModel.AK_GHOST_EYES, gss.createGhostEyesAnimationMap(ghost));
-		put(GameModel.AK_GHOST_FLASHING, gss.createGhostFlashingAnimation());
-		put(GameModel.AK_GHOST_BLUE, gss.createGhostBlueAnimation());
-		put(GameModel.AK_GHOST_COLOR, gss.createGhostColorAnimationMap(ghost));
-		put(GameModel.AK_GHOST_VALUE, gss.createGhostValueList());
+		ghostID = ghost.id();
+		eyes = new SpriteAnimation(scheduler, gss.ghostEyesFrames(), ghost);
+		flashing = new SpriteAnimation(scheduler, gss.ghostFlashingFrames());
+		blue = new SpriteAnimation(scheduler, gss.ghostBlueFrames());
+		color = new SpriteAnimation(scheduler, gss.ghostColorFrames(ghostID), ghost);
+		value = new SpriteAnimation(scheduler, gss.ghostValueFrames());
+		put(GameModel.AK_GHOST_EYES, eyes);
+		put(GameModel.AK_GHOST_FLASHING, flashing);
+		put(GameModel.AK_GHOST_BLUE, blue);
+		put(GameModel.AK_GHOST_COLOR, color);
+		put(GameModel.AK_GHOST_VALUE, value);
+		select(GameModel.AK_GHOST_COLOR);
+	}
+
+	/**
+	 * Reuses these animations for another ghost with the same ID, e.g. in the next level. The animations are reset.
+	 */
+	public void bind(Ghost ghost) {
+		if (ghost.id() != ghostID) {
+			throw new IllegalArgumentException("Ghost ID must be %d but is %d".formatted(ghostID, ghost.id()));
+		}
+		eyes.bind(ghost);
+		color.bind(ghost);
+		eyes.reset();
+		flashing.reset();
+		blue.reset();
+		color.reset();
+		value.reset();
 		select(GameModel.AK_GHOST_COLOR);
 	}
 }
\ No newline at end of file
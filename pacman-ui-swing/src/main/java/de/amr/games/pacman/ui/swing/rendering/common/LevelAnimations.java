@@ -0,0 +1,98 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.rendering.common;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import de.amr.games.pacman.model.GameLevel;
+import de.amr.games.pacman.model.GameModel;
+import de.amr.games.pacman.model.GameVariant;
+import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
+import de.amr.games.pacman.ui.swing.rendering.pacman.SpritesheetPacMan;
+
+/**
+ * Sets the animations of the world and the actors of a game level. The animations are created once per game variant
+ * and reused in every level, so starting a level does not allocate. Each user (window, offscreen renderer) has its own
+ * instance, the animations belong to the scheduler of that user.
+ * 
+ * @author Armin Reichert
+ */
+public class LevelAnimations {
+
+	private static class Animations {
+
+		private final WorldAnimations world;
+		private final PacAnimations pac;
+		private final GhostAnimations[] ghosts = new GhostAnimations[4];
+
+		Animations(GameLevel level, Rendering2D gss, AnimationScheduler scheduler) {
+			world = new WorldAnimations(gss, gss.mazeNumber(level.number()), scheduler);
+			pac = new PacAnimations(level.pac(), gss, scheduler);
+			for (byte id = 0; id < 4; ++id) {
+				ghosts[id] = new GhostAnimations(level.ghost(id), gss, scheduler);
+			}
+		}
+	}
+
+	private final Map<GameVariant, Animations> byVariant = new EnumMap<>(GameVariant.class);
+	private final AnimationScheduler scheduler;
+
+	/**
+	 * @param scheduler scheduler advancing the created animations
+	 */
+	public LevelAnimations(AnimationScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Sets the animations of the current level of the given game, if any. Called from the game loop thread.
+	 */
+	public void install(GameModel game) {
+		var optLevel = game.level();
+		if (optLevel.isEmpty()) {
+			return;
+		}
+		var gss = switch (game.variant()) {
+		case MS_PACMAN -> SpritesheetMsPacMan.get();
+		case PACMAN -> SpritesheetPacMan.get();
+		};
+		var level = optLevel.get();
+		var animations = byVariant.get(game.variant());
+		if (animations == null) {
+			animations = new Animations(level, gss, scheduler);
+			byVariant.put(game.variant(), animations);
+		}
+		animations.world.setMazeNumber(gss.mazeNumber(level.number()));
+		animations.pac.bind(level.pac());
+		for (byte id = 0; id < 4; ++id) {
+			animations.ghosts[id].bind(level.ghost(id));
+		}
+		level.world().setAnimations(animations.world);
+		level.pac().setAnimations(animations.pac);
+		for (byte id = 0; id < 4; ++id) {
+			level.ghost(id).setAnimations(animations.ghosts[id]);
+		}
+	}
+}
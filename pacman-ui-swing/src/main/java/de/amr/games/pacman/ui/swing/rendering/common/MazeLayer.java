@@ -0,0 +1,151 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.rendering.common;
+
+import static de.amr.games.pacman.lib.Globals.TS;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+
+import de.amr.games.pacman.lib.math.Vector2i;
+import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.lib.AcceleratedImages;
+import de.amr.games.pacman.ui.swing.lib.DamageTracker;
+
+/**
+ * Maze image of the current level with the eaten food already erased. Food is erased once when it gets eaten, so
+ * drawing the maze is a single image blit independent of the level progress. Energizer blinking only touches the
+ * energizer tiles.
+ * <p>
+ * As the blit draws the same image in each frame, only the changes of the layer (erased food, dark energizers, a
+ * rebuilt maze) are reported to the damage tracker of the graphics context.
+ * 
+ * @author Armin Reichert
+ */
+public class MazeLayer {
+
+	/** Tile row where the maze image starts. */
+	public static final int TOP_ROW = 3;
+
+	private static final int ROWS = World.TILES_Y - TOP_ROW - 2;
+
+	private final BufferedImage image = AcceleratedImages.create(World.TILES_X * TS, ROWS * TS, Transparency.OPAQUE);
+	private final Graphics2D ig = image.createGraphics();
+	private final BitSet eaten = new BitSet(World.TILES_X * World.TILES_Y);
+	private final BitSet erasedSinceDraw = new BitSet(World.TILES_X * World.TILES_Y);
+	private boolean redrawnSinceDraw;
+	private int[] energizerX = new int[0];
+	private int[] energizerY = new int[0];
+	private Rendering2D gss;
+	private World world;
+	private int mazeNumber;
+
+	/**
+	 * Builds the layer for the given world. Food which has already been eaten is erased.
+	 */
+	public void init(Rendering2D gss, World world, int mazeNumber) {
+		this.gss = gss;
+		this.world = world;
+		this.mazeNumber = mazeNumber;
+		var energizers = world.tiles().filter(world::isEnergizerTile).toArray(Vector2i[]::new);
+		energizerX = new int[energizers.length];
+		energizerY = new int[energizers.length];
+		for (int i = 0; i < energizers.length; ++i) {
+			energizerX[i] = energizers[i].x();
+			energizerY[i] = energizers[i].y();
+		}
+		resync();
+	}
+
+	/**
+	 * @return if the layer has been built for the given world and maze
+	 */
+	public boolean isBuiltFor(World world, int mazeNumber) {
+		return this.world == world && this.mazeNumber == mazeNumber;
+	}
+
+	/**
+	 * Forces the layer to be rebuilt before it is drawn the next time.
+	 */
+	public void invalidate() {
+		world = null;
+	}
+
+	/**
+	 * Redraws the maze and erases all eaten food of the world. Used when food may have changed without notification.
+	 */
+	public void resync() {
+		if (world == null) {
+			return;
+		}
+		eaten.clear();
+		redrawnSinceDraw = true;
+		gss.drawFullMaze(ig, mazeNumber, 0, 0);
+		world.tiles().filter(world::containsEatenFood).forEach(this::eatFood);
+	}
+
+	/**
+	 * Erases the food on the given tile.
+	 */
+	public void eatFood(Vector2i tile) {
+		eatFood(tile.x(), tile.y());
+	}
+
+	private void eatFood(int x, int y) {
+		int index = y * World.TILES_X + x;
+		if (!eaten.get(index)) {
+			eaten.set(index);
+			erasedSinceDraw.set(index);
+			ig.setColor(Color.BLACK);
+			ig.fillRect(x * TS, (y - TOP_ROW) * TS, TS, TS);
+		}
+	}
+
+	/**
+	 * Draws the layer at its position below the score area.
+	 * 
+	 * @param energizersDark if the (uneaten) energizers are drawn dark
+	 */
+	public void draw(Graphics2D g, boolean energizersDark) {
+		g.drawImage(image, 0, TOP_ROW * TS, null);
+		if (redrawnSinceDraw) {
+			DamageTracker.add(g, 0, TOP_ROW * TS, image.getWidth(), image.getHeight());
+			redrawnSinceDraw = false;
+		}
+		for (int i = erasedSinceDraw.nextSetBit(0); i >= 0; i = erasedSinceDraw.nextSetBit(i + 1)) {
+			DamageTracker.add(g, (i % World.TILES_X) * TS, (i / World.TILES_X) * TS, TS, TS);
+		}
+		erasedSinceDraw.clear();
+		if (energizersDark) {
+			g.setColor(Color.BLACK);
+			for (int i = 0; i < energizerX.length; ++i) {
+				g.fillRect(energizerX[i] * TS, energizerY[i] * TS, TS, TS);
+				DamageTracker.add(g, energizerX[i] * TS, energizerY[i] * TS, TS, TS);
+			}
+		}
+	}
+}
@@ -24,7 +24,6 @@ SOFTWARE.
 
 package de.amr.games.pacman.ui.swing.rendering.common;
 
-import de.amr.games.pacman.lib.anim.Animated;
 import de.amr.games.pacman.lib.anim.AnimationMap;
 import de.amr.games.pacman.model.GameModel;
 import de.amr.games.pacman.model.actors.Pac;
@@ -34,15 +33,30 @@ import de.amr.games.pacman.model.actors.Pac;
  */
 public class PacAnimations extends AnimationMap {
 
-	public PacAnimations(Pac pac, Rendering2D gss) {
+	private final SpriteAnimation dying;
+	private final SpriteAnimation munching;
+
+	public PacAnimations(Pac pac, Rendering2D gss, AnimationScheduler scheduler) {
 		super(GameModel.ANIMATION_MAP_CAPACITY);
-		put(GameModel.AK_PAC_DYING, gss.createPacDyingAnimation());
-		put(GameModel.AK_PAC_MUNCHING, gss.createPacMunchingAnimationMap(pac));
+		dying = new SpriteAnimation(scheduler, gss.pacDyingFrames());
+		munching = new SpriteAnimation(scheduler, gss.pacMunchingFrames(), pac);
+		put(GameModel.AK_PAC_DYING, dying);
+		put(GameModel.AK_PAC_MUNCHING, munching);
+		select(GameModel.AK_PAC_MUNCHING);
+	}
+
+	/**
+	 * Reuses these animations for another Pac-Man, e.g. in the next level. The animations are reset.
+	 */
+	public void bind(Pac pac) {
+		munching.bind(pac);
+		dying.reset();
+		munching.reset();
 		select(GameModel.AK_PAC_MUNCHING);
 	}
 
 	@Override
 	public void ensureRunning() {
-		animation(GameModel.AK_PAC_MUNCHING).ifPresent(Animated::ensureRunning);
+		munching.ensureRunning();
 	}
 }
\ No newline at end of file
@@ -35,9 +35,6 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import de.amr.games.pacman.controller.GameState;
-import de.amr.games.pacman.lib.anim.AnimationByDirection;
-import de.amr.games.pacman.lib.anim.FrameSequence;
-import de.amr.games.pacman.lib.anim.SimpleAnimation;
 import de.amr.games.pacman.lib.math.Vector2i;
 import de.amr.games.pacman.lib.steering.Direction;
 import de.amr.games.pacman.model.GameModel;
@@ -48,6 +45,8 @@ import de.amr.games.pacman.model.actors.MovingBonus;
 import de.amr.games.pacman.model.actors.Pac;
 import de.amr.games.pacman.model.actors.StaticBonus;
 import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.lib.DamageTracker;
+import de.amr.games.pacman.ui.swing.lib.GlyphAtlas;
 
 /**
  * Spritesheet-based rendering for Pac-Man and Ms. Pac-Man game.
@@ -60,8 +59,24 @@ public interface Rendering2D {
 		CLOSED, OPEN, WIDE_OPEN
 	}
 
+	Color TEXT_COLOR = new Color(222, 222, 255);
+
+	String ARCADE_FONT_PATH = "/common/emulogic.ttf";
+
+	int ARCADE_FONT_SIZE = 8;
+
+	Font LIVES_OVERFLOW_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 6);
+
 	Font getArcadeFont();
 
+	/**
+	 * @param color text color
+	 * @return glyph atlas of the arcade font in the given color
+	 */
+	default GlyphAtlas arcadeText(Color color) {
+		return GlyphAtlas.get(getArcadeFont(), color);
+	}
+
 	Color getGhostColor(int ghostID);
 
 	// Sprites
@@ -76,23 +91,23 @@ public interface Rendering2D {
 
 	BufferedImage getBonusValueSprite(int symbol);
 
-	// Animations
+	// Animation frames, created once and shared by all animations playing them
 
-	SimpleAnimation<BufferedImage> createMazeFlashingAnimation(int mazeNumber);
+	FrameTable mazeFlashingFrames(int mazeNumber);
 
-	AnimationByDirection createPacMunchingAnimationMap(Pac pac);
+	FrameTable pacMunchingFrames();
 
-	SimpleAnimation<BufferedImage> createPacDyingAnimation();
+	FrameTable pacDyingFrames();
 
-	AnimationByDirection createGhostColorAnimationMap(Ghost ghost);
+	FrameTable ghostColorFrames(int ghostID);
 
-	SimpleAnimation<BufferedImage> createGhostBlueAnimation();
+	FrameTable ghostBlueFrames();
 
-	SimpleAnimation<BufferedImage> createGhostFlashingAnimation();
+	FrameTable ghostFlashingFrames();
 
-	AnimationByDirection createGhostEyesAnimationMap(Ghost ghost);
+	FrameTable ghostEyesFrames();
 
-	FrameSequence<BufferedImage> createGhostValueList();
+	FrameTable ghostValueFrames();
 
 	// Maze
 
@@ -102,17 +117,22 @@ public interface Rendering2D {
 
 	void drawFullMaze(Graphics2D g, int mazeNumber, int x, int y);
 
-	// Drawing
+	// Drawing, the drawn regions are reported to the damage tracker of the graphics context (if any)
 
 	default void drawText(Graphics2D g, String text, Color color, Font font, int x, int y) {
 		g.setColor(color);
 		g.setFont(font);
 		g.drawString(text, x, y);
+		if (DamageTracker.isTracking(g)) {
+			var fm = g.getFontMetrics(font);
+			DamageTracker.add(g, x, y - fm.getAscent(), fm.stringWidth(text), fm.getAscent() + fm.getDescent());
+		}
 	}
 
 	default void drawSprite(Graphics2D g, BufferedImage sprite, int x, int y) {
 		if (sprite != null) {
 			g.drawImage(sprite, x, y, null);
+			DamageTracker.add(g, x, y, sprite.getWidth(), sprite.getHeight());
 		}
 	}
 
@@ -120,7 +140,7 @@ public interface Rendering2D {
 		if (sprite != null) {
 			int dx = HTS - sprite.getWidth() / 2;
 			int dy = HTS - sprite.getHeight() / 2;
-			g.drawImage(sprite, (int) (x + dx), (int) (y + dy), null);
+			drawSprite(g, sprite, (int) (x + dx), (int) (y + dy));
 		}
 	}
 
@@ -130,12 +150,27 @@ public interface Rendering2D {
 		}
 	}
 
+	/**
+	 * Draws a moving actor. If actor capturing is active, the sprite is captured instead of being drawn.
+	 */
+	default void drawActor(Graphics2D g, Entity actor, BufferedImage sprite) {
+		if (!ActorCapture.capture(g, actor, sprite)) {
+			drawEntity(g, actor, sprite);
+		}
+	}
+
 	default void drawPac(Graphics2D g, Pac pac) {
-		pac.animation().ifPresent(animation -> drawEntity(g, pac, (BufferedImage) animation.frame()));
+		var animation = pac.animation();
+		if (animation.isPresent()) {
+			drawActor(g, pac, (BufferedImage) animation.get().frame());
+		}
 	}
 
 	default void drawGhost(Graphics2D g, Ghost ghost) {
-		ghost.animation().ifPresent(animation -> drawEntity(g, ghost, (BufferedImage) animation.frame()));
+		var animation = ghost.animation();
+		if (animation.isPresent()) {
+			drawActor(g, ghost, (BufferedImage) animation.get().frame());
+		}
 	}
 
 	default void drawBonus(Graphics2D g, Bonus bonus) {
@@ -150,42 +185,46 @@ public interface Rendering2D {
 		} else if (bonus instanceof MovingBonus movingBonus) {
 			float dy = movingBonus.dy();
 			g.translate(0, dy);
-			drawEntity(g, bonus.entity(), sprite);
+			drawActor(g, bonus.entity(), sprite);
 			g.translate(0, -dy);
 		}
 	}
 
 	default void drawDarkTiles(Graphics2D g, Stream<Vector2i> tiles, Predicate<Vector2i> fnDark) {
 		g.setColor(Color.BLACK);
-		tiles.filter(fnDark).forEach(tile -> g.fillRect(tile.x() * TS, tile.y() * TS, TS, TS));
+		tiles.filter(fnDark).forEach(tile -> {
+			g.fillRect(tile.x() * TS, tile.y() * TS, TS, TS);
+			DamageTracker.add(g, tile.x() * TS, tile.y() * TS, TS, TS);
+		});
 	}
 
 	default void drawCredit(Graphics2D g, int credit) {
-		g.setFont(getArcadeFont());
-		g.setColor(new Color(222, 222, 255));
-		g.drawString("CREDIT  %d".formatted(credit), TS * (2), TS * (World.TILES_Y) - 2);
+		var text = arcadeText(TEXT_COLOR);
+		int x = text.drawCachedString(g, "CREDIT  ", TS * (2), TS * (World.TILES_Y) - 2);
+		text.drawInt(g, credit, 0, x, TS * (World.TILES_Y) - 2);
 	}
 
 	void drawCopyright(Graphics2D g, int x, int y);
 
 	default void drawScores(Graphics2D g, GameModel game, boolean showHiscoreOnly) {
-		g.setFont(getArcadeFont());
+		var text = arcadeText(TEXT_COLOR);
 		g.translate(0, 2);
-		g.setColor(new Color(222, 222, 255));
-		g.drawString("SCORE", TS * (1), TS * (1));
-		g.drawString("HIGH SCORE", TS * (15), TS * (1));
+		text.drawCachedString(g, "SCORE", TS * (1), TS * (1));
+		text.drawCachedString(g, "HIGH SCORE", TS * (15), TS * (1));
 		g.translate(0, 1);
 		if (showHiscoreOnly) {
-			g.drawString("00", TS * (6), TS * (2));
+			text.drawCachedString(g, "00", TS * (6), TS * (2));
 		} else {
-			g.drawString(String.format("%7d", game.score().points()), TS * (1), TS * (2));
-			g.drawString(String.format("L%d", game.score().levelNumber()), TS * (9), TS * (2));
+			text.drawInt(g, game.score().points(), 7, TS * (1), TS * (2));
+			int x = text.drawChar(g, 'L', TS * (9), TS * (2));
+			text.drawInt(g, game.score().levelNumber(), 0, x, TS * (2));
 		}
 		if (game.highScore().points() > 0) {
-			g.drawString(String.format("%7d", game.highScore().points()), TS * (15), TS * (2));
-			g.drawString(String.format("L%d", game.highScore().levelNumber()), TS * (23), TS * (2));
+			text.drawInt(g, game.highScore().points(), 7, TS * (15), TS * (2));
+			int x = text.drawChar(g, 'L', TS * (23), TS * (2));
+			text.drawInt(g, game.highScore().levelNumber(), 0, x, TS * (2));
 		} else {
-			g.drawString("00", TS * (20), TS * (2));
+			text.drawCachedString(g, "00", TS * (20), TS * (2));
 		}
 		g.translate(0, -3);
 	}
@@ -199,12 +238,12 @@ public interface Rendering2D {
 		int y = TS * (34);
 		int maxLivesDisplayed = 5;
 		for (int i = 0; i < Math.min(numLivesDisplayed, maxLivesDisplayed); ++i) {
-			g.drawImage(getLifeSprite(), x + TS * (2 * i), y, null);
+			drawSprite(g, getLifeSprite(), x + TS * (2 * i), y);
 		}
 		if (numLivesDisplayed > maxLivesDisplayed) {
-			g.setColor(Color.YELLOW);
-			g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 6));
-			g.drawString("+" + (numLivesDisplayed - maxLivesDisplayed), x + TS * (10), y + TS * (1) - 2);
+			var text = GlyphAtlas.get(LIVES_OVERFLOW_FONT, Color.YELLOW);
+			int nx = text.drawChar(g, '+', x + TS * (10), y + TS * (1) - 2);
+			text.drawInt(g, numLivesDisplayed - maxLivesDisplayed, 0, nx, y + TS * (1) - 2);
 		}
 	}
 
@@ -218,14 +257,11 @@ public interface Rendering2D {
 
 	default void drawGameState(Graphics2D g, GameModel game, GameState gameState) {
 		if (gameState == GameState.READY) {
-			g.setFont(getArcadeFont());
-			g.setColor(Color.YELLOW);
-			g.drawString("READY!", TS * (11), TS * (21));
+			arcadeText(Color.YELLOW).drawCachedString(g, "READY!", TS * (11), TS * (21));
 		} else if (gameState == GameState.GAME_OVER) {
-			g.setFont(getArcadeFont());
-			g.setColor(Color.RED);
-			g.drawString("GAME", TS * (9), TS * (21));
-			g.drawString("OVER", TS * (15), TS * (21));
+			var text = arcadeText(Color.RED);
+			text.drawCachedString(g, "GAME", TS * (9), TS * (21));
+			text.drawCachedString(g, "OVER", TS * (15), TS * (21));
 		}
 	}
 }
\ No newline at end of file
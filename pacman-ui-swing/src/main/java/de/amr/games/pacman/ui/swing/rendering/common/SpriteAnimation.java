@@ -0,0 +1,162 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.rendering.common;
+
+import java.awt.image.BufferedImage;
+
+import de.amr.games.pacman.lib.anim.Animated;
+import de.amr.games.pacman.model.actors.Creature;
+
+/**
+ * Plays a shared {@link FrameTable}. The animation state lives in a slot of an {@link AnimationScheduler}. Calling
+ * {@link #animate()} returns the current frame and records a tick which the scheduler applies in its next
+ * {@link AnimationScheduler#advance()}. An animation can be reused for another creature by {@link #bind(Creature)}.
+ * 
+ * @author Armin Reichert
+ */
+public class SpriteAnimation implements Animated {
+
+	private final AnimationScheduler scheduler;
+	private final int slot;
+	private FrameTable table;
+	private Creature creature;
+
+	/**
+	 * @param scheduler scheduler advancing this animation
+	 * @param table     frames played by this animation
+	 */
+	public SpriteAnimation(AnimationScheduler scheduler, FrameTable table) {
+		this(scheduler, table, null);
+	}
+
+	/**
+	 * @param scheduler scheduler advancing this animation
+	 * @param table     frames played by this animation
+	 * @param creature  creature whose direction selects the frames of a directional table
+	 */
+	public SpriteAnimation(AnimationScheduler scheduler, FrameTable table, Creature creature) {
+		this.scheduler = scheduler;
+		this.table = table;
+		slot = scheduler.allocate(this, table);
+		bind(creature);
+	}
+
+	/**
+	 * Changes the played frames, the animation is reset.
+	 * 
+	 * @param table frames played by this animation
+	 */
+	public void setTable(FrameTable table) {
+		this.table = table;
+		scheduler.setTable(slot, table);
+	}
+
+	public FrameTable table() {
+		return table;
+	}
+
+	/**
+	 * @param creature creature whose direction selects the frames of a directional table
+	 */
+	public void bind(Creature creature) {
+		if (creature == null && table.facing() != FrameTable.Facing.NONE) {
+			throw new IllegalArgumentException("Directional animation needs a creature");
+		}
+		this.creature = creature;
+	}
+
+	@Override
+	public BufferedImage frame() {
+		return table.frame(creature, scheduler.frameIndex(slot));
+	}
+
+	/**
+	 * @return the current frame, the animation advances by one tick in the next {@link AnimationScheduler#advance()}
+	 */
+	@Override
+	public BufferedImage animate() {
+		scheduler.tick(slot);
+		return frame();
+	}
+
+	@Override
+	public void setFrameIndex(int i) {
+		scheduler.setFrameIndex(slot, i);
+	}
+
+	@Override
+	public int frameIndex() {
+		return scheduler.frameIndex(slot);
+	}
+
+	@Override
+	public int numFrames() {
+		return table.numFrames();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return scheduler.isRunning(slot);
+	}
+
+	@Override
+	public void stop() {
+		scheduler.setRunning(slot, false);
+	}
+
+	@Override
+	public void start() {
+		scheduler.setRunning(slot, true);
+	}
+
+	@Override
+	public void restart() {
+		reset();
+		start();
+	}
+
+	@Override
+	public void reset() {
+		scheduler.reset(slot);
+	}
+
+	@Override
+	public void ensureRunning() {
+		start();
+	}
+
+	@Override
+	public void setFrameDuration(long ticks) {
+		scheduler.setFrameDuration(slot, (int) ticks);
+	}
+
+	@Override
+	public void setRepetitions(int n) {
+		scheduler.setRepetitions(slot, n);
+	}
+
+	public void repeatForever() {
+		setRepetitions(FrameTable.FOREVER);
+	}
+}
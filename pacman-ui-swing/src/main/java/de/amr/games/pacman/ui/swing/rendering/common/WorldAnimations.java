@@ -34,9 +34,24 @@ import de.amr.games.pacman.model.GameModel;
  */
 public class WorldAnimations extends AnimationMap {
 
-	public WorldAnimations(Rendering2D gss, int mazeNumber) {
+	private final Rendering2D gss;
+	private final Pulse energizerBlinking;
+	private final SpriteAnimation mazeFlashing;
+
+	public WorldAnimations(Rendering2D gss, int mazeNumber, AnimationScheduler scheduler) {
 		super(GameModel.ANIMATION_MAP_CAPACITY);
-		put(GameModel.AK_MAZE_ENERGIZER_BLINKING, new Pulse(10, true));
-		put(GameModel.AK_MAZE_FLASHING, gss.createMazeFlashingAnimation(mazeNumber));
+		this.gss = gss;
+		energizerBlinking = new Pulse(10, true);
+		mazeFlashing = new SpriteAnimation(scheduler, gss.mazeFlashingFrames(mazeNumber));
+		put(GameModel.AK_MAZE_ENERGIZER_BLINKING, energizerBlinking);
+		put(GameModel.AK_MAZE_FLASHING, mazeFlashing);
+	}
+
+	/**
+	 * Reuses these animations for another maze, e.g. in the next level. The animations are reset.
+	 */
+	public void setMazeNumber(int mazeNumber) {
+		energizerBlinking.reset();
+		mazeFlashing.setTable(gss.mazeFlashingFrames(mazeNumber));
 	}
 }
\ No newline at end of file
@@ -24,25 +24,27 @@ SOFTWARE.
 package de.amr.games.pacman.ui.swing.rendering.mspacman;
 
 import static de.amr.games.pacman.lib.Globals.TS;
-import static de.amr.games.pacman.ui.swing.lib.Ujfc.font;
-import static de.amr.games.pacman.ui.swing.lib.Ujfc.image;
 
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import de.amr.games.pacman.lib.anim.Animated;
-import de.amr.games.pacman.lib.anim.AnimationByDirection;
-import de.amr.games.pacman.lib.anim.FrameSequence;
-import de.amr.games.pacman.lib.anim.SimpleAnimation;
 import de.amr.games.pacman.lib.steering.Direction;
 import de.amr.games.pacman.model.actors.Clapperboard;
-import de.amr.games.pacman.model.actors.Ghost;
 import de.amr.games.pacman.model.actors.Pac;
+import de.amr.games.pacman.ui.swing.lib.AcceleratedImages;
+import de.amr.games.pacman.ui.swing.lib.AssetLoader;
+import de.amr.games.pacman.ui.swing.lib.GlyphAtlas;
+import de.amr.games.pacman.ui.swing.lib.IndexedImage;
 import de.amr.games.pacman.ui.swing.lib.Spritesheet;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
+import de.amr.games.pacman.ui.swing.rendering.common.FrameTable;
+import de.amr.games.pacman.ui.swing.rendering.common.FrameTable.Facing;
 import de.amr.games.pacman.ui.swing.rendering.common.Rendering2D;
+import de.amr.games.pacman.ui.swing.rendering.common.SpriteAnimation;
 
 /**
  * Rendering for the Ms. Pac-Man game.
@@ -52,12 +54,17 @@ import de.amr.games.pacman.ui.swing.rendering.common.Rendering2D;
 public class SpritesheetMsPacMan implements Rendering2D {
 
 	/** Sprite sheet order of directions. */
-	static final List<Direction> order = List.of(Direction.RIGHT, Direction.LEFT, Direction.UP, Direction.DOWN);
-
 	static int dirIndex(Direction dir) {
-		return order.indexOf(dir);
+		return switch (dir) {
+		case RIGHT -> 0;
+		case LEFT -> 1;
+		case UP -> 2;
+		case DOWN -> 3;
+		};
 	}
 
+	private static final int NUM_BONUS_SYMBOLS = 7;
+
 	//@formatter:off
 	static final Color[] GHOST_COLORS = {
 		Color.RED,
@@ -94,29 +101,171 @@ public class SpritesheetMsPacMan implements Rendering2D {
 	};
 	//@formatter:on
 
-	private static final SpritesheetMsPacMan theThing = new SpritesheetMsPacMan("/mspacman/graphics/sprites.png", 16);
+	private static final Font COPYRIGHT_SYMBOL_FONT = new Font("Dialog", Font.PLAIN, 11);
+
+	private static final String SPRITESHEET_PATH = "/mspacman/graphics/sprites.png";
+	private static final String MIDWAY_LOGO_PATH = "/mspacman/graphics/midway.png";
+
+	// created on first access, not when the class is initialized by calling preload()
+	private static class Holder {
+		static final SpritesheetMsPacMan theThing = new SpritesheetMsPacMan(SPRITESHEET_PATH, 16);
+	}
 
 	public static SpritesheetMsPacMan get() {
-		return theThing;
+		return Holder.theThing;
+	}
+
+	/**
+	 * Requests the resources used by this spritesheet and the spritesheet itself.
+	 * 
+	 * @param assets asset loader
+	 * @return future of the spritesheet
+	 */
+	public static CompletableFuture<SpritesheetMsPacMan> preload(AssetLoader assets) {
+		assets.loadImage(SPRITESHEET_PATH);
+		assets.loadImage(MIDWAY_LOGO_PATH);
+		assets.loadFont(ARCADE_FONT_PATH, ARCADE_FONT_SIZE);
+		return assets.loadDerived("Ms. Pac-Man spritesheet", SpritesheetMsPacMan::get);
 	}
 
 	private final Spritesheet ss;
 	private final BufferedImage midwayLogo;
 	private final BufferedImage[] mazeFull;
 	private final BufferedImage[] mazeEmpty;
+	private final BufferedImage[] mazeEmptyBright;
 	private final Font font;
 
+	// ghost frames share one indexed raster per frame, ghost colors and flashing are palette variants
+	private final BufferedImage[][] ghostFrames = new BufferedImage[4][8];
+	private final BufferedImage[] ghostBlueFrames = new BufferedImage[2];
+	private final BufferedImage[] ghostFlashingFrames = new BufferedImage[2];
+
+	// sprites used in every frame, sliced once
+	private final BufferedImage[][] ghostSprites = new BufferedImage[4][Direction.values().length];
+	private final BufferedImage[] bonusSymbolSprites = new BufferedImage[NUM_BONUS_SYMBOLS];
+	private final BufferedImage[] bonusValueSprites = new BufferedImage[NUM_BONUS_SYMBOLS];
+	private final BufferedImage lifeSprite;
+	private final BufferedImage blueBagSprite;
+	private final BufferedImage juniorSprite;
+	private final BufferedImage heartSprite;
+
+	// animation frames, shared by all animations
+	private final FrameTable[] mazeFlashingTables;
+	private final FrameTable pacDyingTable;
+	private final FrameTable pacMunchingTable;
+	private final FrameTable husbandMunchingTable;
+	private final FrameTable[] ghostColorTables = new FrameTable[4];
+	private final FrameTable ghostBlueTable;
+	private final FrameTable ghostFlashingTable;
+	private final FrameTable ghostEyesTable;
+	private final FrameTable ghostValueTable;
+	private final FrameTable clapperboardTable;
+	private final FrameTable storkFlyingTable;
+
 	private SpritesheetMsPacMan(String path, int rasterSize) {
-		ss = new Spritesheet(image(path), rasterSize);
-		font = font("/common/emulogic.ttf", 8);
-		midwayLogo = image("/mspacman/graphics/midway.png");
+		var assets = AssetLoader.get();
+		ss = new Spritesheet(assets.image(path), rasterSize);
+		font = assets.font(ARCADE_FONT_PATH, ARCADE_FONT_SIZE);
+		midwayLogo = assets.image(MIDWAY_LOGO_PATH);
 		int numMazes = 6;
 		mazeEmpty = new BufferedImage[numMazes];
+		mazeEmptyBright = new BufferedImage[numMazes];
 		mazeFull = new BufferedImage[numMazes];
+		var indexedFull = new IndexedImage[numMazes];
+		var indexedEmpty = new IndexedImage[numMazes];
 		for (int mazeIndex = 0; mazeIndex < 6; ++mazeIndex) {
-			mazeFull[mazeIndex] = ss.image.getSubimage(0, mazeIndex * 248, 226, 248);
-			mazeEmpty[mazeIndex] = ss.image.getSubimage(228, mazeIndex * 248, 226, 248);
+			indexedFull[mazeIndex] = indexedMaze(ss.region(0, mazeIndex * 248, 226, 248), indexedFull, mazeIndex);
+			indexedEmpty[mazeIndex] = indexedMaze(ss.region(228, mazeIndex * 248, 226, 248), indexedEmpty, mazeIndex);
+			mazeFull[mazeIndex] = indexedFull[mazeIndex].image();
+			mazeEmpty[mazeIndex] = indexedEmpty[mazeIndex].image();
+			mazeEmptyBright[mazeIndex] = indexedEmpty[mazeIndex].recolored( //
+					new Color[] { MAZE_SIDE_COLORS[mazeIndex], MAZE_TOP_COLORS[mazeIndex] }, //
+					new Color[] { Color.WHITE, Color.BLACK }).image();
+		}
+		for (int frame = 0; frame < 8; ++frame) {
+			var red = IndexedImage.of(rhsRegion(frame, 4));
+			for (int ghostID = 0; ghostID < 4; ++ghostID) {
+				ghostFrames[ghostID][frame] = red.variant(rhsRegion(frame, 4 + ghostID)).image();
+			}
+		}
+		for (int frame = 0; frame < 2; ++frame) {
+			var blue = IndexedImage.of(rhsRegion(8 + frame, 4));
+			ghostBlueFrames[frame] = blue.image();
+			ghostFlashingFrames[frame] = blue.variant(rhsRegion(10 + frame, 4)).image();
 		}
+		for (int ghostID = 0; ghostID < 4; ++ghostID) {
+			for (var dir : Direction.values()) {
+				ghostSprites[ghostID][dir.ordinal()] = ghostFrames[ghostID][2 * dirIndex(dir) + 1];
+			}
+		}
+		for (int symbol = 0; symbol < NUM_BONUS_SYMBOLS; ++symbol) {
+			bonusSymbolSprites[symbol] = rhs(3 + symbol, 0);
+			bonusValueSprites[symbol] = rhs(3 + symbol, 1);
+		}
+		lifeSprite = rhs(1, 0);
+		blueBagSprite = ss.si(488, 199, 8, 8);
+		juniorSprite = ss.si(509, 200, 8, 8);
+		heartSprite = rhs(2, 10);
+
+		mazeFlashingTables = new FrameTable[numMazes];
+		for (int mazeIndex = 0; mazeIndex < numMazes; ++mazeIndex) {
+			mazeFlashingTables[mazeIndex] = FrameTable.of(12, 1, mazeEmptyBright[mazeIndex], mazeEmpty[mazeIndex]);
+		}
+		pacDyingTable = FrameTable.of(10, 2, rhs(0, 3), rhs(0, 0), rhs(0, 1), rhs(0, 2));
+		var munching = new BufferedImage[4][];
+		var husbandMunching = new BufferedImage[4][];
+		var colors = new BufferedImage[4][4][];
+		var eyes = new BufferedImage[4][];
+		for (var dir : Direction.values()) {
+			int d = dirIndex(dir);
+			var wide = rhs(0, d);
+			var middle = rhs(1, d);
+			var closed = rhs(2, d);
+			munching[dir.ordinal()] = new BufferedImage[] { middle, closed, middle, wide };
+			husbandMunching[dir.ordinal()] = new BufferedImage[] { rhs(0, 9 + d), rhs(1, 9 + d), rhs(2, 9) };
+			for (int ghostID = 0; ghostID < 4; ++ghostID) {
+				colors[ghostID][dir.ordinal()] = new BufferedImage[] { ghostFrames[ghostID][2 * d],
+						ghostFrames[ghostID][2 * d + 1] };
+			}
+			eyes[dir.ordinal()] = new BufferedImage[] { rhs(8 + d, 5) };
+		}
+		pacMunchingTable = FrameTable.byDirection(Facing.MOVE_DIR, 2, FrameTable.FOREVER, munching);
+		husbandMunchingTable = FrameTable.byDirection(Facing.MOVE_DIR, 2, FrameTable.FOREVER, husbandMunching);
+		for (int ghostID = 0; ghostID < 4; ++ghostID) {
+			ghostColorTables[ghostID] = FrameTable.byDirection(Facing.WISH_DIR, 4, FrameTable.FOREVER, colors[ghostID]);
+		}
+		ghostEyesTable = FrameTable.byDirection(Facing.WISH_DIR, 1, 1, eyes);
+		ghostBlueTable = FrameTable.of(8, FrameTable.FOREVER, ghostBlueFrames[0], ghostBlueFrames[1]);
+		ghostFlashingTable = FrameTable.of(4, 1, ghostBlueFrames[0], ghostBlueFrames[1], ghostFlashingFrames[0],
+				ghostFlashingFrames[1]);
+		ghostValueTable = FrameTable.of(rhs(0, 8), rhs(1, 8), rhs(2, 8), rhs(3, 8));
+		clapperboardTable = FrameTable.of(4, 1, //
+				ss.si(456, 208, 32, 32), //
+				ss.si(488, 208, 32, 32), //
+				ss.si(520, 208, 32, 32), //
+				ss.si(488, 208, 32, 32), //
+				ss.si(456, 208, 32, 32));
+		storkFlyingTable = FrameTable.of(10, FrameTable.FOREVER, ss.si(489, 176, 32, 16), ss.si(521, 176, 32, 16));
+
+		AcceleratedImages.register("Ms. Pac-Man spritesheet", ss.image);
+		AcceleratedImages.register("Ms. Pac-Man maze #1 (full)", mazeFull[0]);
+		AcceleratedImages.register("Ms. Pac-Man maze #1 (empty)", mazeEmpty[0]);
+		AcceleratedImages.register("Ms. Pac-Man ghost sprite", ghostSprites[0][0]);
+		AcceleratedImages.register("Ms. Pac-Man life sprite", lifeSprite);
+		AcceleratedImages.register("Midway logo", midwayLogo);
+	}
+
+	/**
+	 * Mazes with the same layout (maze 6 is maze 4 in different colors) share the raster.
+	 */
+	private static IndexedImage indexedMaze(BufferedImage region, IndexedImage[] mazes, int mazeIndex) {
+		for (int i = 0; i < mazeIndex; ++i) {
+			var recolored = mazes[i].recoloredAs(region);
+			if (recolored != null) {
+				return recolored;
+			}
+		}
+		return IndexedImage.of(region);
 	}
 
 	@Override
@@ -125,12 +274,17 @@ public class SpritesheetMsPacMan implements Rendering2D {
 	}
 
 	/**
-	 * Picks sprite from the right part of the sheet, on the left are the maze images
+	 * Picks sprite from the right part of the sheet, on the left are the maze images. Each call creates a copy, so
+	 * sprites are picked once when the sheet is created.
 	 */
 	public BufferedImage rhs(int tileX, int tileY) {
 		return ss.tilesFrom(456, 0, tileX, tileY, 1, 1);
 	}
 
+	private BufferedImage rhsRegion(int tileX, int tileY) {
+		return ss.tileRegion(456, 0, tileX, tileY);
+	}
+
 	@Override
 	public Font getArcadeFont() {
 		return font;
@@ -138,7 +292,7 @@ public class SpritesheetMsPacMan implements Rendering2D {
 
 	@Override
 	public BufferedImage getGhostSprite(int ghostID, Direction dir) {
-		return rhs(2 * dirIndex(dir) + 1, 4 + ghostID);
+		return ghostSprites[ghostID][dir.ordinal()];
 	}
 
 	@Override
@@ -148,12 +302,12 @@ public class SpritesheetMsPacMan implements Rendering2D {
 
 	@Override
 	public BufferedImage getBonusSymbolSprite(int symbol) {
-		return rhs(3 + symbol, 0);
+		return bonusSymbolSprites[symbol];
 	}
 
 	@Override
 	public BufferedImage getBonusValueSprite(int symbol) {
-		return rhs(3 + symbol, 1);
+		return bonusValueSprites[symbol];
 	}
 
 	@Override
@@ -168,137 +322,71 @@ public class SpritesheetMsPacMan implements Rendering2D {
 	}
 
 	@Override
-	public SimpleAnimation<BufferedImage> createPacDyingAnimation() {
-		var animation = new SimpleAnimation<>(rhs(0, 3), rhs(0, 0), rhs(0, 1), rhs(0, 2));
-		animation.setFrameDuration(10);
-		animation.setRepetitions(2);
-		return animation;
+	public FrameTable pacDyingFrames() {
+		return pacDyingTable;
 	}
 
 	@Override
-	public AnimationByDirection createPacMunchingAnimationMap(Pac pac) {
-		AnimationByDirection map = new AnimationByDirection(pac::moveDir);
-		for (Direction dir : Direction.values()) {
-			int d = dirIndex(dir);
-			var wide = rhs(0, d);
-			var middle = rhs(1, d);
-			var closed = rhs(2, d);
-			var animation = new SimpleAnimation<>(middle, closed, middle, wide);
-			animation.setFrameDuration(2);
-			animation.repeatForever();
-			map.put(dir, animation);
-		}
-		return map;
+	public FrameTable pacMunchingFrames() {
+		return pacMunchingTable;
 	}
 
-	public AnimationByDirection createSpouseMunchingAnimations(Pac pac) {
-		AnimationByDirection map = new AnimationByDirection(pac::moveDir);
-		for (Direction dir : Direction.values()) {
-			int d = dirIndex(dir);
-			var munching = new SimpleAnimation<>(rhs(0, 9 + d), rhs(1, 9 + d), rhs(2, 9));
-			munching.setFrameDuration(2);
-			munching.repeatForever();
-			map.put(dir, munching);
-		}
-		return map;
+	public SpriteAnimation createSpouseMunchingAnimations(Pac pac, AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, husbandMunchingTable, pac);
 	}
 
 	@Override
-	public AnimationByDirection createGhostColorAnimationMap(Ghost ghost) {
-		AnimationByDirection map = new AnimationByDirection(ghost::wishDir);
-		for (Direction dir : Direction.values()) {
-			int d = dirIndex(dir);
-			var color = new SimpleAnimation<>(rhs(2 * d, 4 + ghost.id()), rhs(2 * d + 1, 4 + ghost.id()));
-			color.setFrameDuration(4);
-			color.repeatForever();
-			map.put(dir, color);
-		}
-		return map;
+	public FrameTable ghostColorFrames(int ghostID) {
+		return ghostColorTables[ghostID];
 	}
 
 	@Override
-	public SimpleAnimation<BufferedImage> createGhostBlueAnimation() {
-		var animation = new SimpleAnimation<>(rhs(8, 4), rhs(9, 4));
-		animation.setFrameDuration(8);
-		animation.repeatForever();
-		return animation;
+	public FrameTable ghostBlueFrames() {
+		return ghostBlueTable;
 	}
 
 	@Override
-	public SimpleAnimation<BufferedImage> createGhostFlashingAnimation() {
-		var animation = new SimpleAnimation<>(rhs(8, 4), rhs(9, 4), rhs(10, 4), rhs(11, 4));
-		animation.setFrameDuration(4);
-		return animation;
+	public FrameTable ghostFlashingFrames() {
+		return ghostFlashingTable;
 	}
 
 	@Override
-	public AnimationByDirection createGhostEyesAnimationMap(Ghost ghost) {
-		AnimationByDirection map = new AnimationByDirection(ghost::wishDir);
-		for (Direction dir : Direction.values()) {
-			map.put(dir, new SimpleAnimation<>(rhs(8 + dirIndex(dir), 5)));
-		}
-		return map;
+	public FrameTable ghostEyesFrames() {
+		return ghostEyesTable;
 	}
 
 	@Override
-	public FrameSequence<BufferedImage> createGhostValueList() {
-		return new FrameSequence<>(rhs(0, 8), rhs(1, 8), rhs(2, 8), rhs(3, 8));
+	public FrameTable ghostValueFrames() {
+		return ghostValueTable;
 	}
 
 	@Override
-	public SimpleAnimation<BufferedImage> createMazeFlashingAnimation(int mazeNumber) {
-		int mazeIndex = mazeNumber - 1;
-		var mazeEmptyBright = ss.createBrightEffect(mazeEmpty[mazeIndex], MAZE_SIDE_COLORS[mazeIndex],
-				MAZE_TOP_COLORS[mazeIndex]);
-		var animation = new SimpleAnimation<>(mazeEmptyBright, mazeEmpty[mazeIndex]);
-		animation.setFrameDuration(12);
-		return animation;
+	public FrameTable mazeFlashingFrames(int mazeNumber) {
+		return mazeFlashingTables[mazeNumber - 1];
 	}
 
-	public AnimationByDirection createHusbandMunchingAnimations(Pac pac) {
-		AnimationByDirection map = new AnimationByDirection(pac::moveDir);
-		for (var dir : Direction.values()) {
-			int d = dirIndex(dir);
-			var animation = new SimpleAnimation<>(rhs(0, 9 + d), rhs(1, 9 + d), rhs(2, 9));
-			animation.setFrameDuration(2);
-			animation.repeatForever();
-			map.put(dir, animation);
-		}
-		return map;
+	public SpriteAnimation createHusbandMunchingAnimations(Pac pac, AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, husbandMunchingTable, pac);
 	}
 
-	public SimpleAnimation<BufferedImage> createClapperboardAnimation() {
-		var animation = new SimpleAnimation<>( //
-				ss.si(456, 208, 32, 32), //
-				ss.si(488, 208, 32, 32), //
-				ss.si(520, 208, 32, 32), //
-				ss.si(488, 208, 32, 32), //
-				ss.si(456, 208, 32, 32)//
-		);
-		animation.setFrameDuration(4);
-		return animation;
+	public SpriteAnimation createClapperboardAnimation(AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, clapperboardTable);
 	}
 
-	public SimpleAnimation<BufferedImage> createStorkFlyingAnimation() {
-		var animation = new SimpleAnimation<>( //
-				ss.si(489, 176, 32, 16), //
-				ss.si(521, 176, 32, 16) //
-		);
-		animation.repeatForever();
-		animation.setFrameDuration(10);
-		return animation;
+	public SpriteAnimation createStorkFlyingAnimation(AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, storkFlyingTable);
 	}
 
 	public BufferedImage getBlueBag() {
-		return ss.si(488, 199, 8, 8);
+		return blueBagSprite;
 	}
 
 	public BufferedImage getJunior() {
-		return ss.si(509, 200, 8, 8);
+		return juniorSprite;
 	}
 
 	public BufferedImage getHeart() {
-		return rhs(2, 10);
+		return heartSprite;
 	}
 
 	@Override
@@ -308,7 +396,7 @@ public class SpritesheetMsPacMan implements Rendering2D {
 
 	@Override
 	public BufferedImage getLifeSprite() {
-		return rhs(1, 0);
+		return lifeSprite;
 	}
 
 	@Override
@@ -319,25 +407,23 @@ public class SpritesheetMsPacMan implements Rendering2D {
 	@Override
 	public void drawCopyright(Graphics2D g, int x, int y) {
 		g.drawImage(midwayLogo, x, y + 3, 30, 32, null);
-		g.setColor(Color.RED);
-		g.setFont(new Font("Dialog", Font.PLAIN, 11));
-		g.drawString("\u00a9", x + TS * (5), y + TS * (2) + 2); // (c) symbol
-		g.setFont(getArcadeFont());
-		g.drawString("MIDWAY MFG CO", x + TS * (7), y + TS * (2));
-		g.drawString("1980/1981", x + TS * (8), y + TS * (4));
+		GlyphAtlas.get(COPYRIGHT_SYMBOL_FONT, Color.RED).drawCachedString(g, "\u00a9", x + TS * (5), y + TS * (2) + 2);
+		var text = arcadeText(Color.RED);
+		text.drawCachedString(g, "MIDWAY MFG CO", x + TS * (7), y + TS * (2));
+		text.drawCachedString(g, "1980/1981", x + TS * (8), y + TS * (4));
 	}
 
 	public void drawClapperboard(Graphics2D g, Clapperboard clap) {
 		if (clap.isVisible()) {
-			clap.animation().map(Animated::animate).ifPresent(spriteObj -> {
+			clap.animation().map(Animated::frame).ifPresent(spriteObj -> {
 				var sprite = (BufferedImage) spriteObj;
 				if (clap.isVisible()) {
 					drawSpriteCenteredOverBox(g, sprite, clap.position().x(), clap.position().y());
 				}
-				g.setFont(getArcadeFont());
-				g.setColor(new Color(222, 222, 255));
-				g.drawString(clap.number(), (int) clap.position().x() + sprite.getWidth() - 25, (int) clap.position().y() + 18);
-				g.drawString(clap.text(), (int) clap.position().x() + sprite.getWidth(), (int) clap.position().y());
+				var text = arcadeText(TEXT_COLOR);
+				text.drawCachedString(g, clap.number(), (int) clap.position().x() + sprite.getWidth() - 25,
+						(int) clap.position().y() + 18);
+				text.drawCachedString(g, clap.text(), (int) clap.position().x() + sprite.getWidth(), (int) clap.position().y());
 			});
 		}
 	}
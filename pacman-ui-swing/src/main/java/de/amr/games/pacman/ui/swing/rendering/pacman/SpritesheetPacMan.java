@@ -23,29 +23,23 @@ SOFTWARE.
  */
 package de.amr.games.pacman.ui.swing.rendering.pacman;
 
-import static de.amr.games.pacman.lib.steering.Direction.DOWN;
-import static de.amr.games.pacman.lib.steering.Direction.LEFT;
-import static de.amr.games.pacman.lib.steering.Direction.RIGHT;
-import static de.amr.games.pacman.lib.steering.Direction.UP;
-import static de.amr.games.pacman.ui.swing.lib.Ujfc.font;
-import static de.amr.games.pacman.ui.swing.lib.Ujfc.image;
-
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-import de.amr.games.pacman.lib.anim.AnimationByDirection;
-import de.amr.games.pacman.lib.anim.FrameSequence;
-import de.amr.games.pacman.lib.anim.SimpleAnimation;
 import de.amr.games.pacman.lib.steering.Direction;
 import de.amr.games.pacman.model.GameModel;
-import de.amr.games.pacman.model.actors.Ghost;
-import de.amr.games.pacman.model.actors.Pac;
+import de.amr.games.pacman.ui.swing.lib.AcceleratedImages;
+import de.amr.games.pacman.ui.swing.lib.AssetLoader;
+import de.amr.games.pacman.ui.swing.lib.IndexedImage;
 import de.amr.games.pacman.ui.swing.lib.Spritesheet;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
+import de.amr.games.pacman.ui.swing.rendering.common.FrameTable;
+import de.amr.games.pacman.ui.swing.rendering.common.FrameTable.Facing;
 import de.amr.games.pacman.ui.swing.rendering.common.Rendering2D;
+import de.amr.games.pacman.ui.swing.rendering.common.SpriteAnimation;
 
 /**
  * Sprite-based rendering for the Pac-Man game.
@@ -54,19 +48,47 @@ import de.amr.games.pacman.ui.swing.rendering.common.Rendering2D;
  */
 public class SpritesheetPacMan implements Rendering2D {
 
-	private static final SpritesheetPacMan theThing = new SpritesheetPacMan("/pacman/graphics/sprites.png", 16);
+	private static final Color MAZE_WALL_COLOR = new Color(33, 33, 255);
+
+	private static final String SPRITESHEET_PATH = "/pacman/graphics/sprites.png";
+	private static final String MAZE_FULL_PATH = "/pacman/graphics/maze_full.png";
+	private static final String MAZE_EMPTY_PATH = "/pacman/graphics/maze_empty.png";
+
+	// created on first access, not when the class is initialized by calling preload()
+	private static class Holder {
+		static final SpritesheetPacMan theThing = new SpritesheetPacMan(SPRITESHEET_PATH, 16);
+	}
 
 	public static SpritesheetPacMan get() {
-		return theThing;
+		return Holder.theThing;
 	}
 
-	// TODO
-	static final List<Direction> order = Arrays.asList(RIGHT, LEFT, UP, DOWN);
+	/**
+	 * Requests the resources used by this spritesheet and the spritesheet itself.
+	 * 
+	 * @param assets asset loader
+	 * @return future of the spritesheet
+	 */
+	public static CompletableFuture<SpritesheetPacMan> preload(AssetLoader assets) {
+		assets.loadImage(SPRITESHEET_PATH);
+		assets.loadImage(MAZE_FULL_PATH);
+		assets.loadImage(MAZE_EMPTY_PATH);
+		assets.loadFont(ARCADE_FONT_PATH, ARCADE_FONT_SIZE);
+		return assets.loadDerived("Pac-Man spritesheet", SpritesheetPacMan::get);
+	}
 
+	/** Sprite sheet order of directions. */
 	private static int index(Direction dir) {
-		return order.indexOf(dir);
+		return switch (dir) {
+		case RIGHT -> 0;
+		case LEFT -> 1;
+		case UP -> 2;
+		case DOWN -> 3;
+		};
 	}
 
+	private static final int NUM_BONUS_SYMBOLS = 8;
+
 	//@formatter:off
 	static final Color[] GHOST_COLORS = {
 		Color.RED,
@@ -80,18 +102,112 @@ public class SpritesheetPacMan implements Rendering2D {
 
 	private final Spritesheet ss;
 	private final BufferedImage mazeFull;
-	private final SimpleAnimation<BufferedImage> mazeFlashingAnim;
+	private final FrameTable mazeFlashingTable;
 	private final Font font;
 
+	// ghost frames share one indexed raster per frame, ghost colors and flashing are palette variants
+	private final BufferedImage[][] ghostFrames = new BufferedImage[4][8];
+	private final BufferedImage[] ghostBlueFrames = new BufferedImage[2];
+	private final BufferedImage[] ghostFlashingFrames = new BufferedImage[2];
+
+	// sprites used in every frame, sliced once
+	private final BufferedImage[][] ghostSprites = new BufferedImage[4][Direction.values().length];
+	private final BufferedImage[] bonusSymbolSprites = new BufferedImage[NUM_BONUS_SYMBOLS];
+	private final BufferedImage[] bonusValueSprites = new BufferedImage[NUM_BONUS_SYMBOLS];
+	private final BufferedImage lifeSprite;
+
+	// animation frames, shared by all animations
+	private final FrameTable pacDyingTable;
+	private final FrameTable pacMunchingTable;
+	private final FrameTable[] ghostColorTables = new FrameTable[4];
+	private final FrameTable ghostBlueTable;
+	private final FrameTable ghostFlashingTable;
+	private final FrameTable ghostEyesTable;
+	private final FrameTable ghostValueTable;
+	private final FrameTable bigPacManMunchingTable;
+	private final FrameTable blinkyStretchedTable;
+	private final FrameTable blinkyDamagedTable;
+	private final FrameTable blinkyPatchedTable;
+	private final FrameTable blinkyNakedTable;
+
 	private SpritesheetPacMan(String path, int rasterSize) {
-		ss = new Spritesheet(image(path), rasterSize);
-		font = font("/common/emulogic.ttf", 8);
-
-		mazeFull = image("/pacman/graphics/maze_full.png");
-		var mazeEmptyDark = image("/pacman/graphics/maze_empty.png");
-		var mazeEmptyBright = ss.createBrightEffect(mazeEmptyDark, new Color(33, 33, 255), Color.BLACK);
-		mazeFlashingAnim = new SimpleAnimation<>(mazeEmptyBright, mazeEmptyDark);
-		mazeFlashingAnim.setFrameDuration(12);
+		var assets = AssetLoader.get();
+		ss = new Spritesheet(assets.image(path), rasterSize);
+		font = assets.font(ARCADE_FONT_PATH, ARCADE_FONT_SIZE);
+
+		mazeFull = IndexedImage.of(assets.image(MAZE_FULL_PATH)).image();
+		var mazeEmpty = IndexedImage.of(assets.image(MAZE_EMPTY_PATH));
+		var mazeEmptyDark = mazeEmpty.image();
+		var mazeEmptyBright = mazeEmpty.recolored(new Color[] { MAZE_WALL_COLOR }, new Color[] { Color.WHITE }).image();
+		mazeFlashingTable = FrameTable.of(12, 1, mazeEmptyBright, mazeEmptyDark);
+
+		for (int frame = 0; frame < 8; ++frame) {
+			var red = IndexedImage.of(ss.tileRegion(0, 0, frame, 4));
+			for (int ghostID = 0; ghostID < 4; ++ghostID) {
+				ghostFrames[ghostID][frame] = red.variant(ss.tileRegion(0, 0, frame, 4 + ghostID)).image();
+			}
+		}
+		for (int frame = 0; frame < 2; ++frame) {
+			var blue = IndexedImage.of(ss.tileRegion(0, 0, 8 + frame, 4));
+			ghostBlueFrames[frame] = blue.image();
+			ghostFlashingFrames[frame] = blue.variant(ss.tileRegion(0, 0, 10 + frame, 4)).image();
+		}
+		for (int ghostID = 0; ghostID < 4; ++ghostID) {
+			for (var dir : Direction.values()) {
+				ghostSprites[ghostID][dir.ordinal()] = ghostFrames[ghostID][2 * index(dir)];
+			}
+		}
+		for (int symbol = 0; symbol < NUM_BONUS_SYMBOLS; ++symbol) {
+			bonusSymbolSprites[symbol] = ss.tile(2 + symbol, 3);
+			if (symbol <= 3) {
+				bonusValueSprites[symbol] = ss.tile(symbol, 9);
+			} else {
+				bonusValueSprites[symbol] = symbol == 4 ? ss.tiles(4, 9, 2, 1) : ss.tiles(3, symbol, 3, 1);
+			}
+		}
+		lifeSprite = ss.tile(8, 1);
+
+		pacDyingTable = FrameTable.of(8, 1, //
+				ss.tile(3, 0), ss.tile(4, 0), ss.tile(5, 0), ss.tile(6, 0), //
+				ss.tile(7, 0), ss.tile(8, 0), ss.tile(9, 0), ss.tile(10, 0), //
+				ss.tile(11, 0), ss.tile(12, 0), ss.tile(13, 0));
+		var munching = new BufferedImage[4][];
+		var colors = new BufferedImage[4][4][];
+		var eyes = new BufferedImage[4][];
+		for (var dir : Direction.values()) {
+			int d = index(dir);
+			var wide = ss.tile(0, d);
+			var open = ss.tile(1, d);
+			var closed = ss.tile(2, 0);
+			munching[dir.ordinal()] = new BufferedImage[] { closed, open, wide, open };
+			for (int ghostID = 0; ghostID < 4; ++ghostID) {
+				colors[ghostID][dir.ordinal()] = new BufferedImage[] { ghostFrames[ghostID][2 * d],
+						ghostFrames[ghostID][2 * d + 1] };
+			}
+			eyes[dir.ordinal()] = new BufferedImage[] { ss.tile(8 + d, 5) };
+		}
+		pacMunchingTable = FrameTable.byDirection(Facing.MOVE_DIR, 2, FrameTable.FOREVER, munching);
+		for (int ghostID = 0; ghostID < 4; ++ghostID) {
+			ghostColorTables[ghostID] = FrameTable.byDirection(Facing.WISH_DIR, 8, FrameTable.FOREVER, colors[ghostID]);
+		}
+		ghostEyesTable = FrameTable.byDirection(Facing.WISH_DIR, 1, 1, eyes);
+		ghostBlueTable = FrameTable.of(8, FrameTable.FOREVER, ghostBlueFrames[0], ghostBlueFrames[1]);
+		ghostFlashingTable = FrameTable.of(4, 1, ghostBlueFrames[0], ghostBlueFrames[1], ghostFlashingFrames[0],
+				ghostFlashingFrames[1]);
+		ghostValueTable = FrameTable.of(ss.tile(0, 8), ss.tile(1, 8), ss.tile(2, 8), ss.tile(3, 8));
+		bigPacManMunchingTable = FrameTable.of(4, FrameTable.FOREVER, ss.tiles(2, 1, 2, 2), ss.tiles(4, 1, 2, 2),
+				ss.tiles(6, 1, 2, 2));
+		blinkyStretchedTable = FrameTable.of(ss.tile(8, 6), ss.tile(9, 6), ss.tile(10, 6), ss.tile(11, 6),
+				ss.tile(12, 6));
+		blinkyDamagedTable = FrameTable.of(ss.tile(8, 7), ss.tile(9, 7));
+		blinkyPatchedTable = FrameTable.of(4, FrameTable.FOREVER, ss.tile(10, 7), ss.tile(11, 7));
+		blinkyNakedTable = FrameTable.of(4, FrameTable.FOREVER, ss.tiles(8, 8, 2, 1), ss.tiles(10, 8, 2, 1));
+
+		AcceleratedImages.register("Pac-Man spritesheet", ss.image);
+		AcceleratedImages.register("Pac-Man maze (full)", mazeFull);
+		AcceleratedImages.register("Pac-Man maze (empty)", mazeEmptyDark);
+		AcceleratedImages.register("Pac-Man ghost sprite", ghostSprites[0][0]);
+		AcceleratedImages.register("Pac-Man life sprite", lifeSprite);
 	}
 
 	@Override
@@ -111,25 +227,22 @@ public class SpritesheetPacMan implements Rendering2D {
 
 	@Override
 	public BufferedImage getGhostSprite(int ghostID, Direction dir) {
-		return ss.tile(2 * index(dir), 4 + ghostID);
+		return ghostSprites[ghostID][dir.ordinal()];
 	}
 
 	@Override
 	public BufferedImage getBonusSymbolSprite(int symbol) {
-		return ss.tile(2 + symbol, 3);
+		return bonusSymbolSprites[symbol];
 	}
 
 	@Override
 	public BufferedImage getBonusValueSprite(int symbol) {
-		if (symbol <= 3) {
-			return ss.tile(symbol, 9);
-		}
-		return symbol == 4 ? ss.tiles(4, 9, 2, 1) : ss.tiles(3, symbol, 3, 1);
+		return bonusValueSprites[symbol];
 	}
 
 	@Override
 	public BufferedImage getLifeSprite() {
-		return ss.tile(8, 1);
+		return lifeSprite;
 	}
 
 	@Override
@@ -138,106 +251,64 @@ public class SpritesheetPacMan implements Rendering2D {
 	}
 
 	public BufferedImage ghostImageByGhostByDir(int ghostID, Direction dir) {
-		return ss.tile(2 * index(dir), 4 + ghostID);
+		return getGhostSprite(ghostID, dir);
 	}
 
 	@Override
-	public SimpleAnimation<BufferedImage> createPacDyingAnimation() {
-		var animation = new SimpleAnimation<>( //
-				ss.tile(3, 0), ss.tile(4, 0), ss.tile(5, 0), ss.tile(6, 0), //
-				ss.tile(7, 0), ss.tile(8, 0), ss.tile(9, 0), ss.tile(10, 0), //
-				ss.tile(11, 0), ss.tile(12, 0), ss.tile(13, 0));
-		animation.setFrameDuration(8);
-		return animation;
+	public FrameTable pacDyingFrames() {
+		return pacDyingTable;
 	}
 
 	@Override
-	public AnimationByDirection createPacMunchingAnimationMap(Pac pac) {
-		AnimationByDirection munching = new AnimationByDirection(pac::moveDir);
-		for (Direction dir : Direction.values()) {
-			int d = index(dir);
-			var wide = ss.tile(0, d);
-			var open = ss.tile(1, d);
-			var closed = ss.tile(2, 0);
-			var animation = new SimpleAnimation<>(closed, open, wide, open);
-			animation.setFrameDuration(2);
-			animation.repeatForever();
-			munching.put(dir, animation);
-		}
-		return munching;
+	public FrameTable pacMunchingFrames() {
+		return pacMunchingTable;
 	}
 
 	@Override
-	public AnimationByDirection createGhostColorAnimationMap(Ghost ghost) {
-		AnimationByDirection map = new AnimationByDirection(ghost::wishDir);
-		for (Direction dir : Direction.values()) {
-			var animation = new SimpleAnimation<>(ss.tile(2 * index(dir), 4 + ghost.id()),
-					ss.tile(2 * index(dir) + 1, 4 + ghost.id()));
-			animation.setFrameDuration(8);
-			animation.repeatForever();
-			map.put(dir, animation);
-		}
-		return map;
+	public FrameTable ghostColorFrames(int ghostID) {
+		return ghostColorTables[ghostID];
 	}
 
 	@Override
-	public SimpleAnimation<BufferedImage> createGhostBlueAnimation() {
-		var animation = new SimpleAnimation<>(ss.tile(8, 4), ss.tile(9, 4));
-		animation.setFrameDuration(8);
-		animation.repeatForever();
-		return animation;
+	public FrameTable ghostBlueFrames() {
+		return ghostBlueTable;
 	}
 
 	@Override
-	public SimpleAnimation<BufferedImage> createGhostFlashingAnimation() {
-		var animation = new SimpleAnimation<>(ss.tile(8, 4), ss.tile(9, 4), ss.tile(10, 4), ss.tile(11, 4));
-		animation.setFrameDuration(4);
-		return animation;
+	public FrameTable ghostFlashingFrames() {
+		return ghostFlashingTable;
 	}
 
 	@Override
-	public AnimationByDirection createGhostEyesAnimationMap(Ghost ghost) {
-		AnimationByDirection ghostEyesAnimsByDir = new AnimationByDirection(ghost::wishDir);
-		for (Direction dir : Direction.values()) {
-			ghostEyesAnimsByDir.put(dir, new SimpleAnimation<>(ss.tile(8 + index(dir), 5)));
-		}
-		return ghostEyesAnimsByDir;
+	public FrameTable ghostEyesFrames() {
+		return ghostEyesTable;
 	}
 
 	@Override
-	public FrameSequence<BufferedImage> createGhostValueList() {
-		return new FrameSequence<>(ss.tile(0, 8), ss.tile(1, 8), ss.tile(2, 8), ss.tile(3, 8));
+	public FrameTable ghostValueFrames() {
+		return ghostValueTable;
 	}
 
 	// Pac-Man specific
 
-	public SimpleAnimation<BufferedImage> createBigPacManMunchingAnimation() {
-		var animation = new SimpleAnimation<>(ss.tiles(2, 1, 2, 2), ss.tiles(4, 1, 2, 2), ss.tiles(6, 1, 2, 2));
-		animation.setFrameDuration(4);
-		animation.repeatForever();
-		return animation;
+	public SpriteAnimation createBigPacManMunchingAnimation(AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, bigPacManMunchingTable);
 	}
 
-	public SimpleAnimation<BufferedImage> createBlinkyStretchedAnimation() {
-		return new SimpleAnimation<>(ss.tile(8, 6), ss.tile(9, 6), ss.tile(10, 6), ss.tile(11, 6), ss.tile(12, 6));
+	public SpriteAnimation createBlinkyStretchedAnimation(AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, blinkyStretchedTable);
 	}
 
-	public SimpleAnimation<BufferedImage> createBlinkyDamagedAnimation() {
-		return new SimpleAnimation<>(ss.tile(8, 7), ss.tile(9, 7));
+	public SpriteAnimation createBlinkyDamagedAnimation(AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, blinkyDamagedTable);
 	}
 
-	public SimpleAnimation<BufferedImage> createBlinkyPatchedAnimation() {
-		var blinkyPatched = new SimpleAnimation<>(ss.tile(10, 7), ss.tile(11, 7));
-		blinkyPatched.setFrameDuration(4);
-		blinkyPatched.repeatForever();
-		return blinkyPatched;
+	public SpriteAnimation createBlinkyPatchedAnimation(AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, blinkyPatchedTable);
 	}
 
-	public SimpleAnimation<BufferedImage> createBlinkyNakedAnimation() {
-		var blinkyNaked = new SimpleAnimation<>(ss.tiles(8, 8, 2, 1), ss.tiles(10, 8, 2, 1));
-		blinkyNaked.setFrameDuration(4);
-		blinkyNaked.repeatForever();
-		return blinkyNaked;
+	public SpriteAnimation createBlinkyNakedAnimation(AnimationScheduler scheduler) {
+		return new SpriteAnimation(scheduler, blinkyNakedTable);
 	}
 
 	// Maze
@@ -248,8 +319,8 @@ public class SpritesheetPacMan implements Rendering2D {
 	}
 
 	@Override
-	public SimpleAnimation<BufferedImage> createMazeFlashingAnimation(int mazeNumber) {
-		return mazeFlashingAnim;
+	public FrameTable mazeFlashingFrames(int mazeNumber) {
+		return mazeFlashingTable;
 	}
 
 	// Drawing
@@ -261,8 +332,6 @@ public class SpritesheetPacMan implements Rendering2D {
 
 	@Override
 	public void drawCopyright(Graphics2D g, int x, int y) {
-		g.setFont(getArcadeFont());
-		g.setColor(getGhostColor(GameModel.PINK_GHOST));
-		g.drawString("\u00A9 1980 MIDWAY MFG. CO.", x, y);
+		arcadeText(getGhostColor(GameModel.PINK_GHOST)).drawCachedString(g, "\u00A9 1980 MIDWAY MFG. CO.", x, y);
 	}
 }
\ No newline at end of file
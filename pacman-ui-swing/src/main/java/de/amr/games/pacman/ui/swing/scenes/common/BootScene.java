@@ -31,29 +31,45 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import de.amr.games.pacman.model.GameVariant;
 import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.lib.AssetLoader;
+import de.amr.games.pacman.ui.swing.rendering.common.Rendering2D;
 import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
 import de.amr.games.pacman.ui.swing.rendering.pacman.SpritesheetPacMan;
 
 /**
+ * Boot scene. Shows the progress of the asset loader and waits until all assets are loaded.
+ * 
  * @author Armin Reichert
  */
 public class BootScene extends GameScene {
 
+	private static final int PROGRESS_BAR_HEIGHT = 4;
+
 	private final Random rnd = new Random();
 	private final Graphics2D gc;
 	private final BufferedImage currentImage;
+	private CompletableFuture<Void> assetsLoaded;
 
 	public BootScene() {
 		currentImage = new BufferedImage(size.x(), size.y(), BufferedImage.TYPE_INT_RGB);
 		gc = (Graphics2D) currentImage.getGraphics();
 	}
 
+	/**
+	 * @param seed seed for the random hex codes and sprites, e.g. for reproducible benchmark runs
+	 */
+	public void setRandomSeed(long seed) {
+		rnd.setSeed(seed);
+	}
+
 	@Override
 	public void init() {
 		clearBuffer();
+		assetsLoaded = AssetLoader.get().completion();
 	}
 
 	@Override
@@ -65,7 +81,7 @@ public class BootScene extends GameScene {
 			drawRandomSprites();
 		} else if (timer.atSecond(3.5)) {
 			drawGrid();
-		} else if (timer.atSecond(4.0)) {
+		} else if (timer.tick() >= timer.secToTicks(4.0) && assetsLoaded.isDone()) {
 			gameController.terminateCurrentState();
 		}
 	}
@@ -73,6 +89,17 @@ public class BootScene extends GameScene {
 	@Override
 	public void render(Graphics2D g) {
 		g.drawImage(currentImage, 0, 0, null);
+		if (!assetsLoaded.isDone()) {
+			drawProgressBar(g, AssetLoader.get().progress());
+		}
+	}
+
+	private void drawProgressBar(Graphics2D g, double progress) {
+		int y = size.y() - PROGRESS_BAR_HEIGHT;
+		g.setColor(Color.DARK_GRAY);
+		g.fillRect(0, y, size.x(), PROGRESS_BAR_HEIGHT);
+		g.setColor(Rendering2D.TEXT_COLOR);
+		g.fillRect(0, y, (int) (progress * size.x()), PROGRESS_BAR_HEIGHT);
 	}
 
 	private void clearBuffer() {
@@ -82,8 +109,13 @@ public class BootScene extends GameScene {
 
 	private void drawRandomHexCodes() {
 		clearBuffer();
+		// do not wait for the font, the hex codes are skipped until it is loaded
+		var font = AssetLoader.get().loadFont(Rendering2D.ARCADE_FONT_PATH, Rendering2D.ARCADE_FONT_SIZE).getNow(null);
+		if (font == null) {
+			return;
+		}
 		gc.setColor(new Color(222, 222, 255));
-		gc.setFont(SpritesheetPacMan.get().getArcadeFont());
+		gc.setFont(font);
 		for (int row = 0; row < World.TILES_Y; ++row) {
 			for (int col = 0; col < World.TILES_X; ++col) {
 				var hexCode = Integer.toHexString(rnd.nextInt(16));
@@ -32,24 +32,47 @@ import de.amr.games.pacman.event.GameEventListener;
 import de.amr.games.pacman.lib.math.Vector2i;
 import de.amr.games.pacman.model.GameModel;
 import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
 import de.amr.games.pacman.ui.swing.rendering.common.Rendering2D;
 import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
 import de.amr.games.pacman.ui.swing.rendering.pacman.SpritesheetPacMan;
+import de.amr.games.pacman.ui.swing.shell.Keyboard;
 
 /**
  * Common game scene base class.
+ * <p>
+ * A scene is drawn in three layers: the static and the semi-static layer are cached until the scene invalidates them,
+ * the dynamic layer (see {@link #render(Graphics2D)}) is drawn in every frame.
  * 
  * @author Armin Reichert
  */
 public abstract class GameScene implements GameEventListener {
 
+	protected static final int KEY_START_GAME = Keyboard.key("1");
+	protected static final int KEY_ADD_CREDIT = Keyboard.key("5");
+
 	protected GameController gameController;
 	protected Vector2i size = new Vector2i(World.TILES_X * TS, World.TILES_Y * TS);
 	protected GameModel game;
 	protected Rendering2D gss;
+	protected AnimationScheduler animationScheduler;
+	private long staticLayerVersion;
+	private long semiStaticLayerVersion;
+	private int shownScore = -1;
+	private int shownScoreLevel = -1;
+	private int shownHighScore = -1;
+	private int shownHighScoreLevel = -1;
+	private int shownCredit = -1;
+	private byte[] shownLevelCounter = new byte[0];
+	private int shownLevelCounterSize = -1;
 
-	public void setContext(GameController gameController) {
+	/**
+	 * @param gameController     game controller
+	 * @param animationScheduler scheduler of the animations created by the scene
+	 */
+	public void setContext(GameController gameController, AnimationScheduler animationScheduler) {
 		this.gameController = gameController;
+		this.animationScheduler = animationScheduler;
 		this.game = gameController.game();
 		this.gss = switch (game.variant()) {
 		case MS_PACMAN -> SpritesheetMsPacMan.get();
@@ -70,6 +93,104 @@ public abstract class GameScene implements GameEventListener {
 	public void end() {
 	}
 
+	/**
+	 * Draws the dynamic layer. Called in every frame.
+	 */
 	public void render(Graphics2D g) {
 	}
+
+	/**
+	 * Draws content above all actors, e.g. debug information. Called in every frame after {@link #render(Graphics2D)}.
+	 */
+	public void renderOverlay(Graphics2D g) {
+	}
+
+	/**
+	 * Draws the static layer, e.g. text that does not change while the scene is displayed.
+	 */
+	public void renderStaticLayer(Graphics2D g) {
+	}
+
+	/**
+	 * @return version of the static layer, the layer is redrawn when the version changes
+	 */
+	public long staticLayerVersion() {
+		return staticLayerVersion;
+	}
+
+	/**
+	 * Forces the static layer to be redrawn.
+	 */
+	public void invalidateStaticLayer() {
+		++staticLayerVersion;
+	}
+
+	/**
+	 * Draws the semi-static layer, e.g. scores and counters. Drawn over the static layer.
+	 */
+	public void renderSemiStaticLayer(Graphics2D g) {
+	}
+
+	/**
+	 * @return version of the semi-static layer, the layer is redrawn when the version changes
+	 */
+	public long semiStaticLayerVersion() {
+		return semiStaticLayerVersion;
+	}
+
+	/**
+	 * Forces the semi-static layer to be redrawn. Called whenever a value displayed in the layer changes.
+	 */
+	public void invalidateSemiStaticLayer() {
+		++semiStaticLayerVersion;
+	}
+
+	/**
+	 * @return if all layers of this scene report the regions they draw to the damage tracker of the graphics context
+	 *         (see {@link de.amr.games.pacman.ui.swing.lib.DamageTracker}). Frames of other scenes are presented
+	 *         completely.
+	 */
+	public boolean tracksDamage() {
+		return false;
+	}
+
+	/**
+	 * Invalidates the semi-static layer if the score, the high score or the credit changed since the last call. Called
+	 * in each update by scenes displaying these values in the semi-static layer.
+	 */
+	protected void checkScoresAndCredit() {
+		var score = game.score();
+		var highScore = game.highScore();
+		if (score.points() != shownScore || score.levelNumber() != shownScoreLevel || highScore.points() != shownHighScore
+				|| highScore.levelNumber() != shownHighScoreLevel || game.credit() != shownCredit) {
+			shownScore = score.points();
+			shownScoreLevel = score.levelNumber();
+			shownHighScore = highScore.points();
+			shownHighScoreLevel = highScore.levelNumber();
+			shownCredit = game.credit();
+			invalidateSemiStaticLayer();
+		}
+	}
+
+	/**
+	 * Invalidates the semi-static layer if the level counter changed since the last call. Called in each update by
+	 * scenes displaying the level counter in the semi-static layer.
+	 */
+	protected void checkLevelCounter() {
+		var levelCounter = game.levelCounter();
+		boolean changed = levelCounter.size() != shownLevelCounterSize;
+		for (int i = 0; !changed && i < levelCounter.size(); ++i) {
+			changed = levelCounter.get(i) != shownLevelCounter[i];
+		}
+		if (changed) {
+			if (shownLevelCounter.length < levelCounter.size()) {
+				shownLevelCounter = new byte[levelCounter.size()];
+			}
+			for (int i = 0; i < levelCounter.size(); ++i) {
+				shownLevelCounter[i] = levelCounter.get(i);
+			}
+			shownLevelCounterSize = levelCounter.size();
+			invalidateSemiStaticLayer();
+		}
+	}
 }
\ No newline at end of file
@@ -29,10 +29,13 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 
 import de.amr.games.pacman.controller.GameState;
+import de.amr.games.pacman.event.GameEvent;
 import de.amr.games.pacman.event.GameStateChangeEvent;
 import de.amr.games.pacman.model.GameModel;
 import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.lib.DamageTracker;
 import de.amr.games.pacman.ui.swing.rendering.common.DebugDraw;
+import de.amr.games.pacman.ui.swing.rendering.common.MazeLayer;
 import de.amr.games.pacman.ui.swing.shell.Keyboard;
 import de.amr.games.pacman.ui.swing.shell.PacManGameUI;
 
@@ -43,31 +46,64 @@ import de.amr.games.pacman.ui.swing.shell.PacManGameUI;
  */
 public class PlayScene extends GameScene {
 
+	private final MazeLayer mazeLayer = new MazeLayer();
+	private boolean shownHighScoreOnly;
+	private boolean shownHasCredit;
+	private int shownLives = -1;
+	private boolean shownOneLessLife;
+
+	@Override
+	public void init() {
+		mazeLayer.resync();
+	}
+
 	@Override
 	public void update() {
-		if (Keyboard.keyPressed("5")) {
+		if (Keyboard.keyPressed(KEY_ADD_CREDIT)) {
 			gameController.addCredit();
 		}
+		checkScoresAndCredit();
+		checkLevelCounter();
+		if (isHighScoreOnly() != shownHighScoreOnly || game.hasCredit() != shownHasCredit || game.lives() != shownLives
+				|| game.isOneLessLifeDisplayed() != shownOneLessLife) {
+			shownHighScoreOnly = isHighScoreOnly();
+			shownHasCredit = game.hasCredit();
+			shownLives = game.lives();
+			shownOneLessLife = game.isOneLessLifeDisplayed();
+			invalidateSemiStaticLayer();
+		}
 	}
 
 	@Override
 	public void render(Graphics2D g) {
-		game.level().ifPresent(level -> {
-			drawMaze(g, level.world(), gss.mazeNumber(level.number()));
-			level.bonusManagement().getBonus().ifPresent(bonus -> gss.drawBonus(g, bonus));
-			gss.drawGameState(g, game, game.hasCredit() ? gameController.state() : GameState.GAME_OVER);
-			gss.drawPac(g, level.pac());
-			gss.drawGhost(g, level.ghost(GameModel.ORANGE_GHOST));
-			gss.drawGhost(g, level.ghost(GameModel.CYAN_GHOST));
-			gss.drawGhost(g, level.ghost(GameModel.PINK_GHOST));
-			gss.drawGhost(g, level.ghost(GameModel.RED_GHOST));
-			if (PacManGameUI.isDebugDraw()) {
-				DebugDraw.drawPlaySceneDebugInfo(g, gameController);
-			}
-		});
-		boolean highScoreOnly = !game.isPlaying() && gameController.state() != GameState.READY
-				&& gameController.state() != GameState.GAME_OVER;
-		gss.drawScores(g, game, highScoreOnly);
+		var optLevel = game.level();
+		if (optLevel.isEmpty()) {
+			return;
+		}
+		var level = optLevel.get();
+		drawMaze(g, level.world(), gss.mazeNumber(level.number()));
+		var bonus = level.bonusManagement().getBonus();
+		if (bonus.isPresent()) {
+			gss.drawBonus(g, bonus.get());
+		}
+		gss.drawGameState(g, game, game.hasCredit() ? gameController.state() : GameState.GAME_OVER);
+		gss.drawPac(g, level.pac());
+		gss.drawGhost(g, level.ghost(GameModel.ORANGE_GHOST));
+		gss.drawGhost(g, level.ghost(GameModel.CYAN_GHOST));
+		gss.drawGhost(g, level.ghost(GameModel.PINK_GHOST));
+		gss.drawGhost(g, level.ghost(GameModel.RED_GHOST));
+	}
+
+	@Override
+	public void renderOverlay(Graphics2D g) {
+		if (PacManGameUI.isDebugDraw()) {
+			DebugDraw.drawPlaySceneDebugInfo(g, gameController);
+		}
+	}
+
+	@Override
+	public void renderSemiStaticLayer(Graphics2D g) {
+		gss.drawScores(g, game, isHighScoreOnly());
 		if (game.hasCredit()) {
 			gss.drawLivesCounter(g, game);
 		} else {
@@ -76,26 +112,49 @@ public class PlayScene extends GameScene {
 		gss.drawLevelCounter(g, game.levelCounter());
 	}
 
+	@Override
+	public boolean tracksDamage() {
+		return !PacManGameUI.isDebugDraw();
+	}
+
+	private boolean isHighScoreOnly() {
+		return !game.isPlaying() && gameController.state() != GameState.READY
+				&& gameController.state() != GameState.GAME_OVER;
+	}
+
 	private void drawMaze(Graphics2D g, World world, int mazeNumber) {
 		var flashing = world.animation(GameModel.AK_MAZE_FLASHING);
 		if (flashing.isPresent() && flashing.get().isRunning()) {
-			g.drawImage((Image) flashing.get().frame(), 0, TS * (3), null);
+			var image = (Image) flashing.get().frame();
+			g.drawImage(image, 0, TS * (3), null);
+			DamageTracker.add(g, 0, TS * (3), image.getWidth(null), image.getHeight(null));
 		} else {
-			gss.drawFullMaze(g, mazeNumber, 0, TS * (3));
-			var energizerPulse = world.animation(GameModel.AK_MAZE_ENERGIZER_BLINKING);
-			if (energizerPulse.isPresent()) {
-				boolean dark = !(boolean) energizerPulse.get().frame();
-				gss.drawDarkTiles(g, world.tiles(),
-						tile -> world.containsEatenFood(tile) || world.isEnergizerTile(tile) && dark);
-			} else {
-				gss.drawDarkTiles(g, world.tiles(), world::containsEatenFood);
+			if (!mazeLayer.isBuiltFor(world, mazeNumber)) {
+				mazeLayer.init(gss, world, mazeNumber);
 			}
+			var energizerPulse = world.animation(GameModel.AK_MAZE_ENERGIZER_BLINKING);
+			mazeLayer.draw(g, energizerPulse.isPresent() && !(boolean) energizerPulse.get().frame());
 		}
 		if (PacManGameUI.isDebugDraw()) {
 			DebugDraw.drawMazeStructure(g, world);
 		}
 	}
 
+	@Override
+	public void onLevelStarting(GameEvent e) {
+		mazeLayer.invalidate();
+	}
+
+	@Override
+	public void onPacFindsFood(GameEvent e) {
+		e.tile.ifPresent(mazeLayer::eatFood);
+	}
+
+	@Override
+	public void onUnspecifiedChange(GameEvent e) {
+		mazeLayer.resync();
+	}
+
 	@Override
 	public void onGameStateChange(GameStateChangeEvent e) {
 		if (e.newGameState == GameState.CHANGING_TO_NEXT_LEVEL) {
@@ -28,10 +28,8 @@ import static de.amr.games.pacman.lib.Globals.HTS;
 import static de.amr.games.pacman.lib.Globals.TS;
 
 import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
 
 import de.amr.games.pacman.model.GameModel;
-import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
 import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
 import de.amr.games.pacman.ui.swing.shell.Keyboard;
 
@@ -42,30 +40,37 @@ public class MsPacManCreditScene extends GameScene {
 
 	@Override
 	public void update() {
-		if (Keyboard.keyPressed("5")) {
+		if (Keyboard.keyPressed(KEY_ADD_CREDIT)) {
 			gameController.addCredit();
-		} else if (Keyboard.keyPressed("1")) {
+		} else if (Keyboard.keyPressed(KEY_START_GAME)) {
 			gameController.startPlaying();
 		}
+		checkScoresAndCredit();
 	}
 
 	@Override
-	public void render(Graphics2D g) {
-
-		gss.drawScores(g, game, true);
+	public void init() {
+		invalidateStaticLayer();
+	}
 
+	@Override
+	public void renderStaticLayer(Graphics2D g) {
 		g.setFont(gss.getArcadeFont());
 		g.setColor(gss.getGhostColor(GameModel.ORANGE_GHOST));
 		g.drawString("PUSH START BUTTON", TS * (6), TS * (16));
 		g.drawString("1 PLAYER ONLY", TS * (8), TS * (18));
 		g.drawString("ADDITIONAL    AT 10000", TS * (2), TS * (25));
-		BufferedImage msPacMan = SpritesheetMsPacMan.get().rhs(1, 0);
-		gss.drawSpriteCenteredOverBox(g, msPacMan, TS * (13) + HTS, TS * (24) - 2);
+		gss.drawSpriteCenteredOverBox(g, gss.getLifeSprite(), TS * (13) + HTS, TS * (24) - 2);
 		g.setFont(gss.getArcadeFont());
 		g.setFont(gss.getArcadeFont().deriveFont(6.0f));
 		g.drawString("PTS", TS * (25), TS * (25));
 
 		gss.drawCopyright(g, TS * (6), TS * (28));
+	}
+
+	@Override
+	public void renderSemiStaticLayer(Graphics2D g) {
+		gss.drawScores(g, game, true);
 		gss.drawCredit(g, game.credit());
 	}
 
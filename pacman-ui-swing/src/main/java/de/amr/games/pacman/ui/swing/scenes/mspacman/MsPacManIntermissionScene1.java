@@ -27,9 +27,11 @@ import java.awt.Graphics2D;
 
 import de.amr.games.pacman.controller.GameController;
 import de.amr.games.pacman.controller.MsPacManIntermission1;
+import de.amr.games.pacman.lib.anim.Animated;
 import de.amr.games.pacman.lib.anim.AnimationMap;
 import de.amr.games.pacman.model.GameModel;
 import de.amr.games.pacman.ui.swing.entity.mspacman.Heart2D;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
 import de.amr.games.pacman.ui.swing.rendering.common.GhostAnimations;
 import de.amr.games.pacman.ui.swing.rendering.common.PacAnimations;
 import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
@@ -51,8 +53,8 @@ public class MsPacManIntermissionScene1 extends GameScene {
 	private Heart2D heart2D;
 
 	@Override
-	public void setContext(GameController gameController) {
-		super.setContext(gameController);
+	public void setContext(GameController gameController, AnimationScheduler animationScheduler) {
+		super.setContext(gameController, animationScheduler);
 		sceneController = new MsPacManIntermission1(gameController);
 		ctx = sceneController.context();
 	}
@@ -60,15 +62,15 @@ public class MsPacManIntermissionScene1 extends GameScene {
 	@Override
 	public void init() {
 		sceneController.restart(MsPacManIntermission1.State.FLAP);
-		ctx.clapperboard.setAnimation(SpritesheetMsPacMan.get().createClapperboardAnimation());
-		ctx.msPac.setAnimations(new PacAnimations(ctx.msPac, gss));
+		ctx.clapperboard.setAnimation(SpritesheetMsPacMan.get().createClapperboardAnimation(animationScheduler));
+		ctx.msPac.setAnimations(new PacAnimations(ctx.msPac, gss, animationScheduler));
 		ctx.msPac.animations().ifPresent(AnimationMap::ensureRunning);
-		ctx.pacMan.setAnimations(new PacAnimations(ctx.pacMan, gss));
-		var husbandMunching = SpritesheetMsPacMan.get().createHusbandMunchingAnimations(ctx.pacMan);
+		ctx.pacMan.setAnimations(new PacAnimations(ctx.pacMan, gss, animationScheduler));
+		var husbandMunching = SpritesheetMsPacMan.get().createHusbandMunchingAnimations(ctx.pacMan, animationScheduler);
 		ctx.pacMan.animations().ifPresent(anims -> anims.put(GameModel.AK_PAC_MUNCHING, husbandMunching));
 		ctx.pacMan.animations().ifPresent(anims -> anims.selectedAnimation().get().ensureRunning());
-		ctx.inky.setAnimations(new GhostAnimations(ctx.inky, gss));
-		ctx.pinky.setAnimations(new GhostAnimations(ctx.pinky, gss));
+		ctx.inky.setAnimations(new GhostAnimations(ctx.inky, gss, animationScheduler));
+		ctx.pinky.setAnimations(new GhostAnimations(ctx.pinky, gss, animationScheduler));
 		heart2D = new Heart2D(ctx.heart);
 		heart2D.setImage(SpritesheetMsPacMan.get().getHeart());
 	}
@@ -76,6 +78,9 @@ public class MsPacManIntermissionScene1 extends GameScene {
 	@Override
 	public void update() {
 		sceneController.update();
+		if (ctx.clapperboard.isVisible()) {
+			ctx.clapperboard.animation().ifPresent(Animated::animate);
+		}
 	}
 
 	@Override
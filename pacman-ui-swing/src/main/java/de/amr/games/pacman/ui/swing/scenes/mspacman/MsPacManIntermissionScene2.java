@@ -27,8 +27,10 @@ import java.awt.Graphics2D;
 
 import de.amr.games.pacman.controller.GameController;
 import de.amr.games.pacman.controller.MsPacManIntermission2;
+import de.amr.games.pacman.lib.anim.Animated;
 import de.amr.games.pacman.lib.anim.AnimationMap;
 import de.amr.games.pacman.model.GameModel;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
 import de.amr.games.pacman.ui.swing.rendering.common.PacAnimations;
 import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
 import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
@@ -47,8 +49,8 @@ public class MsPacManIntermissionScene2 extends GameScene {
 	private MsPacManIntermission2.Context ctx;
 
 	@Override
-	public void setContext(GameController gameController) {
-		super.setContext(gameController);
+	public void setContext(GameController gameController, AnimationScheduler animationScheduler) {
+		super.setContext(gameController, animationScheduler);
 		sceneController = new MsPacManIntermission2(gameController);
 		ctx = sceneController.context();
 	}
@@ -56,11 +58,11 @@ public class MsPacManIntermissionScene2 extends GameScene {
 	@Override
 	public void init() {
 		sceneController.restart(MsPacManIntermission2.State.FLAP);
-		ctx.clapperboard.setAnimation(SpritesheetMsPacMan.get().createClapperboardAnimation());
-		ctx.msPacMan.setAnimations(new PacAnimations(ctx.msPacMan, gss));
+		ctx.clapperboard.setAnimation(SpritesheetMsPacMan.get().createClapperboardAnimation(animationScheduler));
+		ctx.msPacMan.setAnimations(new PacAnimations(ctx.msPacMan, gss, animationScheduler));
 		ctx.msPacMan.animations().ifPresent(AnimationMap::ensureRunning);
-		ctx.pacMan.setAnimations(new PacAnimations(ctx.pacMan, gss));
-		var husbandMunching = SpritesheetMsPacMan.get().createHusbandMunchingAnimations(ctx.pacMan);
+		ctx.pacMan.setAnimations(new PacAnimations(ctx.pacMan, gss, animationScheduler));
+		var husbandMunching = SpritesheetMsPacMan.get().createHusbandMunchingAnimations(ctx.pacMan, animationScheduler);
 		ctx.pacMan.animations().ifPresent(anims -> anims.put(GameModel.AK_PAC_MUNCHING, husbandMunching));
 		ctx.pacMan.animations().ifPresent(AnimationMap::ensureRunning);
 	}
@@ -68,6 +70,9 @@ public class MsPacManIntermissionScene2 extends GameScene {
 	@Override
 	public void update() {
 		sceneController.update();
+		if (ctx.clapperboard.isVisible()) {
+			ctx.clapperboard.animation().ifPresent(Animated::animate);
+		}
 	}
 
 	@Override
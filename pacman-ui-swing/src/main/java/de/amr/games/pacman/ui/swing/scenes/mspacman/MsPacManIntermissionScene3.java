@@ -27,9 +27,11 @@ import java.awt.Graphics2D;
 
 import de.amr.games.pacman.controller.GameController;
 import de.amr.games.pacman.controller.MsPacManIntermission3;
+import de.amr.games.pacman.lib.anim.Animated;
 import de.amr.games.pacman.lib.anim.AnimationMap;
 import de.amr.games.pacman.model.GameModel;
 import de.amr.games.pacman.ui.swing.entity.mspacman.Stork2D;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
 import de.amr.games.pacman.ui.swing.rendering.common.PacAnimations;
 import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
 import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
@@ -51,8 +53,8 @@ public class MsPacManIntermissionScene3 extends GameScene {
 	private Stork2D stork2D;
 
 	@Override
-	public void setContext(GameController gameController) {
-		super.setContext(gameController);
+	public void setContext(GameController gameController, AnimationScheduler animationScheduler) {
+		super.setContext(gameController, animationScheduler);
 		sceneController = new MsPacManIntermission3(gameController);
 		ctx = sceneController.context();
 	}
@@ -60,20 +62,24 @@ public class MsPacManIntermissionScene3 extends GameScene {
 	@Override
 	public void init() {
 		sceneController.restart(MsPacManIntermission3.State.FLAP);
-		ctx.clapperboard.setAnimation(SpritesheetMsPacMan.get().createClapperboardAnimation());
-		ctx.msPacMan.setAnimations(new PacAnimations(ctx.msPacMan, gss));
+		ctx.clapperboard.setAnimation(SpritesheetMsPacMan.get().createClapperboardAnimation(animationScheduler));
+		ctx.msPacMan.setAnimations(new PacAnimations(ctx.msPacMan, gss, animationScheduler));
 		ctx.msPacMan.animations().ifPresent(AnimationMap::ensureRunning);
-		ctx.pacMan.setAnimations(new PacAnimations(ctx.pacMan, gss));
-		var husbandMunching = SpritesheetMsPacMan.get().createHusbandMunchingAnimations(ctx.pacMan);
+		ctx.pacMan.setAnimations(new PacAnimations(ctx.pacMan, gss, animationScheduler));
+		var husbandMunching = SpritesheetMsPacMan.get().createHusbandMunchingAnimations(ctx.pacMan, animationScheduler);
 		ctx.pacMan.animations().ifPresent(anims -> anims.put(GameModel.AK_PAC_MUNCHING, husbandMunching));
 		ctx.pacMan.animations().ifPresent(AnimationMap::ensureRunning);
-		stork2D = new Stork2D(ctx.stork, gss);
+		stork2D = new Stork2D(ctx.stork, gss, animationScheduler);
 		stork2D.animation.restart();
 	}
 
 	@Override
 	public void update() {
 		sceneController.update();
+		if (ctx.clapperboard.isVisible()) {
+			ctx.clapperboard.animation().ifPresent(Animated::animate);
+		}
+		stork2D.update();
 	}
 
 	@Override
@@ -32,6 +32,7 @@ import de.amr.games.pacman.controller.GameController;
 import de.amr.games.pacman.controller.MsPacManIntro;
 import de.amr.games.pacman.lib.anim.AnimationMap;
 import de.amr.games.pacman.model.actors.Ghost;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
 import de.amr.games.pacman.ui.swing.rendering.common.GhostAnimations;
 import de.amr.games.pacman.ui.swing.rendering.common.PacAnimations;
 import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
@@ -48,8 +49,8 @@ public class MsPacManIntroScene extends GameScene {
 	private MsPacManIntro.Context ctx;
 
 	@Override
-	public void setContext(GameController gameController) {
-		super.setContext(gameController);
+	public void setContext(GameController gameController, AnimationScheduler animationScheduler) {
+		super.setContext(gameController, animationScheduler);
 		sceneController = new MsPacManIntro(gameController);
 		ctx = sceneController.context();
 	}
@@ -57,19 +58,19 @@ public class MsPacManIntroScene extends GameScene {
 	@Override
 	public void init() {
 		sceneController.restart(MsPacManIntro.State.START);
-		ctx.msPacMan.setAnimations(new PacAnimations(ctx.msPacMan, gss));
+		ctx.msPacMan.setAnimations(new PacAnimations(ctx.msPacMan, gss, animationScheduler));
 		ctx.msPacMan.animations().ifPresent(AnimationMap::ensureRunning);
 		ctx.ghosts.forEach(ghost -> {
-			ghost.setAnimations(new GhostAnimations(ghost, gss));
+			ghost.setAnimations(new GhostAnimations(ghost, gss, animationScheduler));
 			ghost.animations().ifPresent(AnimationMap::ensureRunning);
 		});
 	}
 
 	@Override
 	public void update() {
-		if (Keyboard.keyPressed("1")) {
+		if (Keyboard.keyPressed(KEY_START_GAME)) {
 			gameController.startPlaying();
-		} else if (Keyboard.keyPressed("5")) {
+		} else if (Keyboard.keyPressed(KEY_ADD_CREDIT)) {
 			gameController.addCredit();
 		} else {
 			sceneController.update();
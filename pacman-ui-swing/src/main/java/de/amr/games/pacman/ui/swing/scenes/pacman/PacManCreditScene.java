@@ -40,16 +40,22 @@ public class PacManCreditScene extends GameScene {
 
 	@Override
 	public void update() {
-		if (Keyboard.keyPressed("5")) {
+		if (Keyboard.keyPressed(KEY_ADD_CREDIT)) {
 			gameController.addCredit();
-		} else if (Keyboard.keyPressed("1")) {
+		} else if (Keyboard.keyPressed(KEY_START_GAME)) {
 			gameController.startPlaying();
 		}
+		checkScoresAndCredit();
+		checkLevelCounter();
 	}
 
 	@Override
-	public void render(Graphics2D g) {
-		gss.drawScores(g, game, true);
+	public void init() {
+		invalidateStaticLayer();
+	}
+
+	@Override
+	public void renderStaticLayer(Graphics2D g) {
 		var arcade8 = gss.getArcadeFont();
 		var arcade6 = arcade8.deriveFont(6f);
 		gss.drawText(g, "PUSH START BUTTON", gss.getGhostColor(GameModel.ORANGE_GHOST), arcade8, TS * (6), TS * (17));
@@ -58,6 +64,11 @@ public class PacManCreditScene extends GameScene {
 		gss.drawText(g, "BONUS PAC-MAN FOR 10000", new Color(255, 184, 174), arcade8, TS * (1), TS * (25));
 		gss.drawText(g, "PTS", new Color(255, 184, 174), arcade6, TS * (25), TS * (25));
 		gss.drawCopyright(g, TS * (4), TS * (29));
+	}
+
+	@Override
+	public void renderSemiStaticLayer(Graphics2D g) {
+		gss.drawScores(g, game, true);
 		gss.drawCredit(g, game.credit());
 		gss.drawLevelCounter(g, game.levelCounter());
 	}
@@ -55,8 +55,8 @@ public class PacManCutscene1 extends GameScene {
 		initialDelay = 120;
 
 		pac = new Pac("Pac-Man");
-		pac.setAnimations(new PacAnimations(pac, gss));
-		var bigPacAnim = SpritesheetPacMan.get().createBigPacManMunchingAnimation();
+		pac.setAnimations(new PacAnimations(pac, gss, animationScheduler));
+		var bigPacAnim = SpritesheetPacMan.get().createBigPacManMunchingAnimation(animationScheduler);
 		pac.animations().ifPresent(anims -> anims.put(GameModel.AK_PAC_BIG, bigPacAnim));
 		pac.animations().ifPresent(anims -> anims.select(GameModel.AK_PAC_MUNCHING));
 		pac.animation(GameModel.AK_PAC_MUNCHING).ifPresent(Animated::restart);
@@ -67,7 +67,7 @@ public class PacManCutscene1 extends GameScene {
 		pac.show();
 
 		blinky = new Ghost(GameModel.RED_GHOST, "Blinky");
-		blinky.setAnimations(new GhostAnimations(blinky, gss));
+		blinky.setAnimations(new GhostAnimations(blinky, gss, animationScheduler));
 		blinky.animations().ifPresent(anims -> anims.select(GameModel.AK_GHOST_COLOR));
 		blinky.animation(GameModel.AK_GHOST_COLOR).ifPresent(Animated::restart);
 		blinky.placeAtTile(v2i(32, 20), 0, 0);
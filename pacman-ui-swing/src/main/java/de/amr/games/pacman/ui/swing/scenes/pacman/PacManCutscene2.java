@@ -28,17 +28,16 @@ import static de.amr.games.pacman.lib.Globals.TS;
 import static de.amr.games.pacman.lib.Globals.v2i;
 
 import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
 
 import de.amr.games.pacman.event.GameEvents;
 import de.amr.games.pacman.lib.anim.Animated;
-import de.amr.games.pacman.lib.anim.SimpleAnimation;
 import de.amr.games.pacman.lib.steering.Direction;
 import de.amr.games.pacman.model.GameModel;
 import de.amr.games.pacman.model.actors.Ghost;
 import de.amr.games.pacman.model.actors.Pac;
 import de.amr.games.pacman.ui.swing.rendering.common.GhostAnimations;
 import de.amr.games.pacman.ui.swing.rendering.common.PacAnimations;
+import de.amr.games.pacman.ui.swing.rendering.common.SpriteAnimation;
 import de.amr.games.pacman.ui.swing.rendering.pacman.SpritesheetPacMan;
 import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
 
@@ -51,7 +50,7 @@ public class PacManCutscene2 extends GameScene {
 	private int frame;
 	private Pac pac;
 	private Ghost blinky;
-	private SimpleAnimation<BufferedImage> stretched;
+	private SpriteAnimation stretched;
 
 	@Override
 	public void init() {
@@ -59,7 +58,7 @@ public class PacManCutscene2 extends GameScene {
 		initialDelay = 120;
 
 		pac = new Pac("Pac-Man");
-		pac.setAnimations(new PacAnimations(pac, gss));
+		pac.setAnimations(new PacAnimations(pac, gss, animationScheduler));
 		pac.animations().ifPresent(anims -> anims.select(GameModel.AK_PAC_MUNCHING));
 		pac.animation(GameModel.AK_PAC_MUNCHING).ifPresent(Animated::restart);
 		pac.placeAtTile(v2i(29, 20), 0, 0);
@@ -67,10 +66,10 @@ public class PacManCutscene2 extends GameScene {
 		pac.setPixelSpeed(1.15f);
 		pac.show();
 
-		stretched = SpritesheetPacMan.get().createBlinkyStretchedAnimation();
+		stretched = SpritesheetPacMan.get().createBlinkyStretchedAnimation(animationScheduler);
 		blinky = new Ghost(GameModel.RED_GHOST, "Blinky");
-		blinky.setAnimations(new GhostAnimations(blinky, gss));
-		var damagedBlinkyAnimation = SpritesheetPacMan.get().createBlinkyDamagedAnimation();
+		blinky.setAnimations(new GhostAnimations(blinky, gss, animationScheduler));
+		var damagedBlinkyAnimation = SpritesheetPacMan.get().createBlinkyDamagedAnimation(animationScheduler);
 		blinky.animations().ifPresent(anims -> anims.put(GameModel.AK_BLINKY_DAMAGED, damagedBlinkyAnimation));
 		blinky.animations().ifPresent(anims -> anims.select(GameModel.AK_GHOST_COLOR));
 		blinky.animation(GameModel.AK_GHOST_COLOR).ifPresent(Animated::restart);
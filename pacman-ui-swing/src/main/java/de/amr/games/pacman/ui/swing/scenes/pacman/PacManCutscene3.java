@@ -54,13 +54,14 @@ public class PacManCutscene3 extends GameScene {
 		frame = -1;
 		initialDelay = 120;
 		pac = new Pac("Pac-Man");
-		pac.setAnimations(new PacAnimations(pac, gss));
+		pac.setAnimations(new PacAnimations(pac, gss, animationScheduler));
 		blinky = new Ghost(GameModel.RED_GHOST, "Blinky");
-		blinky.setAnimations(new GhostAnimations(blinky, gss));
-		blinky.animations().ifPresent(
-				anims -> anims.put(GameModel.AK_BLINKY_PATCHED, SpritesheetPacMan.get().createBlinkyPatchedAnimation()));
-		blinky.animations()
-				.ifPresent(anims -> anims.put(GameModel.AK_BLINKY_NAKED, SpritesheetPacMan.get().createBlinkyNakedAnimation()));
+		blinky.setAnimations(new GhostAnimations(blinky, gss, animationScheduler));
+		var gssPacMan = SpritesheetPacMan.get();
+		blinky.animations().ifPresent(anims -> anims.put(GameModel.AK_BLINKY_PATCHED,
+				gssPacMan.createBlinkyPatchedAnimation(animationScheduler)));
+		blinky.animations().ifPresent(anims -> anims.put(GameModel.AK_BLINKY_NAKED,
+				gssPacMan.createBlinkyNakedAnimation(animationScheduler)));
 	}
 
 	@Override
@@ -37,6 +37,7 @@ import de.amr.games.pacman.lib.steering.Direction;
 import de.amr.games.pacman.model.GameModel;
 import de.amr.games.pacman.model.actors.Ghost;
 import de.amr.games.pacman.model.actors.GhostState;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
 import de.amr.games.pacman.ui.swing.rendering.common.GhostAnimations;
 import de.amr.games.pacman.ui.swing.rendering.common.PacAnimations;
 import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
@@ -56,8 +57,8 @@ public class PacManIntroScene extends GameScene {
 	private Context ctx;
 
 	@Override
-	public void setContext(GameController gameController) {
-		super.setContext(gameController);
+	public void setContext(GameController gameController, AnimationScheduler animationScheduler) {
+		super.setContext(gameController, animationScheduler);
 		intro = new PacManIntro(gameController);
 		intro.addStateChangeListener(this::onSceneStateChange);
 		ctx = intro.context();
@@ -66,9 +67,9 @@ public class PacManIntroScene extends GameScene {
 	@Override
 	public void init() {
 		intro.restart(State.START);
-		ctx.pacMan.setAnimations(new PacAnimations(ctx.pacMan, gss));
+		ctx.pacMan.setAnimations(new PacAnimations(ctx.pacMan, gss, animationScheduler));
 		ctx.pacMan.animations().ifPresent(AnimationMap::ensureRunning);
-		ctx.ghosts().forEach(ghost -> ghost.setAnimations(new GhostAnimations(ghost, gss)));
+		ctx.ghosts().forEach(ghost -> ghost.setAnimations(new GhostAnimations(ghost, gss, animationScheduler)));
 	}
 
 	private void onSceneStateChange(State fromState, State toState) {
@@ -81,9 +82,9 @@ public class PacManIntroScene extends GameScene {
 
 	@Override
 	public void update() {
-		if (Keyboard.keyPressed("1")) {
+		if (Keyboard.keyPressed(KEY_START_GAME)) {
 			gameController.startPlaying();
-		} else if (Keyboard.keyPressed("5")) {
+		} else if (Keyboard.keyPressed(KEY_ADD_CREDIT)) {
 			gameController.addCredit();
 		} else {
 			intro.update();
@@ -23,14 +23,19 @@ SOFTWARE.
  */
 package de.amr.games.pacman.ui.swing.shell;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 import java.util.ArrayDeque;
 import java.util.Deque;
 
 import de.amr.games.pacman.lib.math.Vector2i;
+import de.amr.games.pacman.ui.swing.lib.AcceleratedImages;
 
 /**
  * Implements display of flash messages which disappear after a defined timespan.
@@ -39,11 +44,25 @@ import de.amr.games.pacman.lib.math.Vector2i;
  */
 public class FlashMessageDisplay {
 
+	private static final Font FONT = new Font(Font.MONOSPACED, Font.BOLD, 16);
+	private static final Color TEXT_COLOR = new Color(0.8f, 0.8f, 0.8f);
+
+	/** Composites for fading, one per alpha level. */
+	private static final Composite[] FADING = new Composite[32];
+
+	static {
+		for (int i = 0; i < FADING.length; ++i) {
+			FADING[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) i / (FADING.length - 1));
+		}
+	}
+
 	static class FlashMessage {
 
 		public final String text;
 		private final long displayTimeMillis;
 		private final long createdAt;
+		private BufferedImage image;
+		private int ascent;
 
 		public FlashMessage(String text, double seconds) {
 			this.text = text;
@@ -58,11 +77,19 @@ public class FlashMessageDisplay {
 
 	private final Vector2i unscaledSize;
 	private final Deque<FlashMessage> flashMessageQ = new ArrayDeque<>();
+	private boolean fadingEnabled = true;
 
 	public FlashMessageDisplay(Vector2i unscaledSize) {
 		this.unscaledSize = unscaledSize;
 	}
 
+	/**
+	 * @param fadingEnabled if messages fade out, otherwise they are displayed with constant color
+	 */
+	public void setFadingEnabled(boolean fadingEnabled) {
+		this.fadingEnabled = fadingEnabled;
+	}
+
 	public void update() {
 		var message = flashMessageQ.peek();
 		if (message != null && message.hasExpired()) {
@@ -70,22 +97,52 @@ public class FlashMessageDisplay {
 		}
 	}
 
+	/**
+	 * @return if a message is currently displayed
+	 */
+	public boolean hasMessage() {
+		return !flashMessageQ.isEmpty();
+	}
+
 	public void render(Graphics2D g) {
 		var message = flashMessageQ.peek();
 		if (message != null) {
-			double t = ((double) System.currentTimeMillis() - message.createdAt) / message.displayTimeMillis;
-			double alpha = Math.abs(Math.cos(0.5 * Math.PI * t));
 			g.setColor(Color.BLACK);
 			g.fillRect(0, unscaledSize.y() - 16, unscaledSize.x(), 12);
-			g.setColor(new Color(0.8f, 0.8f, 0.8f, (float) alpha));
-			g.setFont(new Font(Font.MONOSPACED, Font.BOLD, 16));
-			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-			g.drawString(message.text, (unscaledSize.x() - g.getFontMetrics().stringWidth(message.text)) / 2,
-					unscaledSize.y() / 2);
-			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+			if (message.image == null) {
+				createTextImage(message);
+			}
+			int x = (unscaledSize.x() - message.image.getWidth()) / 2;
+			int y = unscaledSize.y() / 2 - message.ascent;
+			if (fadingEnabled) {
+				double t = ((double) System.currentTimeMillis() - message.createdAt) / message.displayTimeMillis;
+				double alpha = Math.abs(Math.cos(0.5 * Math.PI * t));
+				Composite composite = g.getComposite();
+				g.setComposite(FADING[(int) Math.round(alpha * (FADING.length - 1))]);
+				g.drawImage(message.image, x, y, null);
+				g.setComposite(composite);
+			} else {
+				g.drawImage(message.image, x, y, null);
+			}
 		}
 	}
 
+	// the text of a message is rendered once, fading is done by the composite when the image is drawn
+	private void createTextImage(FlashMessage message) {
+		var scratch = AcceleratedImages.create(1, 1, Transparency.TRANSLUCENT);
+		var fm = scratch.getGraphics().getFontMetrics(FONT);
+		var image = AcceleratedImages.create(Math.max(1, fm.stringWidth(message.text)), fm.getAscent() + fm.getDescent(),
+				Transparency.TRANSLUCENT);
+		var g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g.setFont(FONT);
+		g.setColor(TEXT_COLOR);
+		g.drawString(message.text, 0, fm.getAscent());
+		g.dispose();
+		message.image = image;
+		message.ascent = fm.getAscent();
+	}
+
 	public void addMessage(double seconds, String message, Object... args) {
 		flashMessageQ.add(new FlashMessage(String.format(message, args), seconds));
 	}
@@ -0,0 +1,96 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.shell;
+
+import static de.amr.games.pacman.model.GameVariant.MS_PACMAN;
+
+import java.util.List;
+
+import de.amr.games.pacman.controller.GameState;
+import de.amr.games.pacman.model.GameModel;
+import de.amr.games.pacman.ui.swing.scenes.common.BootScene;
+import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
+import de.amr.games.pacman.ui.swing.scenes.common.PlayScene;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManCreditScene;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene1;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene2;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene3;
+import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntroScene;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCreditScene;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene1;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene2;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene3;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacManIntroScene;
+
+/**
+ * The game scenes of both game variants. Scenes keep state, so each user (window, offscreen renderer) has its own
+ * instance.
+ * 
+ * @author Armin Reichert
+ */
+public class GameScenes {
+
+	private final List<GameScene> gameScenesPacMan = List.of( //
+			new BootScene(), //
+			new PacManIntroScene(), //
+			new PacManCreditScene(), //
+			new PacManCutscene1(), //
+			new PacManCutscene2(), //
+			new PacManCutscene3(), //
+			new PlayScene() //
+	);
+
+	private final List<GameScene> gameScenesMsPacMan = List.of( //
+			new BootScene(), //
+			new MsPacManIntroScene(), //
+			new MsPacManCreditScene(), //
+			new MsPacManIntermissionScene1(), //
+			new MsPacManIntermissionScene2(), //
+			new MsPacManIntermissionScene3(), //
+			new PlayScene()//
+	);
+
+	/**
+	 * @param game  game model
+	 * @param state game state
+	 * @return scene displaying the given state of the game
+	 */
+	public GameScene sceneForGameState(GameModel game, GameState state) {
+		var scenes = game.variant() == MS_PACMAN ? gameScenesMsPacMan : gameScenesPacMan;
+		return switch (state) {
+		case BOOT -> scenes.get(0);
+		case INTRO -> scenes.get(1);
+		case CREDIT -> scenes.get(2);
+		case INTERMISSION -> {
+			var level = game.level();
+			if (level.isPresent()) {
+				yield scenes.get(2 + level.get().intermissionNumber);
+			}
+			throw new IllegalStateException("No game level is present");
+		}
+		case INTERMISSION_TEST -> scenes.get(2 + game.intermissionTestNumber);
+		default -> scenes.get(6);
+		};
+	}
+}
@@ -25,11 +25,16 @@ package de.amr.games.pacman.ui.swing.shell;
 
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
  * Keyboard handler.
+ * <p>
+ * Key presses are written by the event dispatch thread into a single-producer/single-consumer ring buffer together
+ * with their {@link System#nanoTime()} time stamp. The game thread drains the buffer once per tick by {@link #poll()},
+ * so no press is lost even if the key is released before the next tick. Keys are specified by codes compiled ahead of
+ * time by {@link #key(int, String)}, queries and bound actions are looked up in flat arrays indexed by these codes.
  * 
  * @author Armin Reichert
  */
@@ -42,6 +47,9 @@ public class Keyboard {
 	public static final byte MOD_CTRL = 0x2;
 	public static final byte MOD_SHIFT = 0x4;
 
+	private static final int NUM_KEYS = 8 << 8; // modifier mask (3 bits) and key code (8 bits)
+	private static final int RING_SIZE = 256; // power of 2
+
 	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
 	private static final String DIGITS = "0123456789";
 	//@formatter:off
@@ -75,61 +83,148 @@ public class Keyboard {
 	}
 
 	/**
-	 * @param keySpec key specifier
-	 * @return {@code true} if the specified key is pressed without any modifier key (ALT, CONTROL, SHIFT)
+	 * @param spec key specifier like "A", "5", "Up", "Esc", "Space"
+	 * @return code of the specified key without any modifier key (ALT, CONTROL, SHIFT)
 	 */
-	public static boolean keyPressed(String spec) {
-		return keyPressed(MOD_NONE, spec);
+	public static int key(String spec) {
+		return key(MOD_NONE, spec);
 	}
 
 	/**
-	 * @param keySpec key specifier like "A", "5", "Up", "Esc", "Space".
-	 * @return {@code true} if the specified key is pressed with the specified modifiers (MOD_ALT | MOD_CONTROL |
-	 *         MOD_SHIFT)
+	 * @param modifiers modifier mask (MOD_ALT | MOD_CONTROL | MOD_SHIFT)
+	 * @param spec      key specifier like "A", "5", "Up", "Esc", "Space"
+	 * @return code of the specified key with the specified modifiers
 	 */
-	public static boolean keyPressed(int modifiers, String spec) {
-		boolean pressed = theKeyboard.pressedState.get(code(spec));
-		if (pressed) {
-			theKeyboard.pressedState.clear(code(spec)); // TODO hack
+	public static int key(int modifiers, String spec) {
+		if (modifiers < 0 || modifiers > (MOD_ALT | MOD_CTRL | MOD_SHIFT)) {
+			throw new IllegalArgumentException(String.format("Illegal modifier mask: %d", modifiers));
 		}
-		return theKeyboard.modifierMask == modifiers && pressed;
+		return modifiers << 8 | code(spec);
+	}
+
+	/**
+	 * @param key key code, see {@link #key(int, String)}
+	 * @return {@code true} if the key was pressed since the previous tick
+	 */
+	public static boolean keyPressed(int key) {
+		return theKeyboard.pressedInTick[key] == theKeyboard.tick;
+	}
+
+	/**
+	 * @param key key code, see {@link #key(int, String)}
+	 * @return {@link System#nanoTime()} of the first press of the key since the previous tick or {@code 0} if the key
+	 *         was not pressed
+	 */
+	public static long pressTime(int key) {
+		return keyPressed(key) ? theKeyboard.pressTime[key] : 0;
 	}
 
 	public final KeyAdapter handler;
-	private final BitSet pressedState = new BitSet(256);
-	private byte modifierMask;
+
+	// ring buffer, written by the event dispatch thread, read by the game thread
+	private final int[] ringKeys = new int[RING_SIZE];
+	private final long[] ringTimes = new long[RING_SIZE];
+	private volatile long ringHead; // written by consumer
+	private volatile long ringTail; // written by producer
+	private volatile long droppedPresses; // written by producer
+
+	// state of the current tick, only accessed by the game thread
+	private final long[] pressedInTick = new long[NUM_KEYS];
+	private final long[] pressTime = new long[NUM_KEYS];
+	private final int[] tickPresses = new int[RING_SIZE];
+	private int numTickPresses;
+	private long tick;
+
+	private final Runnable[] actions = new Runnable[NUM_KEYS];
 
 	public Keyboard() {
 		handler = new KeyAdapter() {
 
 			@Override
 			public void keyPressed(KeyEvent e) {
-				updateModifierMask(e);
 				int code = e.getKeyCode();
 				if (0 < code && code <= 255) {
-					pressedState.set(code);
+					offer(modifierMask(e) << 8 | code, System.nanoTime());
 				}
 			}
-
-			@Override
-			public void keyReleased(KeyEvent e) {
-				updateModifierMask(e);
-				int code = e.getKeyCode();
-				pressedState.clear(code);
-			}
 		};
+		Arrays.fill(pressedInTick, -1);
 	}
 
-	private void updateModifierMask(KeyEvent e) {
-		modifierMask = MOD_NONE;
+	private static int modifierMask(KeyEvent e) {
+		int mask = MOD_NONE;
 		if (e.isAltDown()) {
-			modifierMask |= MOD_ALT;
+			mask |= MOD_ALT;
 		}
 		if (e.isControlDown()) {
-			modifierMask |= MOD_CTRL;
+			mask |= MOD_CTRL;
 		}
 		if (e.isShiftDown()) {
-			modifierMask |= MOD_SHIFT;
+			mask |= MOD_SHIFT;
 		}
+		return mask;
+	}
+
+	private void offer(int key, long time) {
+		long tail = ringTail;
+		if (tail - ringHead == RING_SIZE) {
+			++droppedPresses;
+			return;
+		}
+		int index = (int) tail & (RING_SIZE - 1);
+		ringKeys[index] = key;
+		ringTimes[index] = time;
+		ringTail = tail + 1; // publishes the entry
+	}
+
+	/**
+	 * Drains the key presses received since the previous call. Must be called by the game thread once per tick before the
+	 * keyboard state is queried.
+	 */
+	public void poll() {
+		++tick;
+		numTickPresses = 0;
+		long head = ringHead;
+		long tail = ringTail;
+		while (head != tail) {
+			int index = (int) head & (RING_SIZE - 1);
+			int key = ringKeys[index];
+			if (pressedInTick[key] != tick) {
+				pressedInTick[key] = tick;
+				pressTime[key] = ringTimes[index];
+			}
+			tickPresses[numTickPresses++] = key;
+			++head;
+		}
+		ringHead = head;
+	}
+
+	/**
+	 * Binds an action to a key. The action is run by {@link #runBoundActions()}.
+	 * 
+	 * @param key    key code, see {@link #key(int, String)}
+	 * @param action action run when the key is pressed or {@code null} to remove the binding
+	 */
+	public void bind(int key, Runnable action) {
+		actions[key] = action;
+	}
+
+	/**
+	 * Runs the bound actions of the keys pressed since the previous tick in the order of the presses.
+	 */
+	public void runBoundActions() {
+		for (int i = 0; i < numTickPresses; ++i) {
+			var action = actions[tickPresses[i]];
+			if (action != null) {
+				action.run();
+			}
+		}
+	}
+
+	/**
+	 * @return number of key presses dropped because the game thread did not poll fast enough
+	 */
+	public long droppedPresses() {
+		return droppedPresses;
 	}
 }
\ No newline at end of file
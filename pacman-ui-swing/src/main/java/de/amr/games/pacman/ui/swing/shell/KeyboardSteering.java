@@ -27,36 +27,69 @@ import de.amr.games.pacman.controller.Steering;
 import de.amr.games.pacman.lib.steering.Direction;
 import de.amr.games.pacman.model.GameLevel;
 import de.amr.games.pacman.model.actors.Creature;
+import de.amr.games.pacman.ui.swing.app.InputLatencyTracer;
 
 /**
- * Controls the player using the keyboard.
+ * Controls the player using the keyboard. A pressed direction becomes the wish direction of the player immediately,
+ * the {@link TurnBuffer} counts if the player takes the turn in time.
  * 
  * @author Armin Reichert
  */
 public class KeyboardSteering extends Steering {
 
-	private String up;
-	private String down;
-	private String left;
-	private String right;
+	private final int up;
+	private final int down;
+	private final int left;
+	private final int right;
+	private final TurnBuffer turnBuffer;
+	private InputLatencyTracer latencyTracer;
 
-	public KeyboardSteering(String up, String down, String left, String right) {
-		this.up = up;
-		this.down = down;
-		this.left = left;
-		this.right = right;
+	/**
+	 * @param turnBufferLifetime number of ticks a pressed turn counts as taken in time, only used for the statistics of
+	 *                           the {@link TurnBuffer}
+	 */
+	public KeyboardSteering(String up, String down, String left, String right, int turnBufferLifetime) {
+		this.up = Keyboard.key(up);
+		this.down = Keyboard.key(down);
+		this.left = Keyboard.key(left);
+		this.right = Keyboard.key(right);
+		turnBuffer = new TurnBuffer(turnBufferLifetime);
+	}
+
+	public TurnBuffer turnBuffer() {
+		return turnBuffer;
+	}
+
+	/**
+	 * @param latencyTracer tracer notified when a key press changes the wish direction or {@code null}
+	 */
+	public void setLatencyTracer(InputLatencyTracer latencyTracer) {
+		this.latencyTracer = latencyTracer;
 	}
 
 	@Override
 	public void steer(GameLevel level, Creature pac) {
 		if (Keyboard.keyPressed(up)) {
-			pac.setWishDir(Direction.UP);
+			wish(pac, Direction.UP, Keyboard.pressTime(up));
 		} else if (Keyboard.keyPressed(down)) {
-			pac.setWishDir(Direction.DOWN);
+			wish(pac, Direction.DOWN, Keyboard.pressTime(down));
 		} else if (Keyboard.keyPressed(left)) {
-			pac.setWishDir(Direction.LEFT);
+			wish(pac, Direction.LEFT, Keyboard.pressTime(left));
 		} else if (Keyboard.keyPressed(right)) {
-			pac.setWishDir(Direction.RIGHT);
+			wish(pac, Direction.RIGHT, Keyboard.pressTime(right));
+		}
+		turnBuffer.poll(pac);
+	}
+
+	private void wish(Creature pac, Direction dir, long pressTime) {
+		// an auto-repeated key press does not restart the trace of the first press
+		if (latencyTracer != null && dir != pac.wishDir()) {
+			latencyTracer.keyConsumed(pac, dir, pressTime);
+		}
+		pac.setWishDir(dir);
+		// moving on and reversing are always possible, only real turns are counted
+		if (dir != pac.moveDir() && dir != pac.moveDir().opposite()) {
+			turnBuffer.request(dir, pressTime);
 		}
 	}
 }
\ No newline at end of file
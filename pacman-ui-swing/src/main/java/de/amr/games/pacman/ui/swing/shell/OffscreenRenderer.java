@@ -0,0 +1,225 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.shell;
+
+import static de.amr.games.pacman.lib.Globals.TS;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import org.tinylog.Logger;
+
+import de.amr.games.pacman.controller.GameController;
+import de.amr.games.pacman.controller.GameState;
+import de.amr.games.pacman.event.GameEvent;
+import de.amr.games.pacman.event.GameEventListener;
+import de.amr.games.pacman.event.GameEvents;
+import de.amr.games.pacman.event.GameStateChangeEvent;
+import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.app.FrameStats;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
+import de.amr.games.pacman.ui.swing.rendering.common.LevelAnimations;
+import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
+
+/**
+ * Renders game scenes into an image in system memory, without a window. Can be used with
+ * <code>java.awt.headless=true</code>, e.g. for benchmarks or rendering checks on machines without a display.
+ * <p>
+ * The game is stepped tick by tick by {@link #step()}. By default the scene follows the game state like in the game
+ * window, alternatively a fixed scene can be set. The frame is rendered by {@link #render()} into an image which is
+ * reused for all frames and can be read as pixel array.
+ * <p>
+ * The renderer listens to game events from construction until it is closed.
+ * 
+ * @author Armin Reichert
+ */
+public class OffscreenRenderer implements GameEventListener, AutoCloseable {
+
+	private final GameController gameController;
+	private final GameScenes gameScenes = new GameScenes();
+	private final AnimationScheduler animationScheduler = new AnimationScheduler();
+	private final LevelAnimations levelAnimations = new LevelAnimations(animationScheduler);
+	private final FrameStats stats = new FrameStats();
+	private final SceneCompositor compositor;
+	private final BufferedImage image;
+	private final int[] pixels;
+	private final Graphics2D g;
+	private GameScene fixedScene;
+	private GameScene currentScene;
+	private long ticks;
+
+	/**
+	 * @param gameController game controller
+	 * @param scaling        scaling of the rendered image, scenes have a size of 224x288 pixels
+	 */
+	public OffscreenRenderer(GameController gameController, float scaling) {
+		if (scaling <= 0) {
+			throw new IllegalArgumentException("Scaling must be positive but is " + scaling);
+		}
+		this.gameController = gameController;
+		int width = World.TILES_X * TS;
+		int height = World.TILES_Y * TS;
+		compositor = new SceneCompositor(width, height, stats);
+		image = new BufferedImage(Math.round(scaling * width), Math.round(scaling * height), BufferedImage.TYPE_INT_RGB);
+		pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+		g.scale(scaling, scaling);
+		GameEvents.addListener(this);
+	}
+
+	/**
+	 * @param scene scene rendered regardless of the game state or {@code null} to follow the game state. Intermissions
+	 *              are skipped while a fixed scene is set because they are ended by their scenes.
+	 */
+	public void setScene(GameScene scene) {
+		fixedScene = scene;
+		selectScene(gameController.state(), true);
+	}
+
+	/**
+	 * @return current scene
+	 */
+	public GameScene scene() {
+		return currentScene;
+	}
+
+	/**
+	 * Advances the game and the current scene by one tick.
+	 */
+	public void step() {
+		if (currentScene == null) {
+			selectScene(gameController.state(), true);
+		}
+		gameController.update();
+		currentScene.update();
+		animationScheduler.advance();
+		++ticks;
+	}
+
+	/**
+	 * Advances the game by the given number of ticks, rendering each tick.
+	 * 
+	 * @param numTicks number of ticks
+	 */
+	public void run(int numTicks) {
+		for (int i = 0; i < numTicks; ++i) {
+			step();
+			render();
+		}
+	}
+
+	/**
+	 * Renders the current scene.
+	 * 
+	 * @return the rendered image (always the same instance)
+	 */
+	public BufferedImage render() {
+		if (currentScene == null) {
+			selectScene(gameController.state(), true);
+		}
+		compositor.compose(currentScene, g);
+		return image;
+	}
+
+	/**
+	 * @return image the scenes are rendered into, of type {@link BufferedImage#TYPE_INT_RGB}
+	 */
+	public BufferedImage image() {
+		return image;
+	}
+
+	/**
+	 * @return pixels (RGB) of the rendered image, row by row, backed by the image
+	 */
+	public int[] pixels() {
+		return pixels;
+	}
+
+	/**
+	 * @return number of ticks stepped
+	 */
+	public long ticks() {
+		return ticks;
+	}
+
+	/**
+	 * @return statistics of the scene compositor (redrawn layer pixels)
+	 */
+	public FrameStats stats() {
+		return stats;
+	}
+
+	/**
+	 * Stops listening to game events and releases the graphics context. The renderer cannot be used afterwards.
+	 */
+	@Override
+	public void close() {
+		GameEvents.removeListener(this);
+		g.dispose();
+	}
+
+	private void selectScene(GameState state, boolean forced) {
+		var newScene = fixedScene != null ? fixedScene : gameScenes.sceneForGameState(gameController.game(), state);
+		if (newScene != currentScene || forced) {
+			if (currentScene != null) {
+				currentScene.end();
+			}
+			newScene.setContext(gameController, animationScheduler);
+			newScene.init();
+			compositor.invalidate();
+			Logger.trace("Offscreen scene changed from {} to {}", currentScene, newScene);
+		}
+		currentScene = newScene;
+	}
+
+	@Override
+	public void onGameEvent(GameEvent event) {
+		GameEventListener.super.onGameEvent(event);
+		if (currentScene != null) {
+			currentScene.onGameEvent(event);
+		}
+	}
+
+	@Override
+	public void onUnspecifiedChange(GameEvent e) {
+		selectScene(gameController.state(), true);
+	}
+
+	@Override
+	public void onGameStateChange(GameStateChangeEvent e) {
+		if (fixedScene != null && e.newGameState == GameState.INTERMISSION) {
+			gameController.terminateCurrentState();
+			return;
+		}
+		selectScene(e.newGameState, false);
+	}
+
+	@Override
+	public void onLevelStarting(GameEvent e) {
+		levelAnimations.install(gameController.game());
+	}
+}
@@ -35,11 +35,19 @@ import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.EventQueue;
 import java.awt.Graphics2D;
-import java.awt.RenderingHints;
 import java.awt.Robot;
+import java.awt.Toolkit;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.util.List;
+import java.awt.geom.AffineTransform;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 import javax.swing.JFrame;
 import javax.swing.Timer;
@@ -55,26 +63,22 @@ import de.amr.games.pacman.event.GameStateChangeEvent;
 import de.amr.games.pacman.event.SoundEvent;
 import de.amr.games.pacman.lib.math.Vector2i;
 import de.amr.games.pacman.model.world.World;
+import de.amr.games.pacman.ui.swing.app.FrameStats.Phase;
 import de.amr.games.pacman.ui.swing.app.GameLoop;
+import de.amr.games.pacman.ui.swing.app.InputLatencyTracer;
+import de.amr.games.pacman.ui.swing.lib.AcceleratedImages;
+import de.amr.games.pacman.ui.swing.lib.AssetLoader;
+import de.amr.games.pacman.ui.swing.lib.DamageTracker;
+import de.amr.games.pacman.ui.swing.lib.FrameExchange;
+import de.amr.games.pacman.ui.swing.lib.FrameRecorder;
+import de.amr.games.pacman.ui.swing.lib.SpriteBatch;
 import de.amr.games.pacman.ui.swing.lib.Ujfc;
-import de.amr.games.pacman.ui.swing.rendering.common.GhostAnimations;
-import de.amr.games.pacman.ui.swing.rendering.common.PacAnimations;
-import de.amr.games.pacman.ui.swing.rendering.common.WorldAnimations;
-import de.amr.games.pacman.ui.swing.rendering.mspacman.SpritesheetMsPacMan;
-import de.amr.games.pacman.ui.swing.rendering.pacman.SpritesheetPacMan;
-import de.amr.games.pacman.ui.swing.scenes.common.BootScene;
+import de.amr.games.pacman.ui.swing.rendering.common.ActorCapture;
+import de.amr.games.pacman.ui.swing.rendering.common.AnimationScheduler;
+import de.amr.games.pacman.ui.swing.rendering.common.DebugDraw;
+import de.amr.games.pacman.ui.swing.rendering.common.LevelAnimations;
 import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
-import de.amr.games.pacman.ui.swing.scenes.common.PlayScene;
-import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManCreditScene;
-import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene1;
-import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene2;
-import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntermissionScene3;
-import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacManIntroScene;
-import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCreditScene;
-import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene1;
-import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene2;
-import de.amr.games.pacman.ui.swing.scenes.pacman.PacManCutscene3;
-import de.amr.games.pacman.ui.swing.scenes.pacman.PacManIntroScene;
+import de.amr.games.pacman.ui.swing.shell.RenderQualityGovernor.Tier;
 
 /**
  * A Swing UI for the Pac-Man / Ms. Pac-Man game.
@@ -83,6 +87,24 @@ import de.amr.games.pacman.ui.swing.scenes.pacman.PacManIntroScene;
  */
 public class PacManGameUI implements GameEventListener {
 
+	/**
+	 * How rendered frames are presented on the screen.
+	 */
+	public enum RenderMode {
+		/** Frames are presented on the event dispatch thread. */
+		PASSIVE,
+		/** Frames are presented by a dedicated render thread. */
+		ACTIVE,
+		/**
+		 * Frames are presented by a dedicated render thread at display rate. Moving actors are drawn at positions
+		 * interpolated between the last two simulation ticks.
+		 */
+		INTERPOLATED
+	}
+
+	/** Actors moving farther than this distance (pixels) between two ticks are not interpolated (teleport, tunnel). */
+	private static final float MAX_INTERPOLATION_DISTANCE = 2 * TS;
+
 	private static boolean debugDraw = false;
 
 	public static boolean isDebugDraw() {
@@ -103,27 +125,31 @@ public class PacManGameUI implements GameEventListener {
 	private final Timer titleUpdateTimer;
 	private final Canvas canvas;
 	private final FlashMessageDisplay flashMessageDisplay;
-
-	private final List<GameScene> gameScenesPacMan = List.of( //
-			new BootScene(), //
-			new PacManIntroScene(), //
-			new PacManCreditScene(), //
-			new PacManCutscene1(), //
-			new PacManCutscene2(), //
-			new PacManCutscene3(), //
-			new PlayScene() //
-	);
-
-	private final List<GameScene> gameScenesMsPacMan = List.of( //
-			new BootScene(), //
-			new MsPacManIntroScene(), //
-			new MsPacManCreditScene(), //
-			new MsPacManIntermissionScene1(), //
-			new MsPacManIntermissionScene2(), //
-			new MsPacManIntermissionScene3(), //
-			new PlayScene()//
-	);
-
+	private final FrameExchange frameExchange;
+	private final DamageTracker damageTracker;
+	private final SceneCompositor compositor;
+	private final RenderQualityGovernor qualityGovernor = new RenderQualityGovernor();
+	private final InputLatencyTracer latencyTracer = new InputLatencyTracer();
+	private final AtomicBoolean presentationPending = new AtomicBoolean();
+	private final Runnable presentation = this::renderScreen;
+	private RenderMode renderMode = RenderMode.PASSIVE;
+	private int numBuffers = 2;
+	private int displayFPS = 120;
+	private Thread renderThread;
+	private long lastPresentedSeq;
+	private final SpriteBatch currActors = new SpriteBatch(32);
+	private final SpriteBatch prevActors = new SpriteBatch(32);
+	private final AffineTransform spriteTransform = new AffineTransform();
+	private long currPublishTime;
+	private long[] bufferSeqs; // sequence number of the frame presented into each back buffer, 0 = unknown
+	private int bufferIndex;
+	private Tier lastPresentedTier;
+	private FrameRecorder.Format recordingFormat = FrameRecorder.Format.PNG;
+	private volatile FrameRecorder recorder;
+
+	private final GameScenes gameScenes = new GameScenes();
+	private final AnimationScheduler animationScheduler = new AnimationScheduler();
+	private final LevelAnimations levelAnimations = new LevelAnimations(animationScheduler);
 	private GameScene currentGameScene;
 
 	public PacManGameUI(GameLoop gameLoop, GameController controller, float height) {
@@ -134,6 +160,9 @@ public class PacManGameUI implements GameEventListener {
 		this.scaledSize = new Vector2i(Math.round(scaling * unscaledSize.x()), Math.round(scaling * unscaledSize.y()));
 
 		flashMessageDisplay = new FlashMessageDisplay(unscaledSize);
+		frameExchange = new FrameExchange(unscaledSize.x(), unscaledSize.y());
+		damageTracker = new DamageTracker(unscaledSize.x(), unscaledSize.y());
+		compositor = new SceneCompositor(unscaledSize.x(), unscaledSize.y(), gameLoop.clock.stats());
 
 		canvas = new Canvas();
 		canvas.setBackground(Color.BLACK);
@@ -153,10 +182,12 @@ public class PacManGameUI implements GameEventListener {
 			public void windowClosing(WindowEvent e) {
 				titleUpdateTimer.stop();
 				gameLoop.end();
+				stopRecording(true);
 			}
 		});
 		window.getContentPane().add(canvas);
 		window.addKeyListener(Keyboard.theKeyboard.handler);
+		bindNonPlayerKeys();
 
 		titleUpdateTimer = new Timer(1000, e -> window.setTitle(String.format("%s (%d fps, JFC Swing)",
 				gameController.game().variant() == MS_PACMAN ? "Ms. Pac-Man" : "Pac-Man", gameLoop.clock.getLastFPS())));
@@ -169,10 +200,87 @@ public class PacManGameUI implements GameEventListener {
 		window.pack();
 		window.setLocationRelativeTo(null);
 		window.setVisible(true);
+		canvas.createBufferStrategy(numBuffers);
+		bufferSeqs = new long[numBuffers - 1];
+		frameExchange.setChangeTracking(renderMode != RenderMode.INTERPOLATED);
+		AcceleratedImages.register("Frame", frameExchange.backFrame().image);
+		qualityGovernor.calibrate(canvas.getGraphicsConfiguration(), unscaledSize.x(), unscaledSize.y(), scaling,
+				presentationBudgetNanos());
+		if (renderMode != RenderMode.PASSIVE) {
+			renderThread = new Thread(renderMode == RenderMode.INTERPOLATED ? this::renderLoopAtDisplayRate : this::renderLoop,
+					"Render");
+			renderThread.setDaemon(true);
+			renderThread.start();
+		}
 		moveMousePointerOutOfSight();
 		titleUpdateTimer.start();
 	}
 
+	public RenderMode getRenderMode() {
+		return renderMode;
+	}
+
+	/**
+	 * @param renderMode render mode, must be set before the UI is shown
+	 */
+	public void setRenderMode(RenderMode renderMode) {
+		if (renderThread != null) {
+			throw new IllegalStateException("Render mode cannot be changed after UI has been shown");
+		}
+		this.renderMode = renderMode;
+	}
+
+	public RenderQualityGovernor getQualityGovernor() {
+		return qualityGovernor;
+	}
+
+	/**
+	 * @return tracer of the latency between a steering key press and the presentation of the first frame showing its
+	 *         effect
+	 */
+	public InputLatencyTracer latencyTracer() {
+		return latencyTracer;
+	}
+
+	public int getDisplayFPS() {
+		return displayFPS;
+	}
+
+	/**
+	 * @param displayFPS frames per second presented in interpolated render mode
+	 */
+	public void setDisplayFPS(int displayFPS) {
+		if (displayFPS <= 0) {
+			throw new IllegalArgumentException("Display FPS must be positive but is " + displayFPS);
+		}
+		this.displayFPS = displayFPS;
+	}
+
+	public int getNumBuffers() {
+		return numBuffers;
+	}
+
+	public FrameRecorder.Format getRecordingFormat() {
+		return recordingFormat;
+	}
+
+	/**
+	 * @param recordingFormat format used when recording is started (Ctrl+R)
+	 */
+	public void setRecordingFormat(FrameRecorder.Format recordingFormat) {
+		this.recordingFormat = recordingFormat;
+	}
+
+	/**
+	 * @param numBuffers number of buffers (2 or 3) of the canvas buffer strategy, must be set before the UI is shown
+	 */
+	public void setNumBuffers(int numBuffers) {
+		if (numBuffers != 2 && numBuffers != 3) {
+			throw new IllegalArgumentException("Number of buffers must be 2 or 3 but is " + numBuffers);
+		}
+		this.numBuffers = numBuffers;
+	}
+
 	@Override
 	public void onGameEvent(GameEvent event) {
 		GameEventListener.super.onGameEvent(event);
@@ -192,15 +300,7 @@ public class PacManGameUI implements GameEventListener {
 	// this is dubious but we need some point in time where the animations are created
 	@Override
 	public void onLevelStarting(GameEvent e) {
-		gameController.game().level().ifPresent(level -> {
-			var gss = switch (gameController.game().variant()) {
-			case MS_PACMAN -> SpritesheetMsPacMan.get();
-			case PACMAN -> SpritesheetPacMan.get();
-			};
-			level.world().setAnimations(new WorldAnimations(gss, gss.mazeNumber(level.number())));
-			level.pac().setAnimations(new PacAnimations(level.pac(), gss));
-			level.ghosts().forEach(ghost -> ghost.setAnimations(new GhostAnimations(ghost, gss)));
-		});
+		levelAnimations.install(gameController.game());
 	}
 
 	@Override
@@ -209,7 +309,7 @@ public class PacManGameUI implements GameEventListener {
 	}
 
 	private void updateGameScene(GameState gameState, boolean forced) {
-		var newGameScene = getSceneForGameState(gameState);
+		var newGameScene = gameScenes.sceneForGameState(gameController.game(), gameState);
 		if (newGameScene == null) {
 			throw new IllegalStateException("No scene found for game state " + gameState);
 		}
@@ -217,132 +317,319 @@ public class PacManGameUI implements GameEventListener {
 			if (currentGameScene != null) {
 				currentGameScene.end();
 			}
-			newGameScene.setContext(gameController);
+			newGameScene.setContext(gameController, animationScheduler);
 			newGameScene.init();
 			Logger.info("Current scene changed from {} to {}", currentGameScene, newGameScene);
 		}
 		currentGameScene = newGameScene;
 	}
 
-	private GameScene getSceneForGameState(GameState state) {
-		var game = gameController.game();
-		var scenes = game.variant() == MS_PACMAN ? gameScenesMsPacMan : gameScenesPacMan;
-		return switch (state) {
-		case BOOT -> scenes.get(0);
-		case INTRO -> scenes.get(1);
-		case CREDIT -> scenes.get(2);
-		case INTERMISSION -> {
-			var level = game.level();
-			if (level.isPresent()) {
-				yield scenes.get(2 + level.get().intermissionNumber);
-			}
-			throw new IllegalStateException("No game level is present");
-		}
-		case INTERMISSION_TEST -> scenes.get(2 + game.intermissionTestNumber);
-		default -> scenes.get(6);
-		};
-	}
-
 	public void update() {
 		handleNonPlayerKeys();
 		if (currentGameScene != null) {
+			long updateStart = System.nanoTime();
 			currentGameScene.update();
+			animationScheduler.advance();
+			gameLoop.clock.stats().record(Phase.SCENE_UPDATE, System.nanoTime() - updateStart);
 		}
 		flashMessageDisplay.update();
-		EventQueue.invokeLater(this::renderScreen);
 	}
 
-	private void renderScreen() {
+	/**
+	 * Renders the current scene into the next frame of the frame exchange. Called on the game loop thread after the
+	 * update such that the scene is never rendered while the model is changed. The frame is presented on the EDT.
+	 */
+	public void render() {
 		if (currentGameScene == null) {
 			return;
 		}
-		if (canvas.getBufferStrategy() == null) {
-			canvas.createBufferStrategy(2);
+		long renderStart = System.nanoTime();
+		var frame = frameExchange.backFrame();
+		var g = frame.graphics();
+		if (renderMode == RenderMode.INTERPOLATED) {
+			// actors are drawn when presenting, so everything above them goes into the overlay
+			ActorCapture.begin(g, frame.actors);
+			compositor.composeScene(currentGameScene, g);
+			ActorCapture.end(g);
+			if (debugDraw || flashMessageDisplay.hasMessage()) {
+				renderOverlays(frame.overlayGraphics());
+			} else {
+				frame.clearOverlay();
+			}
+		} else {
+			DamageTracker.begin(g, damageTracker);
+			compositor.composeScene(currentGameScene, g);
+			renderOverlays(g);
+			DamageTracker.end(g);
+		}
+		// flash messages and debug information do not report their bounds, such frames are presented completely
+		boolean damageKnown = renderMode != RenderMode.INTERPOLATED && currentGameScene.tracksDamage() && !debugDraw
+				&& !flashMessageDisplay.hasMessage();
+		long damage = damageKnown ? damageTracker.mask() : FrameExchange.ALL_BLOCKS;
+		latencyTracer.frameRendered(renderStart, frameExchange.nextSeq());
+		frameExchange.publish(gameLoop.clock.getTotalFrames(), damage);
+		gameLoop.clock.stats().record(Phase.RENDER, System.nanoTime() - renderStart);
+		if (renderMode == RenderMode.ACTIVE) {
+			LockSupport.unpark(renderThread);
+		} else if (renderMode == RenderMode.PASSIVE && presentationPending.compareAndSet(false, true)) {
+			EventQueue.invokeLater(presentation);
+		}
+	}
+
+	private void renderOverlays(Graphics2D g) {
+		currentGameScene.renderOverlay(g);
+		flashMessageDisplay.setFadingEnabled(qualityGovernor.isCosmeticsEnabled());
+		flashMessageDisplay.render(g);
+		if (debugDraw) {
+			DebugDraw.drawInputLatency(g, latencyTracer);
+		}
+	}
+
+	private void renderLoop() {
+		while (!Thread.currentThread().isInterrupted()) {
+			LockSupport.park(this);
+			renderScreen();
+		}
+	}
+
+	private void renderLoopAtDisplayRate() {
+		long nextFrameTime = System.nanoTime();
+		while (!Thread.currentThread().isInterrupted()) {
+			renderScreen();
+			nextFrameTime += 1_000_000_000L / displayFPS;
+			long waitTime = nextFrameTime - System.nanoTime();
+			if (waitTime > 0) {
+				LockSupport.parkNanos(waitTime);
+			} else {
+				nextFrameTime = System.nanoTime();
+			}
+		}
+	}
+
+	/**
+	 * Presents the latest rendered frame. Called on the EDT (passive mode) or on the render thread (active and
+	 * interpolated mode).
+	 * <p>
+	 * If the back buffer keeps its contents (blit buffer strategy) and the frame is scaled using nearest neighbor
+	 * interpolation, only the blocks that changed since the frame presented into the back buffer are copied.
+	 */
+	private void renderScreen() {
+		presentationPending.set(false);
+		var frame = frameExchange.latestFrame();
+		if (frame == null || canvas.getBufferStrategy() == null) {
+			return;
+		}
+		boolean newFrame = frame.seq() != lastPresentedSeq;
+		if (!newFrame && renderMode != RenderMode.INTERPOLATED) {
 			return;
 		}
+		if (newFrame) {
+			var activeRecorder = recorder;
+			if (activeRecorder != null) {
+				activeRecorder.offer(frame.pixels(), frame.publishTime());
+			}
+			if (frame.seq() > lastPresentedSeq + 1) {
+				gameLoop.clock.stats().countSkippedFrames(frame.seq() - lastPresentedSeq - 1);
+			}
+			lastPresentedSeq = frame.seq();
+			prevActors.copyFrom(currActors);
+			currActors.copyFrom(frame.actors);
+			currPublishTime = frame.publishTime();
+		}
+		long showStart = System.nanoTime();
+		var bufferStrategy = canvas.getBufferStrategy();
+		var tier = qualityGovernor.getTier();
+		if (tier != lastPresentedTier || bufferStrategy.getCapabilities().isPageFlipping()) {
+			Arrays.fill(bufferSeqs, 0);
+			lastPresentedTier = tier;
+		}
+		long blocks = tier == Tier.BILINEAR ? FrameExchange.ALL_BLOCKS
+				: frameExchange.changedBlocksSince(bufferSeqs[bufferIndex]);
+		long pixels = 0;
+		long drawNanos = 0; // without the wait for the buffer flip (vsync)
+		boolean restored;
 		do {
 			do {
-				Graphics2D g = (Graphics2D) canvas.getBufferStrategy().getDrawGraphics();
-				g.setColor(Color.BLACK);
-				g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
-				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-				g.scale(scaling, scaling);
-				currentGameScene.render(g);
-				flashMessageDisplay.render(g);
+				long drawStart = System.nanoTime();
+				Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
+				if (blocks == FrameExchange.ALL_BLOCKS && !qualityGovernor.coversCanvas(scaling)) {
+					g.setColor(Color.BLACK);
+					g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+				}
+				qualityGovernor.configure(g, scaling, canvas.getWidth(), canvas.getHeight(), unscaledSize.x(),
+						unscaledSize.y());
+				pixels = frameExchange.drawBlocks(g, frame.image, blocks);
+				if (renderMode == RenderMode.INTERPOLATED) {
+					drawInterpolatedActors(g);
+					var overlay = frame.overlay();
+					if (overlay != null) {
+						g.drawImage(overlay, 0, 0, null);
+					}
+				}
 				g.dispose();
-			} while (canvas.getBufferStrategy().contentsRestored());
-			canvas.getBufferStrategy().show();
-		} while (canvas.getBufferStrategy().contentsLost());
+				drawNanos += System.nanoTime() - drawStart;
+				restored = bufferStrategy.contentsRestored();
+				if (restored) {
+					blocks = FrameExchange.ALL_BLOCKS;
+				}
+			} while (restored);
+			bufferStrategy.show();
+			Toolkit.getDefaultToolkit().sync();
+			if (bufferStrategy.contentsLost()) {
+				Arrays.fill(bufferSeqs, 0);
+				blocks = FrameExchange.ALL_BLOCKS;
+				restored = true;
+			}
+		} while (restored);
+		latencyTracer.framePresented(frame.seq());
+		bufferSeqs[bufferIndex] = frame.seq();
+		bufferIndex = (bufferIndex + 1) % bufferSeqs.length;
+		long showDuration = System.nanoTime() - showStart;
+		gameLoop.clock.stats().record(Phase.SHOW, showDuration);
+		gameLoop.clock.stats().countPresentedPixels(pixels);
+		qualityGovernor.frameCompleted(drawNanos, presentationBudgetNanos());
+		AssetLoader.get().firstFramePresented();
 	}
 
-	public void showFlashMessage(double seconds, String message, Object... args) {
-		flashMessageDisplay.addMessage(seconds, message, args);
+	private long presentationBudgetNanos() {
+		int fps = renderMode == RenderMode.INTERPOLATED ? displayFPS : gameLoop.clock.getTargetFPS();
+		return 1_000_000_000L / fps;
 	}
 
-	private void handleNonPlayerKeys() {
-		var game = gameController.game();
-
-		if (Keyboard.keyPressed("A")) {
-			gameController.toggleAutoControlled();
-			showFlashMessage(1, "Autopilot %s", gameController.isAutoControlled() ? "on" : "off");
+	private void drawInterpolatedActors(Graphics2D g) {
+		double tickDurationNanos = 1e9 / gameLoop.clock.getTargetFPS();
+		float alpha = (float) Math.min(1.0, (System.nanoTime() - currPublishTime) / tickDurationNanos);
+		for (int i = 0; i < currActors.size(); ++i) {
+			float x = currActors.x(i);
+			float y = currActors.y(i);
+			int prev = prevActors.indexOf(currActors.key(i));
+			if (prev != -1) {
+				float dx = x - prevActors.x(prev);
+				float dy = y - prevActors.y(prev);
+				if (Math.abs(dx) <= MAX_INTERPOLATION_DISTANCE && Math.abs(dy) <= MAX_INTERPOLATION_DISTANCE) {
+					// state is drawn one tick behind: at alpha=0 the previous position, at alpha=1 the current
+					x = x - dx + alpha * dx;
+					y = y - dy + alpha * dy;
+				}
+			}
+			spriteTransform.setToTranslation(x, y);
+			g.drawImage(currActors.sprite(i), spriteTransform, null);
 		}
+	}
 
-		else if (Keyboard.keyPressed(MOD_CTRL, "D")) {
-			toggleDebugDraw();
-			Logger.info("UI debug mode is {}", debugDraw ? "on" : "off");
+	private void startRecording() {
+		var timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+		var directory = Path.of(System.getProperty("user.home"), "pacman-recordings", timestamp);
+		int numWorkers = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 2));
+		var newRecorder = new FrameRecorder(recordingFormat, directory, unscaledSize.x(), unscaledSize.y(), 16,
+				numWorkers);
+		try {
+			newRecorder.start();
+			recorder = newRecorder;
+			showFlashMessage(1, "Recording %s", recordingFormat);
+		} catch (IOException x) {
+			Logger.error("Could not start recording into {}: {}", directory, x.getMessage());
+			showFlashMessage(2, "Recording failed");
 		}
+	}
 
-		else if (Keyboard.keyPressed("E")) {
-			gameController.cheatEatAllPellets();
+	/**
+	 * @param wait if the frames already recorded should be written before returning (at most 5 seconds)
+	 */
+	private void stopRecording(boolean wait) {
+		var activeRecorder = recorder;
+		if (activeRecorder == null) {
+			return;
 		}
+		recorder = null;
+		var finished = activeRecorder.stop();
+		if (wait) {
+			try {
+				finished.get(5, TimeUnit.SECONDS);
+			} catch (Exception x) {
+				Logger.warn("Recording not finished: {}", x.getMessage());
+			}
+		}
+	}
+
+	public void showFlashMessage(double seconds, String message, Object... args) {
+		flashMessageDisplay.addMessage(seconds, message, args);
+	}
 
-		else if (Keyboard.keyPressed("I")) {
+	private void bindNonPlayerKeys() {
+		var keyboard = Keyboard.theKeyboard;
+		keyboard.bind(Keyboard.key("A"), () -> {
+			gameController.toggleAutoControlled();
+			showFlashMessage(1, "Autopilot %s", gameController.isAutoControlled() ? "on" : "off");
+		});
+		keyboard.bind(Keyboard.key(MOD_CTRL, "D"), () -> {
+			toggleDebugDraw();
+			Logger.info("UI debug mode is {}", debugDraw ? "on" : "off");
+		});
+		keyboard.bind(Keyboard.key("E"), gameController::cheatEatAllPellets);
+		keyboard.bind(Keyboard.key(MOD_CTRL, "G"), () -> {
+			int numAccelerated = AcceleratedImages.report(canvas.getGraphicsConfiguration());
+			showFlashMessage(1, "%d images accelerated", numAccelerated);
+		});
+		keyboard.bind(Keyboard.key("I"), () -> {
+			var game = gameController.game();
 			game.setImmune(!game.isImmune());
 			showFlashMessage(1, "Player is %s", game.isImmune() ? "immune" : "vulnerable");
-		}
-
-		else if (Keyboard.keyPressed("L")) {
+		});
+		keyboard.bind(Keyboard.key("L"), () -> {
+			var game = gameController.game();
 			if (game.isPlaying()) {
 				game.setLives(game.lives() + 3);
 			}
-		}
-
-		else if (Keyboard.keyPressed("N")) {
+		});
+		keyboard.bind(Keyboard.key("N"), () -> {
+			var game = gameController.game();
 			if (game.isPlaying()) {
 				gameController.changeState(GameState.LEVEL_COMPLETE);
 			}
-		}
-
-		else if (Keyboard.keyPressed("Q")) {
-			restartIntro();
-		}
-
-		else if (Keyboard.keyPressed(MOD_CTRL, "S")) {
-			int fps = gameLoop.clock.getTargetFPS() + 10;
+		});
+		keyboard.bind(Keyboard.key("Q"), this::restartIntro);
+		keyboard.bind(Keyboard.key(MOD_CTRL, "R"), () -> {
+			if (recorder == null) {
+				startRecording();
+			} else {
+				stopRecording(false);
+				showFlashMessage(1, "Recording stopped");
+			}
+		});
+		keyboard.bind(Keyboard.key(MOD_CTRL | MOD_SHIFT, "S"), () -> {
+			int fps = gameLoop.clock.getTargetFPS() - 10;
+			fps = Math.max(10, fps);
 			gameLoop.clock.setTargetFPS(fps);
 			showFlashMessage(2, "Target FPS set to %s Hz", fps);
 			Logger.info("Clock frequency changed to {} Hz", gameLoop.clock.getTargetFPS());
-		}
-
-		else if (Keyboard.keyPressed(MOD_CTRL | MOD_SHIFT, "S")) {
-			int fps = gameLoop.clock.getTargetFPS() - 10;
-			fps = Math.max(10, fps);
+		});
+		keyboard.bind(Keyboard.key(MOD_CTRL, "S"), () -> {
+			int fps = gameLoop.clock.getTargetFPS() + 10;
 			gameLoop.clock.setTargetFPS(fps);
 			showFlashMessage(2, "Target FPS set to %s Hz", fps);
 			Logger.info("Clock frequency changed to {} Hz", gameLoop.clock.getTargetFPS());
-		}
-
-		else if (Keyboard.keyPressed("V")) {
+		});
+		keyboard.bind(Keyboard.key(MOD_CTRL | MOD_SHIFT, "T"), () -> {
+			gameLoop.clock.stats().reset();
+			latencyTracer.reset();
+			showFlashMessage(1, "Frame statistics reset");
+		});
+		keyboard.bind(Keyboard.key(MOD_CTRL, "T"), () -> {
+			Logger.info("Frame statistics: {}", gameLoop.clock.stats().snapshot());
+			Logger.info("Input latency: {}", latencyTracer.summary());
+			showFlashMessage(1, "Frame statistics logged");
+		});
+		keyboard.bind(Keyboard.key("V"), () -> {
+			var game = gameController.game();
 			gameController.selectGameVariant(game.variant().next());
-		}
-
-		else if (Keyboard.keyPressed("X")) {
-			gameController.cheatKillAllEatableGhosts();
-		}
+		});
+		keyboard.bind(Keyboard.key("X"), gameController::cheatKillAllEatableGhosts);
+		keyboard.bind(Keyboard.key("Z"), gameController::startCutscenesTest);
+	}
 
-		else if (Keyboard.keyPressed("Z")) {
-			gameController.startCutscenesTest();
-		}
+	private void handleNonPlayerKeys() {
+		Keyboard.theKeyboard.runBoundActions();
 	}
 
 	private void restartIntro() {
@@ -0,0 +1,229 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.shell;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+import org.tinylog.Logger;
+
+/**
+ * Selects the render quality depending on the measured presentation time. The initial quality tier is chosen by a
+ * short blit throughput calibration, at runtime the tier is lowered when frames take too long and raised again when
+ * there is enough headroom.
+ * 
+ * @author Armin Reichert
+ */
+public class RenderQualityGovernor {
+
+	/**
+	 * Quality tiers, ordered from best to cheapest.
+	 */
+	public enum Tier {
+		/** Bilinear scaling. */
+		BILINEAR,
+		/** Nearest neighbor scaling. */
+		NEAREST,
+		/** Nearest neighbor scaling with integer scale factor. */
+		INTEGER,
+		/** Like {@link #INTEGER}, cosmetic effects like fading flash messages are skipped. */
+		MINIMAL;
+
+		public Tier lower() {
+			return this == MINIMAL ? MINIMAL : values()[ordinal() + 1];
+		}
+
+		public Tier higher() {
+			return this == BILINEAR ? BILINEAR : values()[ordinal() - 1];
+		}
+	}
+
+	/** Share of the frame budget the scaled blit may take to be accepted by the calibration. */
+	private static final double CALIBRATION_SHARE = 0.25;
+	/** Share of the frame budget above which the tier is lowered. */
+	private static final double STEP_DOWN_SHARE = 0.5;
+	/** Share of the frame budget below which the tier is raised. */
+	private static final double STEP_UP_SHARE = 0.15;
+	/** Number of consecutive frames the frame time must be below the step up limit. */
+	private static final int STEP_UP_FRAMES = 180;
+	/** Number of frames after a tier change during which no other change happens. */
+	private static final int COOLDOWN_FRAMES = 60;
+	/** Smoothing factor of the exponential moving average. */
+	private static final double EMA_ALPHA = 0.1;
+
+	private volatile Tier tier = Tier.BILINEAR;
+	private volatile boolean adaptive = true;
+	private double avgFrameNanos;
+	private int framesBelowLimit;
+	private int cooldown;
+
+	public Tier getTier() {
+		return tier;
+	}
+
+	public void setTier(Tier tier) {
+		this.tier = tier;
+	}
+
+	public boolean isAdaptive() {
+		return adaptive;
+	}
+
+	/**
+	 * @param adaptive if the tier is changed at runtime depending on the measured frame time
+	 */
+	public void setAdaptive(boolean adaptive) {
+		this.adaptive = adaptive;
+	}
+
+	/**
+	 * @return if cosmetic effects should be rendered in the current tier
+	 */
+	public boolean isCosmeticsEnabled() {
+		return tier != Tier.MINIMAL;
+	}
+
+	/**
+	 * @param scaling scaling factor
+	 * @return if the scaled frame covers the complete canvas in the current tier
+	 */
+	public boolean coversCanvas(float scaling) {
+		var currentTier = tier;
+		return !(currentTier == Tier.INTEGER || currentTier == Tier.MINIMAL) || scaling == (int) scaling;
+	}
+
+	/**
+	 * Prepares the graphics context for drawing the unscaled frame scaled into the given canvas size.
+	 * 
+	 * @param g            graphics context of the canvas
+	 * @param scaling      scaling factor
+	 * @param canvasWidth  canvas width
+	 * @param canvasHeight canvas height
+	 * @param frameWidth   width of unscaled frame
+	 * @param frameHeight  height of unscaled frame
+	 */
+	public void configure(Graphics2D g, float scaling, int canvasWidth, int canvasHeight, int frameWidth,
+			int frameHeight) {
+		var currentTier = tier;
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				currentTier == Tier.BILINEAR ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+						: RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+		if (currentTier == Tier.INTEGER || currentTier == Tier.MINIMAL) {
+			int intScaling = Math.max(1, (int) scaling);
+			int offsetX = (canvasWidth - intScaling * frameWidth) / 2;
+			int offsetY = (canvasHeight - intScaling * frameHeight) / 2;
+			g.translate(offsetX, offsetY);
+			g.scale(intScaling, intScaling);
+		} else {
+			g.scale(scaling, scaling);
+		}
+	}
+
+	/**
+	 * Measures the blit throughput of the scaled blit for each tier and selects the best tier fitting into the budget.
+	 * 
+	 * @param gc           graphics configuration of the canvas
+	 * @param frameWidth   unscaled frame width
+	 * @param frameHeight  unscaled frame height
+	 * @param scaling      scaling factor
+	 * @param budgetNanos  frame budget in nanoseconds
+	 */
+	public void calibrate(GraphicsConfiguration gc, int frameWidth, int frameHeight, float scaling, long budgetNanos) {
+		int canvasWidth = Math.round(scaling * frameWidth);
+		int canvasHeight = Math.round(scaling * frameHeight);
+		BufferedImage src = gc.createCompatibleImage(frameWidth, frameHeight);
+		VolatileImage dst = gc.createCompatibleVolatileImage(canvasWidth, canvasHeight);
+		try {
+			for (var candidate : new Tier[] { Tier.BILINEAR, Tier.NEAREST, Tier.INTEGER }) {
+				long cost = measureBlit(src, dst, candidate, scaling, frameWidth, frameHeight);
+				Logger.info("Render quality calibration: {} blit takes {} microseconds", candidate, cost / 1000);
+				tier = candidate;
+				if (cost < CALIBRATION_SHARE * budgetNanos) {
+					break;
+				}
+			}
+		} finally {
+			dst.flush();
+		}
+		Logger.info("Render quality tier is {}", tier);
+	}
+
+	private long measureBlit(BufferedImage src, VolatileImage dst, Tier candidate, float scaling, int frameWidth,
+			int frameHeight) {
+		int warmup = 5;
+		int rounds = 20;
+		tier = candidate;
+		long start = 0;
+		for (int i = 0; i < warmup + rounds; ++i) {
+			if (i == warmup) {
+				Toolkit.getDefaultToolkit().sync();
+				start = System.nanoTime();
+			}
+			var g = dst.createGraphics();
+			configure(g, scaling, dst.getWidth(), dst.getHeight(), frameWidth, frameHeight);
+			g.drawImage(src, 0, 0, null);
+			g.dispose();
+		}
+		Toolkit.getDefaultToolkit().sync();
+		return (System.nanoTime() - start) / rounds;
+	}
+
+	/**
+	 * Called after each presented frame.
+	 * 
+	 * @param frameNanos  time in nanoseconds used for drawing the frame, not including the wait for the buffer flip
+	 * @param budgetNanos frame budget in nanoseconds
+	 */
+	public void frameCompleted(long frameNanos, long budgetNanos) {
+		avgFrameNanos = avgFrameNanos == 0 ? frameNanos : EMA_ALPHA * frameNanos + (1 - EMA_ALPHA) * avgFrameNanos;
+		if (!adaptive) {
+			return;
+		}
+		if (cooldown > 0) {
+			--cooldown;
+			return;
+		}
+		if (avgFrameNanos > STEP_DOWN_SHARE * budgetNanos && tier != Tier.MINIMAL) {
+			changeTier(tier.lower());
+		} else if (avgFrameNanos < STEP_UP_SHARE * budgetNanos && tier != Tier.BILINEAR) {
+			if (++framesBelowLimit >= STEP_UP_FRAMES) {
+				changeTier(tier.higher());
+			}
+		} else {
+			framesBelowLimit = 0;
+		}
+	}
+
+	private void changeTier(Tier newTier) {
+		Logger.info("Render quality tier changed from {} to {} (average frame time {} microseconds)", tier, newTier,
+				(long) avgFrameNanos / 1000);
+		tier = newTier;
+		framesBelowLimit = 0;
+		cooldown = COOLDOWN_FRAMES;
+	}
+}
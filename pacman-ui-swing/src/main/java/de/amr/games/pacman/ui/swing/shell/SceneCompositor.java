@@ -0,0 +1,124 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.shell;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+import de.amr.games.pacman.ui.swing.app.FrameStats;
+import de.amr.games.pacman.ui.swing.lib.AcceleratedImages;
+import de.amr.games.pacman.ui.swing.lib.DamageTracker;
+import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
+
+/**
+ * Composes a frame from the layers of a game scene. The static and the semi-static layer are drawn into cached images
+ * which are only redrawn when the layer version changes, so per frame only a single image copy and the dynamic layer
+ * are drawn.
+ * <p>
+ * Redrawn layers are reported to the damage tracker of the frame graphics: a redrawn static layer damages the complete
+ * frame, a redrawn semi-static layer the regions drawn before and after the redraw.
+ * 
+ * @author Armin Reichert
+ */
+public class SceneCompositor {
+
+	private static final AffineTransform IDENTITY = new AffineTransform();
+
+	private final int width;
+	private final int height;
+	private final FrameStats stats;
+	private final BufferedImage staticLayer;
+	private final BufferedImage background; // static layer + semi-static layer
+	private final Graphics2D staticLayerGraphics;
+	private final Graphics2D backgroundGraphics;
+	private final DamageTracker semiStaticDamage;
+	private GameScene scene;
+	private long staticVersion;
+	private long semiStaticVersion;
+
+	public SceneCompositor(int width, int height, FrameStats stats) {
+		this.width = width;
+		this.height = height;
+		this.stats = stats;
+		staticLayer = AcceleratedImages.create(width, height, Transparency.OPAQUE);
+		background = AcceleratedImages.create(width, height, Transparency.OPAQUE);
+		staticLayerGraphics = staticLayer.createGraphics();
+		backgroundGraphics = background.createGraphics();
+		semiStaticDamage = new DamageTracker(width, height);
+	}
+
+	/**
+	 * Forces all cached layers to be redrawn.
+	 */
+	public void invalidate() {
+		scene = null;
+	}
+
+	/**
+	 * Draws the layers of the given scene including its overlay.
+	 * 
+	 * @param scene game scene
+	 * @param g     graphics of the frame
+	 */
+	public void compose(GameScene scene, Graphics2D g) {
+		composeScene(scene, g);
+		scene.renderOverlay(g);
+	}
+
+	/**
+	 * Draws the layers of the given scene without its overlay.
+	 * 
+	 * @param scene game scene
+	 * @param g     graphics of the frame
+	 */
+	public void composeScene(GameScene scene, Graphics2D g) {
+		boolean staticChanged = scene != this.scene || scene.staticLayerVersion() != staticVersion;
+		if (staticChanged) {
+			staticLayerGraphics.setTransform(IDENTITY);
+			staticLayerGraphics.setColor(Color.BLACK);
+			staticLayerGraphics.fillRect(0, 0, width, height);
+			scene.renderStaticLayer(staticLayerGraphics);
+			staticVersion = scene.staticLayerVersion();
+			stats.countLayerPixels((long) width * height);
+			DamageTracker.addAll(g);
+		}
+		if (staticChanged || scene.semiStaticLayerVersion() != semiStaticVersion) {
+			DamageTracker.addBlocks(g, semiStaticDamage.mask());
+			backgroundGraphics.setTransform(IDENTITY);
+			backgroundGraphics.drawImage(staticLayer, 0, 0, null);
+			DamageTracker.begin(backgroundGraphics, semiStaticDamage);
+			scene.renderSemiStaticLayer(backgroundGraphics);
+			DamageTracker.end(backgroundGraphics);
+			DamageTracker.addBlocks(g, semiStaticDamage.mask());
+			semiStaticVersion = scene.semiStaticLayerVersion();
+			stats.countLayerPixels((long) width * height);
+		}
+		this.scene = scene;
+		g.drawImage(background, 0, 0, null);
+		scene.render(g);
+	}
+}
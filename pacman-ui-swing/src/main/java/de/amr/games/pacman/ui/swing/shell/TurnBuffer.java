@@ -0,0 +1,142 @@
+/*
+MIT License
+
+Copyright (c) 2021-22 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.amr.games.pacman.ui.swing.shell;
+
+import de.amr.games.pacman.lib.steering.Direction;
+import de.amr.games.pacman.model.actors.Creature;
+
+/**
+ * Keeps the most recently requested direction of a player for a limited number of ticks and counts if the player
+ * takes the turn within that time (hit) or not (miss). The buffer does not steer, the requested direction is passed to
+ * the player immediately and kept as wish direction after the lifetime expired. So the lifetime only changes the
+ * statistics, which show how many turns are pressed too early or too late. Only turns are requested, not the current
+ * move direction or its reversal.
+ * 
+ * @author Armin Reichert
+ */
+public class TurnBuffer {
+
+	private int lifetime;
+	private Direction dir;
+	private long requestTime;
+	private int age;
+	private long hits;
+	private long misses;
+
+	/**
+	 * @param lifetime number of ticks the player has to take a requested direction
+	 */
+	public TurnBuffer(int lifetime) {
+		setLifetime(lifetime);
+	}
+
+	public int lifetime() {
+		return lifetime;
+	}
+
+	/**
+	 * @param lifetime number of ticks the player has to take a requested direction, 0 means the turn must be taken in
+	 *                 the tick of the request
+	 */
+	public void setLifetime(int lifetime) {
+		if (lifetime < 0) {
+			throw new IllegalArgumentException("Turn buffer lifetime must not be negative but is " + lifetime);
+		}
+		this.lifetime = lifetime;
+	}
+
+	/**
+	 * Requests a direction. A different direction still buffered is replaced and counted as miss. Requesting the
+	 * buffered direction again, e.g. by keyboard auto-repeat, keeps the original request.
+	 * 
+	 * @param dir         requested direction
+	 * @param requestTime {@link System#nanoTime()} of the key press requesting the direction
+	 */
+	public void request(Direction dir, long requestTime) {
+		if (dir == this.dir) {
+			return;
+		}
+		if (this.dir != null) {
+			++misses;
+		}
+		this.dir = dir;
+		this.requestTime = requestTime;
+		age = 0;
+	}
+
+	/**
+	 * Called once per tick. If the player has taken the buffered direction, it is removed from the buffer, counted as
+	 * hit and returned. Expired directions are dropped and counted as miss.
+	 * 
+	 * @param player player steered by this buffer
+	 * @return the direction the player has just taken or {@code null}
+	 */
+	public Direction poll(Creature player) {
+		if (dir == null) {
+			return null;
+		}
+		if (dir == player.moveDir()) {
+			var result = dir;
+			dir = null;
+			++hits;
+			return result;
+		}
+		if (++age > lifetime) {
+			dir = null;
+			++misses;
+		}
+		return null;
+	}
+
+	/**
+	 * @return {@link System#nanoTime()} of the key press requesting the buffered direction or the direction last
+	 *         returned by {@link #poll(Creature)}
+	 */
+	public long requestTime() {
+		return requestTime;
+	}
+
+	public void clear() {
+		dir = null;
+	}
+
+	/**
+	 * @return number of requested directions that have been taken in time
+	 */
+	public long hits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of requested directions that expired or have been replaced before they have been taken
+	 */
+	public long misses() {
+		return misses;
+	}
+
+	public void resetStats() {
+		hits = 0;
+		misses = 0;
+	}
+}
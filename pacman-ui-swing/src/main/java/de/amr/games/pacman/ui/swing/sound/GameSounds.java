@@ -27,6 +27,7 @@ package de.amr.games.pacman.ui.swing.sound;
 import java.net.URL;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import javax.sound.sampled.AudioInputStream;
@@ -35,12 +36,18 @@ import javax.sound.sampled.Clip;
 
 import org.tinylog.Logger;
 
+import de.amr.games.pacman.ui.swing.lib.AssetLoader;
+
 /**
  * @author Armin Reichert
  */
 public class GameSounds {
 
+	private static final GameSound[] SIRENS = { GameSound.SIREN_1, GameSound.SIREN_2, GameSound.SIREN_3,
+			GameSound.SIREN_4 };
+
 	protected final Map<GameSound, Clip> clips = new EnumMap<>(GameSound.class);
+	private final Map<GameSound, CompletableFuture<Clip>> openingClips = new EnumMap<>(GameSound.class);
 	protected boolean muted;
 
 	public boolean isMuted() {
@@ -54,7 +61,18 @@ public class GameSounds {
 		}
 	}
 
-	private Clip createAndOpenClip(URL url) {
+	private Clip createAndOpenClip(String path, URL url) {
+		var bundle = AssetLoader.get().bundle(path);
+		if (bundle.isPresent()) {
+			try {
+				var pcm = bundle.get().audio(path);
+				Clip clip = AudioSystem.getClip();
+				clip.open(pcm.format(), pcm.data(), 0, pcm.data().length);
+				return clip;
+			} catch (Exception x) {
+				throw new GameSoundException("Error opening audio clip '%s' from asset bundle", path);
+			}
+		}
 		try (AudioInputStream as = AudioSystem.getAudioInputStream(url)) {
 			Clip clip = AudioSystem.getClip();
 			clip.open(as);
@@ -64,13 +82,25 @@ public class GameSounds {
 		}
 	}
 
-	protected void put(Map<GameSound, Clip> map, GameSound sound, String path) {
+	/**
+	 * Starts opening the clip for the given sound concurrently, see {@link #awaitClips()}.
+	 */
+	protected void put(GameSound sound, String path) {
 		URL url = getClass().getResource(path);
 		if (url == null) {
 			throw new GameSoundException("Sound resource '%s' does not exist", path);
 		}
-		Clip clip = createAndOpenClip(url);
-		map.put(sound, clip);
+		openingClips.put(sound, AssetLoader.get().loadResource(path, () -> createAndOpenClip(path, url)));
+	}
+
+	/**
+	 * Waits until the clips requested by {@link #put(GameSound, String)} are open.
+	 */
+	protected void awaitClips() {
+		for (var entry : openingClips.entrySet()) {
+			clips.put(entry.getKey(), AssetLoader.await(entry.getValue()));
+		}
+		openingClips.clear();
 	}
 
 	protected void startClip(Clip clip) {
@@ -143,21 +173,24 @@ public class GameSounds {
 	}
 
 	public Stream<GameSound> sirens() {
-		return Stream.of(GameSound.SIREN_1, GameSound.SIREN_2, GameSound.SIREN_3, GameSound.SIREN_4);
+		return Stream.of(SIRENS);
 	}
 
 	public void ensureSirenStarted(int sirenIndex) {
-		if (sirens().noneMatch(this::isPlaying)) {
-			startSiren(sirenIndex);
+		for (var siren : SIRENS) {
+			if (isPlaying(siren)) {
+				return;
+			}
 		}
+		startSiren(sirenIndex);
 	}
 
 	public void stopSirens() {
-		sirens().forEach(siren -> {
+		for (var siren : SIRENS) {
 			if (isPlaying(siren)) {
 				getClip(siren).stop();
 				Logger.info("Siren {} stopped", siren);
 			}
-		});
+		}
 	}
 }
\ No newline at end of file
@@ -33,23 +33,24 @@ public class MsPacManGameSounds extends GameSounds {
 
 	public MsPacManGameSounds() {
 		//@formatter:off
-		put(clips, GameSound.BONUS_EATEN,     "/mspacman/sound/Fruit.wav");
-		put(clips, GameSound.CREDIT,          "/mspacman/sound/Coin Credit.wav");
-		put(clips, GameSound.EXTRA_LIFE,      "/mspacman/sound/Extra Life.wav");
-		put(clips, GameSound.GAME_READY,      "/mspacman/sound/Start.wav");
-		put(clips, GameSound.GHOST_EATEN,     "/mspacman/sound/Ghost.wav");
-		put(clips, GameSound.GHOST_RETURNING, "/mspacman/sound/Ghost Eyes.wav");
-		put(clips, GameSound.INTERMISSION_1,  "/mspacman/sound/They Meet Act 1.wav");
-		put(clips, GameSound.INTERMISSION_2,  "/mspacman/sound/The Chase Act 2.wav");
-		put(clips, GameSound.INTERMISSION_3,  "/mspacman/sound/Junior Act 3.wav");
-		put(clips, GameSound.PACMAN_MUNCH,    "/mspacman/sound/Ms. Pac Man Pill.wav");
-		put(clips, GameSound.PACMAN_DEATH,    "/mspacman/sound/Died.wav");
-		put(clips, GameSound.PACMAN_POWER,    "/mspacman/sound/Scared Ghost.wav");
-		put(clips, GameSound.SIREN_1,         "/mspacman/sound/Ghost Noise 1.wav");
-		put(clips, GameSound.SIREN_2,         "/mspacman/sound/Ghost Noise 2.wav");
-		put(clips, GameSound.SIREN_3,         "/mspacman/sound/Ghost Noise 3.wav");
-		put(clips, GameSound.SIREN_4,         "/mspacman/sound/Ghost Noise 4.wav");
+		put(GameSound.BONUS_EATEN,     "/mspacman/sound/Fruit.wav");
+		put(GameSound.CREDIT,          "/mspacman/sound/Coin Credit.wav");
+		put(GameSound.EXTRA_LIFE,      "/mspacman/sound/Extra Life.wav");
+		put(GameSound.GAME_READY,      "/mspacman/sound/Start.wav");
+		put(GameSound.GHOST_EATEN,     "/mspacman/sound/Ghost.wav");
+		put(GameSound.GHOST_RETURNING, "/mspacman/sound/Ghost Eyes.wav");
+		put(GameSound.INTERMISSION_1,  "/mspacman/sound/They Meet Act 1.wav");
+		put(GameSound.INTERMISSION_2,  "/mspacman/sound/The Chase Act 2.wav");
+		put(GameSound.INTERMISSION_3,  "/mspacman/sound/Junior Act 3.wav");
+		put(GameSound.PACMAN_MUNCH,    "/mspacman/sound/Ms. Pac Man Pill.wav");
+		put(GameSound.PACMAN_DEATH,    "/mspacman/sound/Died.wav");
+		put(GameSound.PACMAN_POWER,    "/mspacman/sound/Scared Ghost.wav");
+		put(GameSound.SIREN_1,         "/mspacman/sound/Ghost Noise 1.wav");
+		put(GameSound.SIREN_2,         "/mspacman/sound/Ghost Noise 2.wav");
+		put(GameSound.SIREN_3,         "/mspacman/sound/Ghost Noise 3.wav");
+		put(GameSound.SIREN_4,         "/mspacman/sound/Ghost Noise 4.wav");
 		//@formatter:on
+		awaitClips();
 		Logger.info("Ms. Pac-Man audio clips loaded");
 	}
 }
\ No newline at end of file
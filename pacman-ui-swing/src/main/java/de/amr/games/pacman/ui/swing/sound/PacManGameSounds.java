@@ -33,21 +33,22 @@ public class PacManGameSounds extends GameSounds {
 
 	public PacManGameSounds() {
 		//@formatter:off
-		put(clips, GameSound.BONUS_EATEN,     "/pacman/sound/eat_fruit.wav");
-		put(clips, GameSound.CREDIT,          "/pacman/sound/credit.wav");
-		put(clips, GameSound.EXTRA_LIFE,      "/pacman/sound/extend.wav");
-		put(clips, GameSound.GAME_READY,      "/pacman/sound/game_start.wav");
-		put(clips, GameSound.GHOST_EATEN,     "/pacman/sound/eat_ghost.wav");
-		put(clips, GameSound.GHOST_RETURNING, "/pacman/sound/retreating.wav");
-		put(clips, GameSound.INTERMISSION_1,  "/pacman/sound/intermission.wav");
-		put(clips, GameSound.PACMAN_MUNCH,    "/pacman/sound/munch_1.wav");
-		put(clips, GameSound.PACMAN_DEATH,    "/pacman/sound/pacman_death.wav");
-		put(clips, GameSound.PACMAN_POWER,    "/pacman/sound/power_pellet.wav");
-		put(clips, GameSound.SIREN_1,         "/pacman/sound/siren_1.wav");
-		put(clips, GameSound.SIREN_2,         "/pacman/sound/siren_2.wav");
-		put(clips, GameSound.SIREN_3,         "/pacman/sound/siren_3.wav");
-		put(clips, GameSound.SIREN_4,         "/pacman/sound/siren_4.wav");
+		put(GameSound.BONUS_EATEN,     "/pacman/sound/eat_fruit.wav");
+		put(GameSound.CREDIT,          "/pacman/sound/credit.wav");
+		put(GameSound.EXTRA_LIFE,      "/pacman/sound/extend.wav");
+		put(GameSound.GAME_READY,      "/pacman/sound/game_start.wav");
+		put(GameSound.GHOST_EATEN,     "/pacman/sound/eat_ghost.wav");
+		put(GameSound.GHOST_RETURNING, "/pacman/sound/retreating.wav");
+		put(GameSound.INTERMISSION_1,  "/pacman/sound/intermission.wav");
+		put(GameSound.PACMAN_MUNCH,    "/pacman/sound/munch_1.wav");
+		put(GameSound.PACMAN_DEATH,    "/pacman/sound/pacman_death.wav");
+		put(GameSound.PACMAN_POWER,    "/pacman/sound/power_pellet.wav");
+		put(GameSound.SIREN_1,         "/pacman/sound/siren_1.wav");
+		put(GameSound.SIREN_2,         "/pacman/sound/siren_2.wav");
+		put(GameSound.SIREN_3,         "/pacman/sound/siren_3.wav");
+		put(GameSound.SIREN_4,         "/pacman/sound/siren_4.wav");
 		//@formatter:on
+		awaitClips();
 		Logger.info("Pac-Man audio clips loaded");
 	}
 }
\ No newline at end of file